@@ -0,0 +1,96 @@
+package se.liu.kevma271.flappybird;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import java.util.logging.FileHandler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * The ErrorHandler class provides methods for handling and logging errors in the Flappy Bird game.
+ * <p>
+ *     The log file is only opened when the first error is logged, so
+ *     that a game without errors never creates it while starting.
+ * </p>
+ */
+public class ErrorHandler {
+    private static final String GAME_LOGS_FILE_PATH = "resources" + File.separator + "application.log";
+
+    /**
+     * Holds the logger, which is created with its file handler the first
+     * time the holder is used.
+     */
+    private static final class FileLog {
+	private static final Logger LOGGER = createLogger();
+
+	private static Logger createLogger() {
+	    final Logger logger = Logger.getLogger(ErrorHandler.class.getName());
+	    try {
+		FileHandler fileHandler = new FileHandler(GAME_LOGS_FILE_PATH);
+		logger.addHandler(fileHandler);
+		SimpleFormatter formatter = new SimpleFormatter();
+		fileHandler.setFormatter(formatter);
+	    } catch (IOException e) {
+		logger.severe("Could not create file to store logs: " + e.getMessage());
+		showErrorDialog("Could not create file to store logs.");
+	    }
+	    return logger;
+	}
+    }
+
+    public static void handleThreadInterruptedError(InterruptedException e) {
+	FileLog.LOGGER.severe("An error occurred while sleeping the thread: " + e.getMessage());
+	showErrorDialog("Thread sleep interrupted.");
+    }
+
+    /**
+     * Handles an error while loading highscores from JSON by logging the error,
+     * displaying an error dialog, and throwing an IllegalStateException since
+     * it is an error of high importance and needs to be handled immediatly.
+     *
+     * @param e The Exception object.
+     */
+    public static void handleHighscoresLoadingError(Exception e) {
+	FileLog.LOGGER.severe("An error occurred while loading scores from JSON: " + e.getMessage());
+	showErrorDialog("An error occurred while loading scores from JSON.");
+    }
+
+    public static void handleFileNotFoundError(FileNotFoundException e) {
+	FileLog.LOGGER.severe("An error occured while loading file: " + e.getMessage());
+	showErrorDialog("An error occured while loading file.");
+    }
+
+    public static void handleSavingScoreError(Exception ex) {
+	FileLog.LOGGER.severe("An error occurred during the game: " + ex.getMessage());
+	showErrorDialog("An error occurred during the game: " + ex.getMessage());
+    }
+
+    /**
+     * Handles an error while starting the shared leaderboard by logging
+     * it. The game is still playable, so no dialog is shown and the game
+     * continues without the leaderboard.
+     *
+     * @param e The exception.
+     */
+    public static void handleLeaderboardError(Exception e) {
+	FileLog.LOGGER.warning("Could not start the shared leaderboard, playing without it: " + e.getMessage());
+    }
+
+    /**
+     * Handles an error while saving the name of the player by logging
+     * it. Only the name that is suggested in the next session is lost,
+     * so no dialog is shown and the game over continues.
+     *
+     * @param e The exception.
+     */
+    public static void handlePlayerNameSavingError(IOException e) {
+	FileLog.LOGGER.warning("Could not save the player name: " + e.getMessage());
+    }
+
+    private static void showErrorDialog(String message) {
+	JOptionPane.showMessageDialog(null, message, "Error", JOptionPane.ERROR_MESSAGE);
+    }
+}
@@ -0,0 +1,402 @@
+package se.liu.kevma271.flappybird;
+
+import se.liu.kevma271.flappybird.highscores.Highscore;
+import se.liu.kevma271.flappybird.highscores.HighscoreList;
+import se.liu.kevma271.flappybird.highscores.PlayerStatistics;
+import se.liu.kevma271.flappybird.highscores.PlayerStatisticsStore;
+import se.liu.kevma271.flappybird.leaderboard.LeaderboardClient;
+import se.liu.kevma271.flappybird.leaderboard.LeaderboardEntry;
+import se.liu.kevma271.flappybird.objects.Bird;
+import se.liu.kevma271.flappybird.telemetry.TelemetryRecorder;
+import se.liu.kevma271.flappybird.telemetry.TelemetryWriter;
+import se.liu.kevma271.flappybird.visuals.GameScreen;
+import se.liu.kevma271.flappybird.visuals.LoadingScreen;
+
+import javax.swing.*;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author	Kevin Magron kevma271@student.liu.se
+ * @since 	2024-03-08
+ */
+
+/**
+ * The GameEngine class serves as the main controller for the Flappy Bird game,
+ * managing the game loop, initialization, and user interactions.
+ */
+public class GameEngine {
+    private Board board = null;
+    private GameScreen gameScreen = null;
+    private SimulationLoop simulation = null;
+    private HighscoreList highScores = new HighscoreList();
+
+    private static final Path TELEMETRY_DIRECTORY = Paths.get("resources", "telemetry");
+    private TelemetryWriter telemetry = new TelemetryWriter(TELEMETRY_DIRECTORY);
+
+    private static final Path PLAYER_STATISTICS_PATH = Paths.get("resources", "playerstats.bin");
+    private PlayerStatisticsStore playerStatistics = new PlayerStatisticsStore();
+
+    /**
+     * The player that the statistics of the games are kept for. The
+     * name is asked for at every game over, so players can take turns,
+     * and the last name given is offered again, also in the next
+     * session.
+     */
+    private static final Path PLAYER_NAME_PATH = Paths.get("resources", "playername.txt");
+    private static final String ANONYMOUS = "anonymous";
+    private String lastPlayerName = ANONYMOUS;
+
+    /**
+     * The shared leaderboard is only used when its address is given with
+     * -Dflappybird.leaderboard=http://host:port/ when starting the game.
+     * The site tells which arcade the scores were played at.
+     */
+    private static final String LEADERBOARD_PROPERTY = "flappybird.leaderboard";
+    private static final String SITE_PROPERTY = "flappybird.site";
+    private static final Path LEADERBOARD_QUEUE_PATH = Paths.get("resources", "leaderboard-queue.jsonl");
+    private static final int LEADERBOARD_LENGTH = 3;
+    private LeaderboardClient leaderboard = null;
+
+    /**
+     * The loading screen is shown for this many milliseconds, set with
+     * -Dflappybird.loadingScreenMillis=0 to go straight to the game.
+     */
+    private static final String LOADING_SCREEN_PROPERTY = "flappybird.loadingScreenMillis";
+    private static final long DEFAULT_LOADING_SCREEN_MILLIS = 4000;
+
+    /**
+     * With -Dflappybird.exitAfterFirstFrame=true the game prints how long
+     * it took to draw the first frame and exits, to measure startup.
+     */
+    private static final String EXIT_AFTER_FIRST_FRAME_PROPERTY = "flappybird.exitAfterFirstFrame";
+
+    /**
+     * The highscores, rankings, player statistics and leaderboard are
+     * not needed to show the game, so they are loaded in the background
+     * after the first frame. Only touched on the event dispatch thread.
+     */
+    private boolean savedDataLoading = false;
+    private final CompletableFuture<Void> savedDataLoaded = new CompletableFuture<>();
+
+    /**
+     * Which of the saved stores were loaded. A store that could not be
+     * loaded is never saved, since saving it would replace what is on
+     * disk with the games of this session only. Written by the loader
+     * before savedDataLoaded completes, and read after joining it.
+     */
+    private boolean hallOfFameLoaded = false;
+    private boolean ranksLoaded = false;
+    private boolean playerStatisticsLoaded = false;
+
+    /**
+     * The main method that initializes and starts the Flappy Bird game.
+     *
+     * @param args Command-line arguments (unused).
+     */
+    public static void main(String[] args) {
+        GameEngine game = new GameEngine();
+
+        try {
+            game.initializeGame();
+        } catch (FileNotFoundException e) {
+            ErrorHandler.handleFileNotFoundError(e);
+        } catch (InterruptedException e) {
+            ErrorHandler.handleThreadInterruptedError(e);
+        }
+    }
+
+    /**
+     * Initializes the game by calling relevant methods. This method
+     * is only called once, when the program is executed.
+     *
+     * @throws FileNotFoundException If an error occurs while
+     * loading files.
+     * @throws InterruptedException If an error occurs while
+     * sleeping code.
+     */
+    @SuppressWarnings("CatchFallthrough")
+    private void initializeGame() throws FileNotFoundException, InterruptedException {
+        showLoadingScreen();
+        startGame();
+    }
+
+    /**
+     * Display the loadingscreen for 4 seconds (4000 ms), unless another
+     * time is set with a system property. This may cause errors, which
+     * are caught here.
+     *
+     * @throws FileNotFoundException If an error occurs while
+     * loading files.
+     * @throws InterruptedException If an error occurs while
+     * sleeping code.
+     */
+    private void showLoadingScreen() throws FileNotFoundException, InterruptedException {
+        final long millis = Long.getLong(LOADING_SCREEN_PROPERTY, DEFAULT_LOADING_SCREEN_MILLIS);
+        if (millis <= 0) {
+            return;
+        }
+	LoadingScreen loadingScreen = new LoadingScreen();
+        loadingScreen.showFrame();
+        Thread.sleep(millis);
+        loadingScreen.dispose();
+    }
+
+    /**
+     * Load previous highscores that are stored locally on the
+     * computer. Every store is loaded on its own, so that one that can
+     * not be read does not keep the others from loading. If an error
+     * occurs than it is caught here and handled using ErrorHandler
+     * class.
+     */
+    private void loadHighScores() {
+        try {
+            List<Highscore> oldHighscores = highScores.getOldScores();
+            highScores.setHighscores(oldHighscores);
+            hallOfFameLoaded = true;
+        } catch (IOException | RuntimeException e) {
+            reportLoadingError(e);
+        }
+        try {
+            highScores.loadRanks();
+            ranksLoaded = true;
+        } catch (IOException | RuntimeException e) {
+            reportLoadingError(e);
+        }
+        try {
+            if (Files.exists(PLAYER_STATISTICS_PATH)) {
+                playerStatistics.load(PLAYER_STATISTICS_PATH);
+            }
+            playerStatisticsLoaded = true;
+        } catch (IOException | RuntimeException e) {
+            reportLoadingError(e);
+        }
+        try {
+            if (Files.exists(PLAYER_NAME_PATH)) {
+                final String name = Files.readString(PLAYER_NAME_PATH).trim();
+                if (!name.isEmpty()) {
+                    lastPlayerName = name;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Only the suggested name is lost
+            reportLoadingError(e);
+        }
+        startLeaderboard();
+    }
+
+    private void reportLoadingError(Exception e) {
+        SwingUtilities.invokeLater(() -> ErrorHandler.handleHighscoresLoadingError(e));
+    }
+
+    /**
+     * Loads the saved scores on a background thread, unless that has
+     * already started. Called on the event dispatch thread.
+     */
+    private void startLoadingSavedData() {
+        if (savedDataLoading) {
+            return;
+        }
+        savedDataLoading = true;
+        final Thread loader = new Thread(() -> {
+            try {
+                loadHighScores();
+            } catch (RuntimeException e) {
+                reportLoadingError(e);
+            } finally {
+                savedDataLoaded.complete(null);
+            }
+        }, "saved-data-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Called on the event dispatch thread once the first frame of the
+     * game has been drawn.
+     */
+    private void onFirstFrame() {
+        if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME_PROPERTY)) {
+            final long now = System.currentTimeMillis();
+            System.out.printf("First frame after %d ms%n", now - ManagementFactory.getRuntimeMXBean().getStartTime());
+            System.exit(0);
+        }
+        startLoadingSavedData();
+    }
+
+    /**
+     * Connects to the shared leaderboard, if one is configured, and
+     * starts fetching the best scores so that they are known by the
+     * first game over.
+     */
+    private void startLeaderboard() {
+        final String address = System.getProperty(LEADERBOARD_PROPERTY);
+        if (address == null) {
+            return;
+        }
+        try {
+            leaderboard = new LeaderboardClient(URI.create(address), LEADERBOARD_QUEUE_PATH);
+            leaderboard.getCachedTopScores(LEADERBOARD_LENGTH);
+        } catch (IOException | IllegalArgumentException e) {
+            ErrorHandler.handleLeaderboardError(e);
+        }
+    }
+
+    /**
+     * Starts the game by creating necessary instances and launching the
+     * game loop.
+     *
+     * @throws FileNotFoundException If an error occurs while
+     * loading files.
+     */
+    private void startGame() throws FileNotFoundException {
+        // Create necassary instances and variables
+        Bird bird = new Bird();
+        board = new Board(bird);
+        simulation = new SimulationLoop(board, this::onGameOver);
+        board.addBoardListener(new TelemetryRecorder(board, telemetry));
+        gameScreen = new GameScreen(board, simulation);
+        gameScreen.setFirstFrameListener(this::onFirstFrame);
+
+        // Show the gamescreen and start the game loop
+        gameScreen.showFrame();
+        simulation.start();
+    }
+
+    /**
+     * Called on the simulation thread once the game is over. The game
+     * over dialogs are shown on the event dispatch thread.
+     */
+    private void onGameOver() {
+        SwingUtilities.invokeLater(() -> {
+	    try {
+		handleGameOver();
+	    } catch (IOException ex) {
+                ErrorHandler.handleSavingScoreError(ex);
+  	    }
+	});
+    }
+
+    /**
+     * Handles game over events by saving the highscore, and prompting
+     * the user to restart or exit. The simulation loop has already
+     * stopped when this is called.
+     *
+     * @throws IOException If an error occurs during score saving.
+     * @throws FileNotFoundException If an error occurs while
+     * loading files.
+     */
+    private void handleGameOver() throws IOException, FileNotFoundException {
+        // The saved scores are usually loaded long before the first game is over
+        startLoadingSavedData();
+        savedDataLoaded.join();
+
+        // Every game is credited to the player, not only the ones that set a record
+        final String playerName = askForUsername();
+        if (!playerName.equals(lastPlayerName)) {
+            lastPlayerName = playerName;
+            try {
+                Files.writeString(PLAYER_NAME_PATH, playerName);
+            } catch (IOException e) {
+                // The game over goes on, only the suggestion for the next session is lost
+                ErrorHandler.handlePlayerNameSavingError(e);
+            }
+        }
+
+        // Create a new highscore
+        Highscore highScore = new Highscore(board.getScore());
+        final long rank = highScores.addRankedScore(board.getScore());
+
+        if (highScores.isThereNewHighscore(highScore)) {
+            highScore.setUsername(playerName);
+            highScores.addHighscore(highScore);
+        }
+        final PlayerStatistics statistics = playerStatistics.addScore(playerName, board.getScore());
+        if (leaderboard != null) {
+            // Only queues the score, it is sent in the background
+            leaderboard.submit(new LeaderboardEntry(playerName, board.getScore(), System.getProperty(SITE_PROPERTY, "local"),
+                                                    System.currentTimeMillis()));
+        }
+
+        if (hallOfFameLoaded) {
+            highScores.saveScoresAsJson();
+        }
+        if (ranksLoaded) {
+            highScores.saveRanks();
+        }
+        if (playerStatisticsLoaded) {
+            playerStatistics.save(PLAYER_STATISTICS_PATH);
+        }
+
+        // Give the user an option to restart or exit when finished
+        String[] options = { "Retry", "Chicken out"};
+        final String message = highScores.getHighscore() + "\n" +
+                               String.format("You placed #%,d of %,d", rank, highScores.getRankedScoreCount()) + "\n" +
+                               String.format("%s: %,d games, best %d, mean %.1f, p50 %d, p90 %d, p99 %d", playerName,
+                                             statistics.getGamesPlayed(), statistics.getBestScore(), statistics.getMeanScore(),
+                                             statistics.getPercentile(0.5), statistics.getPercentile(0.9),
+                                             statistics.getPercentile(0.99)) +
+                               getLeaderboardText();
+	int selection = JOptionPane.showOptionDialog(null, message, "Magron Inc.", JOptionPane.YES_NO_OPTION,
+                                                     JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (selection == 0) {
+            restartGame();
+        } else if (selection == 1) {
+            // Let the telemetry of the last game reach the disk
+            telemetry.close();
+            if (leaderboard != null) {
+                leaderboard.close();
+            }
+            System.exit(0);
+        }
+    }
+
+    /**
+     * Returns the best scores of the shared leaderboard as far as they
+     * are known, without waiting for the server.
+     *
+     * @return The lines to add to the game over message.
+     */
+    private String getLeaderboardText() {
+        if (leaderboard == null) {
+            return "";
+        }
+        final StringBuilder text = new StringBuilder();
+        int place = 1;
+        for (LeaderboardEntry entry : leaderboard.getCachedTopScores(LEADERBOARD_LENGTH)) {
+            text.append(String.format("%n#%d %s (%s): %d", place, entry.getPlayer(), entry.getSite(), entry.getScore()));
+            place += 1;
+        }
+        return text.toString();
+    }
+
+    /**
+     * Asks who is playing, suggesting the player of the last session.
+     *
+     * @return The name, or "anonymous" if none was given.
+     */
+    private String askForUsername() {
+        final String username = (String) JOptionPane.showInputDialog(null, "Please input your lame username", "Magron Inc.",
+                                                                     JOptionPane.QUESTION_MESSAGE, null, null,
+                                                                     lastPlayerName);
+        if (username == null || username.isBlank()) {
+            return ANONYMOUS;
+        }
+        return username.trim();
+    }
+
+    /**
+     * Starts a new game in the same window. The board, the screen and
+     * its images are reused, only the state of the game is reset.
+     */
+    private void restartGame() {
+        simulation.restart(System.nanoTime());
+    }
+}
@@ -0,0 +1,141 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.DegradationLevel;
+import se.liu.kevma271.flappybird.RenderSnapshot;
+import se.liu.kevma271.flappybird.images.GameImages;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Draws render snapshots of the board, including pipes, ground, Flappy
+ * Bird, and the score.
+ * <p>
+ *     The painter holds the decoded images and does not depend on any
+ *     window, so the same drawing code is used for the game screen and
+ *     for drawing frames off screen, for example when exporting videos
+ *     on a server without a display.
+ * </p>
+ * <p>
+ *     The quality can be lowered to draw faster, see
+ *     {@link DegradationLevel}.
+ * </p>
+ */
+public class BoardPainter {
+    private static final Color SKY_COLOR = new Color(78, 192, 202);
+
+    /**
+     * Where the score is drawn on the board, and how large.
+     */
+    static final int SCORE_FONT_SIZE = 42;
+    static final int SCORE_MARGIN = 18;
+
+    private final Map<GameImages, Image> imageMap = new EnumMap<>(GameImages.class);
+    private final Font font = new Font(" Serif", Font.PLAIN, SCORE_FONT_SIZE);
+    private DegradationLevel quality = DegradationLevel.FULL;
+
+    /**
+     * Loads and decodes all images of the game.
+     *
+     * @throws FileNotFoundException If an image is not found.
+     */
+    public void loadImages() throws FileNotFoundException {
+	for (GameImages image : GameImages.values()) {
+	    imageMap.put(image, loadImage(image.getResource()));
+	}
+    }
+
+    /**
+     * Loads a single image from the resources.
+     *
+     * @param resource The path of the image within the resources.
+     * @return The decoded image.
+     * @throws FileNotFoundException If the image is not found or can not
+     * be decoded.
+     */
+    static BufferedImage loadImage(String resource) throws FileNotFoundException {
+	final URL url = ClassLoader.getSystemResource(resource);
+	if (url == null) {
+	    throw new FileNotFoundException("Image resource not found: " + resource);
+	}
+	try {
+	    final BufferedImage image = ImageIO.read(url);
+	    if (image == null) {
+		throw new FileNotFoundException("Image resource could not be decoded: " + resource);
+	    }
+	    return image;
+	} catch (IOException e) {
+	    throw new FileNotFoundException("Image resource could not be read: " + resource + ": " + e.getMessage());
+	}
+    }
+
+    /**
+     * Draws the game elements of a render snapshot, including pipes, ground, Flappy Bird, and the score.
+     *
+     * @param g        The graphics context used for drawing.
+     * @param snapshot The state of the board to draw.
+     */
+    public void paint(Graphics g, RenderSnapshot snapshot) {
+	// Create variables
+	final int scoreXPos = snapshot.getBoardWidth() / 2 - SCORE_MARGIN;
+	final int scoreYPos = snapshot.getBoardHeight() / 6;
+
+	// The score is drawn in the color that the graphics context came with
+	final Color scoreColor = g.getColor();
+	setRenderingHints(g);
+	if (quality == DegradationLevel.FULL) {
+	    g.drawImage(imageMap.get(GameImages.BACKGROUND), 0, 0, snapshot.getBoardWidth(), snapshot.getBoardHeight(), null);
+	} else if (quality == DegradationLevel.MINIMAL) {
+	    g.setColor(SKY_COLOR);
+	    g.fillRect(0, 0, snapshot.getBoardWidth(), snapshot.getBoardHeight());
+	} else {
+	    // The background is made for the board size, so it can be copied without scaling
+	    g.drawImage(imageMap.get(GameImages.BACKGROUND), 0, 0, null);
+	}
+
+	final int pipeWidth = snapshot.getPipeWidth();
+	final int pipeHeight = snapshot.getPipeHeight();
+	for (int i = 0; i < snapshot.getPipeCount(); i++) {
+	    final int pipeX = snapshot.getPipePosX(i);
+	    final int pipeY = snapshot.getPipePosY(i);
+	    g.drawImage(imageMap.get(GameImages.TOP_PIPE), pipeX, pipeY, pipeWidth, pipeHeight, null);
+	    g.drawImage(imageMap.get(GameImages.BOTTOM_PIPE), pipeX, pipeY + pipeHeight + snapshot.getPipeGap(), pipeWidth, pipeHeight, null);
+	}
+
+	g.drawImage(imageMap.get(GameImages.FLOOR), 0, GameImages.GROUND_Y_POSITION, GameImages.GROUND_WIDTH,
+		    GameImages.GROUND_HEIGHT, null);
+	g.drawImage(imageMap.get(GameImages.forBird(snapshot.getBirdType())), snapshot.getBirdPosX(), snapshot.getBirdPosY(), snapshot.getBirdWidth(),
+		    snapshot.getBirdHeight(), null);
+	g.setFont(font);
+	g.setColor(scoreColor);
+	g.drawString(String.valueOf(snapshot.getScore()), scoreXPos, scoreYPos);
+    }
+
+    /**
+     * Leaves the hints that the graphics context came with at full
+     * quality, so that the game looks and costs the same as before the
+     * quality could be lowered, and asks for speed over quality with
+     * antialiasing and smooth image scaling off otherwise.
+     */
+    private void setRenderingHints(Graphics g) {
+	if (quality != DegradationLevel.FULL && g instanceof Graphics2D) {
+	    final Graphics2D g2d = (Graphics2D) g;
+	    g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
+	    g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+	    g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+	}
+    }
+
+    public DegradationLevel getQuality() {
+	return quality;
+    }
+    public void setQuality(DegradationLevel quality) {
+	this.quality = quality;
+    }
+}
@@ -0,0 +1,45 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.RenderSnapshot;
+import se.liu.kevma271.flappybird.headless.StartupProbe;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+
+/**
+ * The client counterpart of {@link StartupProbe}, used to measure how
+ * fast the client starts.
+ * <p>
+ *     The probe loads the images and draws the first frame of a game off
+ *     screen, which loads the same parts of the desktop modules as the
+ *     game does before its window shows, except for the window itself
+ *     since that needs a display.
+ * </p>
+ */
+public final class ClientStartupProbe {
+    private ClientStartupProbe() {}
+
+    /**
+     * Draws one frame and prints the memory used.
+     *
+     * @param args Command-line arguments (unused).
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+	System.setProperty("java.awt.headless", "true");
+	final Board board = new Board(new Bird(), 1);
+	final RenderSnapshot snapshot = new RenderSnapshot();
+	board.saveRenderSnapshot(snapshot);
+
+	final BoardPainter painter = new BoardPainter();
+	painter.loadImages();
+	final BufferedImage frame = new BufferedImage(board.getWidth(), board.getHeight(), BufferedImage.TYPE_INT_RGB);
+	final Graphics2D g = frame.createGraphics();
+	painter.paint(g, snapshot);
+	g.dispose();
+	System.out.printf("Drew a %d by %d frame, resident memory %d kB%n", frame.getWidth(), frame.getHeight(),
+			  StartupProbe.getResidentKilobytes());
+    }
+}
@@ -0,0 +1,226 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.BoardListener;
+import se.liu.kevma271.flappybird.Direction;
+import se.liu.kevma271.flappybird.FrameWatchdog;
+import se.liu.kevma271.flappybird.InputLatencyTracker;
+import se.liu.kevma271.flappybird.RenderSnapshot;
+import se.liu.kevma271.flappybird.SimulationLoop;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GameViewer class represents the graphical user interface for
+ * displaying the Flappy Bird game.
+ * It extends JPanel and implements the BoardListener interface to
+ * handle updates and user input.
+ * <p>
+ *     The board itself is simulated on another thread. The screen only
+ *     draws the latest render snapshot published by the simulation loop
+ *     and passes user input on to the loop.
+ * </p>
+ * <p>
+ *     The watchdog of the loop decides which ticks are drawn and how
+ *     cheaply, so that a slow computer still keeps up with the game.
+ * </p>
+ */
+public class GameScreen extends Handler implements BoardListener {
+    private Board board;
+    private SimulationLoop simulation;
+
+    private BoardPainter painter = new BoardPainter();
+
+    /**
+     * How often the input latency overlay is updated.
+     */
+    private static final long LATENCY_TEXT_INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private boolean showLatency = false;
+    private PerformanceHud hud;
+    private String latencyText = "";
+    private long latencyTextTime = 0;
+
+    /**
+     * Told once the first frame has been drawn, or null.
+     */
+    private Runnable firstFrameListener = null;
+    private boolean firstFrameDrawn = false;
+
+    /**
+     * Constructs a GameViewer object with a specified game board and
+     * the simulation loop that runs it.
+     *
+     * @param board      The game board.
+     * @param simulation The loop simulating the board.
+     */
+    public GameScreen(Board board, SimulationLoop simulation) throws FileNotFoundException {
+	// Initialize instances and frame
+	this.board = board;
+	this.simulation = simulation;
+	this.hud = new PerformanceHud(simulation.getWatchdog());
+
+	setFrameSettings();
+	loadImages();
+	board.addBoardListener(this);
+    }
+
+    public void setFrameSettings() {
+	frame = new JFrame("Flappy bird");
+	setPreferredSize(new Dimension(board.getWidth(), board.getHeight()));
+	frame.setSize(board.getWidth(), board.getHeight());
+	frame.setLocationRelativeTo(null);
+	frame.setResizable(false);
+	frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+	frame.add(this);
+	frame.pack();
+
+	setKeyBindings();
+    }
+
+    public void loadImages() throws FileNotFoundException {
+	painter.loadImages();
+    }
+
+    /**
+     * Sets what to do once the first frame has been drawn. The listener
+     * runs on the event dispatch thread after the frame is painted, and
+     * is a good time to load what the game does not need to show it.
+     *
+     * @param listener The listener, or null for none.
+     */
+    public void setFirstFrameListener(Runnable listener) {
+	this.firstFrameListener = listener;
+    }
+
+    /**
+     *     The method maps relevant keystrokes to respective action.
+     *     Sets the different keybindings in the game.
+     */
+    private void setKeyBindings() {
+	JComponent pane = frame.getRootPane();
+
+	final InputMap inputs = pane.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+	inputs.put(KeyStroke.getKeyStroke("SPACE"), "moveUp");
+	inputs.put(KeyStroke.getKeyStroke("UP"), "moveUp");
+	inputs.put(KeyStroke.getKeyStroke("W"), "moveUp");
+
+	inputs.put(KeyStroke.getKeyStroke("F2"), "toggleLatency");
+	inputs.put(KeyStroke.getKeyStroke("F3"), "toggleHud");
+
+	final ActionMap actions = pane.getActionMap();
+	actions.put("moveUp", new MoveAction(Direction.UP));
+	actions.put("toggleLatency", new ToggleLatencyAction());
+	actions.put("toggleHud", new ToggleHudAction());
+    }
+
+    public void boardChanged() {
+	if (simulation.getWatchdog().shouldRenderFrame()) {
+	    repaint();
+	}
+    }
+
+    public void birdChanged() {
+	repaint();
+    }
+
+    /**
+     * Draws the game elements on the panel, including pipes, ground, Flappy Bird, and the score.
+     * Everything is drawn from the latest render snapshot, never from the live board.
+     *
+     * @param g The graphics context used for drawing.
+     */
+    public void draw(Graphics g) {
+	final FrameWatchdog watchdog = simulation.getWatchdog();
+	final long start = System.nanoTime();
+	painter.setQuality(watchdog.getLevel());
+	final RenderSnapshot snapshot = simulation.getRenderSnapshots().getLatest();
+	painter.paint(g, snapshot);
+	final long end = System.nanoTime();
+	watchdog.recordFrame(end - start);
+	hud.frameDrawn(end - start);
+
+	final InputLatencyTracker inputLatency = simulation.getInputLatency();
+	inputLatency.framePresented(snapshot.getTickCount(), end);
+	if (showLatency) {
+	    drawLatency(g, inputLatency, end);
+	}
+	hud.draw(g, snapshot, end);
+
+	if (!firstFrameDrawn) {
+	    firstFrameDrawn = true;
+	    if (firstFrameListener != null) {
+		SwingUtilities.invokeLater(firstFrameListener);
+	    }
+	}
+    }
+
+    /**
+     * Draws the input latency percentiles in the corner of the screen.
+     * The text is only rebuilt a few times per second.
+     */
+    private void drawLatency(Graphics g, InputLatencyTracker inputLatency, long now) {
+	if (now - latencyTextTime > LATENCY_TEXT_INTERVAL) {
+	    latencyTextTime = now;
+	    latencyText = String.format("input p50 %.1f p90 %.1f p99 %.1f ms", inputLatency.getPercentile(0.5) / 1.0e6,
+					inputLatency.getPercentile(0.9) / 1.0e6, inputLatency.getPercentile(0.99) / 1.0e6);
+	}
+	final int margin = 4;
+	final int lineHeight = 14;
+	g.setFont(OVERLAY_FONT);
+	g.setColor(Color.BLACK);
+	g.drawString(latencyText, margin, lineHeight);
+    }
+
+    /**
+     * Represents an action for handling player movement based on keyboard input.
+     */
+    private class MoveAction extends AbstractAction {
+
+	/**
+	 * The direction of the movement.
+	 */
+	private Direction moveDirection;
+
+	/**
+	 * Constructs a MoveAction with the specified movement direction.
+	 *
+	 * @param moveDirection The direction of the movement.
+	 */
+	private MoveAction(Direction moveDirection) {
+	    this.moveDirection = moveDirection;
+	}
+
+	/**
+	 * Clones the MoveAction instance.
+	 *
+	 */
+	@Override public void actionPerformed(final ActionEvent e) {
+	    simulation.moveBird(moveDirection, System.nanoTime());
+	}
+    }
+
+    /**
+     * Shows or hides the performance overlay.
+     */
+    private class ToggleHudAction extends AbstractAction {
+	@Override public void actionPerformed(final ActionEvent e) {
+	    hud.setVisible(!hud.isVisible());
+	    repaint();
+	}
+    }
+
+    /**
+     * Shows or hides the input latency overlay.
+     */
+    private class ToggleLatencyAction extends AbstractAction {
+	@Override public void actionPerformed(final ActionEvent e) {
+	    showLatency = !showLatency;
+	    repaint();
+	}
+    }
+}
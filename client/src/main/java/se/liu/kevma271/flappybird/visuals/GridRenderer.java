@@ -0,0 +1,224 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.RenderSnapshot;
+import se.liu.kevma271.flappybird.RenderSnapshotBuffer;
+import se.liu.kevma271.flappybird.images.GameImages;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Draws many games side by side as tiles of one image.
+ * <p>
+ *     Every tile shows the latest render snapshot of one game. All tiles
+ *     are drawn at the same scale with the images of one shared
+ *     {@link SpriteCache}, so every image is only decoded and scaled
+ *     once however many games are shown. Each tile draws into its own
+ *     part of the image, which keeps whatever was drawn last until the
+ *     tile is drawn again.
+ * </p>
+ * <p>
+ *     A tile is only drawn when its game has ticked since the tile was
+ *     last drawn. When drawing takes longer than the budget of a frame,
+ *     the remaining tiles drop the frame and keep their old picture. The
+ *     next frame starts with the first tile that was dropped, so that no
+ *     tile is dropped more than once in a row until all others have been
+ *     drawn.
+ * </p>
+ * <p>
+ *     The renderer does not depend on any window, the spectator screen
+ *     shows the image and the spectator benchmark draws it off screen.
+ * </p>
+ */
+public class GridRenderer {
+    private static final Color SCORE_COLOR = Color.WHITE;
+
+    private final SpriteCache sprites;
+    private final int columns;
+    private final int rows;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final BufferedImage surface;
+    private final List<Tile> tiles = new ArrayList<>();
+
+    /**
+     * The tile that is drawn first in the next frame.
+     */
+    private int nextTile = 0;
+    private long drawnTiles = 0;
+    private long droppedTiles = 0;
+
+    /**
+     * Creates a renderer for a grid of tiles.
+     *
+     * @param sprites    The images to draw with, already loaded.
+     * @param columns    The number of tiles in a row.
+     * @param rows       The number of tiles in a column.
+     * @param tileWidth  The width of a tile in pixels.
+     * @param tileHeight The height of a tile in pixels.
+     */
+    public GridRenderer(final SpriteCache sprites, final int columns, final int rows, final int tileWidth, final int tileHeight) {
+	if (columns < 1 || rows < 1 || tileWidth < 1 || tileHeight < 1) {
+	    throw new IllegalArgumentException("The grid and its tiles must not be empty");
+	}
+	this.sprites = sprites;
+	this.columns = columns;
+	this.rows = rows;
+	this.tileWidth = tileWidth;
+	this.tileHeight = tileHeight;
+	this.surface = new BufferedImage(columns * tileWidth, rows * tileHeight, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Adds a game in the next free tile.
+     *
+     * @param snapshots The render snapshots of the game. The renderer
+     *                  becomes the only reader of the buffer.
+     * @return The index of the tile.
+     */
+    public int addGame(final RenderSnapshotBuffer snapshots) {
+	if (tiles.size() == columns * rows) {
+	    throw new IllegalStateException("All " + tiles.size() + " tiles of the grid are taken");
+	}
+	final int index = tiles.size();
+	final int x = index % columns * tileWidth;
+	final int y = index / columns * tileHeight;
+	tiles.add(new Tile(snapshots, surface.getSubimage(x, y, tileWidth, tileHeight)));
+	return index;
+    }
+
+    /**
+     * Draws the tiles whose games have ticked since they were last
+     * drawn, until the budget is used up.
+     *
+     * @param budgetNanos How long drawing may take.
+     * @return The number of tiles drawn.
+     */
+    public int render(final long budgetNanos) {
+	final long start = System.nanoTime();
+	final int tileCount = tiles.size();
+	int drawn = 0;
+	int firstDropped = -1;
+	for (int i = 0; i < tileCount; i++) {
+	    final int index = (nextTile + i) % tileCount;
+	    final Tile tile = tiles.get(index);
+	    final RenderSnapshot snapshot = tile.snapshots.getLatest();
+	    if (snapshot.getTickCount() == tile.drawnTick) {
+		continue;
+	    }
+	    if (drawn > 0 && System.nanoTime() - start > budgetNanos) {
+		tile.droppedFrames += 1;
+		droppedTiles += 1;
+		if (firstDropped < 0) {
+		    firstDropped = index;
+		}
+		continue;
+	    }
+	    tile.draw(snapshot);
+	    drawn += 1;
+	}
+	if (firstDropped >= 0) {
+	    nextTile = firstDropped;
+	}
+	drawnTiles += drawn;
+	return drawn;
+    }
+
+    /**
+     * Returns the image that the tiles are drawn into.
+     *
+     * @return The image of the whole grid.
+     */
+    public BufferedImage getSurface() {
+	return surface;
+    }
+    public int getTileCount() {
+	return tiles.size();
+    }
+    public long getTileDroppedFrames(final int index) {
+	return tiles.get(index).droppedFrames;
+    }
+    public long getDrawnTiles() {
+	return drawnTiles;
+    }
+    public long getDroppedTiles() {
+	return droppedTiles;
+    }
+
+    /**
+     * One game in the grid.
+     */
+    private class Tile {
+	private final RenderSnapshotBuffer snapshots;
+	private final BufferedImage image;
+	private final Graphics2D g;
+	private long drawnTick = -1;
+	private long droppedFrames = 0;
+
+	/**
+	 * The score as text, only rebuilt when the score changes.
+	 */
+	private int scoreShown = -1;
+	private String scoreText = "";
+	private Font scoreFont = null;
+
+	private Tile(final RenderSnapshotBuffer snapshots, final BufferedImage image) {
+	    this.snapshots = snapshots;
+	    this.image = image;
+	    this.g = image.createGraphics();
+	    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+	    g.setColor(Color.BLACK);
+	    g.fillRect(0, 0, image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Draws a snapshot scaled to fit the tile. Every image is drawn at
+	 * the size it was scaled to, so no scaling happens here.
+	 */
+	private void draw(final RenderSnapshot snapshot) {
+	    drawnTick = snapshot.getTickCount();
+	    final double scale = Math.min((double) image.getWidth() / snapshot.getBoardWidth(),
+					  (double) image.getHeight() / snapshot.getBoardHeight());
+
+	    g.drawImage(sprites.getSprite(GameImages.BACKGROUND, scaled(snapshot.getBoardWidth(), scale),
+					  scaled(snapshot.getBoardHeight(), scale)), 0, 0, null);
+
+	    final Image topPipe = sprites.getSprite(GameImages.TOP_PIPE, scaled(snapshot.getPipeWidth(), scale),
+						    scaled(snapshot.getPipeHeight(), scale));
+	    final Image bottomPipe = sprites.getSprite(GameImages.BOTTOM_PIPE, scaled(snapshot.getPipeWidth(), scale),
+						       scaled(snapshot.getPipeHeight(), scale));
+	    final int bottomPipeOffset = snapshot.getPipeHeight() + snapshot.getPipeGap();
+	    for (int i = 0; i < snapshot.getPipeCount(); i++) {
+		final int pipeX = scaled(snapshot.getPipePosX(i), scale);
+		g.drawImage(topPipe, pipeX, scaled(snapshot.getPipePosY(i), scale), null);
+		g.drawImage(bottomPipe, pipeX, scaled(snapshot.getPipePosY(i) + bottomPipeOffset, scale), null);
+	    }
+
+	    g.drawImage(sprites.getSprite(GameImages.FLOOR, scaled(GameImages.GROUND_WIDTH, scale),
+					  scaled(GameImages.GROUND_HEIGHT, scale)), 0,
+			scaled(GameImages.GROUND_Y_POSITION, scale), null);
+	    g.drawImage(sprites.getSprite(GameImages.forBird(snapshot.getBirdType()), scaled(snapshot.getBirdWidth(), scale),
+					  scaled(snapshot.getBirdHeight(), scale)), scaled(snapshot.getBirdPosX(), scale),
+			scaled(snapshot.getBirdPosY(), scale), null);
+
+	    if (snapshot.getScore() != scoreShown) {
+		scoreShown = snapshot.getScore();
+		scoreText = String.valueOf(scoreShown);
+	    }
+	    final int fontSize = Math.max(1, scaled(BoardPainter.SCORE_FONT_SIZE, scale));
+	    if (scoreFont == null || scoreFont.getSize() != fontSize) {
+		scoreFont = new Font(Font.SERIF, Font.PLAIN, fontSize);
+	    }
+	    g.setFont(scoreFont);
+	    g.setColor(SCORE_COLOR);
+	    g.drawString(scoreText, scaled(snapshot.getBoardWidth() / 2 - BoardPainter.SCORE_MARGIN, scale),
+			 scaled(snapshot.getBoardHeight() / 6, scale));
+	}
+
+	private int scaled(final int value, final double scale) {
+	    return (int) Math.round(value * scale);
+	}
+    }
+}
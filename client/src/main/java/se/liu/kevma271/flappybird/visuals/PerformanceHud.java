@@ -0,0 +1,202 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.FrameWatchdog;
+import se.liu.kevma271.flappybird.RenderSnapshot;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlay with performance numbers for finding problems without a
+ * profiler.
+ * <p>
+ *     The overlay shows the frame rate, the tick rate, percentiles of
+ *     the tick and frame times with a rolling graph of them, heap use,
+ *     garbage collections, the allocation rate and the number of pipes.
+ *     The numbers are sampled a few times per second into preallocated
+ *     arrays. The overlay is only drawn when they are, into an image
+ *     that every frame then just copies, so the frames in between do
+ *     not allocate.
+ * </p>
+ */
+public class PerformanceHud {
+    private static final long SAMPLE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int FRAME_SAMPLES = 128;
+
+    /**
+     * Number of samples in the graph, 15 seconds.
+     */
+    private static final int GRAPH_SAMPLES = 60;
+    private static final int GRAPH_HEIGHT = 40;
+    private static final double GRAPH_MAX_MILLIS = 20;
+    private static final int MARGIN = 6;
+    private static final int LINE_HEIGHT = 13;
+
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 160);
+    private static final Color TICK_COLOR = new Color(120, 200, 255);
+    private static final Color FRAME_COLOR = new Color(255, 200, 80);
+
+    private final FrameWatchdog watchdog;
+    private final GarbageCollectorMXBean[] collectors;
+    private final com.sun.management.ThreadMXBean threads;
+
+    private final long[] frameCosts = new long[FRAME_SAMPLES];
+    private final long[] tickCosts = new long[FrameWatchdog.TICK_SAMPLES];
+    private final long[] sorted = new long[Math.max(FRAME_SAMPLES, FrameWatchdog.TICK_SAMPLES)];
+    private int frameCount = 0;
+    private long frames = 0;
+
+    // Rolling graph of p50 and p99 in nanoseconds, oldest sample at graphNext
+    private final long[] tickP50 = new long[GRAPH_SAMPLES];
+    private final long[] tickP99 = new long[GRAPH_SAMPLES];
+    private final long[] frameP50 = new long[GRAPH_SAMPLES];
+    private final long[] frameP99 = new long[GRAPH_SAMPLES];
+    private int graphNext = 0;
+
+    private final String[] lines = { "", "", "", "" };
+    private BufferedImage panel = null;
+    private long lastSampleTime = 0;
+    private long lastSampleFrames = 0;
+    private long lastSampleTicks = 0;
+    private long lastSampleAllocated = 0;
+
+    private boolean visible = false;
+
+    public PerformanceHud(final FrameWatchdog watchdog) {
+	this.watchdog = watchdog;
+	collectors = ManagementFactory.getGarbageCollectorMXBeans().toArray(new GarbageCollectorMXBean[0]);
+	threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Reports a drawn frame. Called by the drawing thread for every
+     * frame, also while the overlay is hidden.
+     *
+     * @param nanos The time drawing the frame took.
+     */
+    public void frameDrawn(final long nanos) {
+	frameCosts[(int) (frames % FRAME_SAMPLES)] = nanos;
+	frames += 1;
+	frameCount = (int) Math.min(frames, FRAME_SAMPLES);
+    }
+
+    /**
+     * Draws the overlay if it is visible.
+     *
+     * @param g        The graphics context used for drawing.
+     * @param snapshot The frame that was just drawn.
+     * @param now      The current time in nanoseconds.
+     */
+    public void draw(Graphics g, RenderSnapshot snapshot, long now) {
+	if (!visible) {
+	    return;
+	}
+	if (panel == null) {
+	    panel = new BufferedImage(snapshot.getBoardWidth() - 2 * MARGIN, lines.length * LINE_HEIGHT + GRAPH_HEIGHT + 3 * MARGIN,
+				      BufferedImage.TYPE_INT_ARGB);
+	}
+	if (now - lastSampleTime > SAMPLE_INTERVAL) {
+	    sample(snapshot, now);
+	    drawPanel();
+	}
+	g.drawImage(panel, MARGIN, snapshot.getBoardHeight() - 140, null);
+    }
+
+    /**
+     * Draws the text and the graphs into the panel image.
+     */
+    private void drawPanel() {
+	final Graphics2D g = panel.createGraphics();
+	g.setComposite(AlphaComposite.Src);
+	g.setColor(BACKGROUND);
+	g.fillRect(0, 0, panel.getWidth(), panel.getHeight());
+	g.setComposite(AlphaComposite.SrcOver);
+
+	g.setFont(FONT);
+	g.setColor(Color.WHITE);
+	for (int i = 0; i < lines.length; i++) {
+	    g.drawString(lines[i], MARGIN, MARGIN + (i + 1) * LINE_HEIGHT);
+	}
+
+	final int graphBottom = lines.length * LINE_HEIGHT + 2 * MARGIN + GRAPH_HEIGHT;
+	final int step = (panel.getWidth() - 2 * MARGIN) / GRAPH_SAMPLES;
+	g.setColor(TICK_COLOR);
+	drawGraph(g, tickP50, MARGIN, graphBottom, step);
+	drawGraph(g, tickP99, MARGIN, graphBottom, step);
+	g.setColor(FRAME_COLOR);
+	drawGraph(g, frameP50, MARGIN, graphBottom, step);
+	drawGraph(g, frameP99, MARGIN, graphBottom, step);
+	g.dispose();
+    }
+
+    private void drawGraph(Graphics g, long[] samples, int left, int bottom, int step) {
+	int lastY = toGraphY(samples[graphNext], bottom);
+	for (int i = 1; i < GRAPH_SAMPLES; i++) {
+	    final int y = toGraphY(samples[(graphNext + i) % GRAPH_SAMPLES], bottom);
+	    g.drawLine(left + (i - 1) * step, lastY, left + i * step, y);
+	    lastY = y;
+	}
+    }
+
+    private static int toGraphY(long nanos, int bottom) {
+	return bottom - (int) (Math.min(nanos / 1.0e6, GRAPH_MAX_MILLIS) / GRAPH_MAX_MILLIS * GRAPH_HEIGHT);
+    }
+
+    /**
+     * Samples all numbers and rebuilds the text of the overlay.
+     */
+    private void sample(RenderSnapshot snapshot, long now) {
+	final double seconds = (now - lastSampleTime) / 1.0e9;
+	final long ticks = watchdog.getTicks();
+	final long allocated = threads.getTotalThreadAllocatedBytes();
+	final boolean first = lastSampleTime == 0;
+
+	final int tickCount = watchdog.copyTickCosts(tickCosts);
+	tickP50[graphNext] = percentile(tickCosts, tickCount, 0.5);
+	tickP99[graphNext] = percentile(tickCosts, tickCount, 0.99);
+	frameP50[graphNext] = percentile(frameCosts, frameCount, 0.5);
+	frameP99[graphNext] = percentile(frameCosts, frameCount, 0.99);
+
+	long collections = 0;
+	for (GarbageCollectorMXBean collector : collectors) {
+	    collections += Math.max(0, collector.getCollectionCount());
+	}
+	final Runtime runtime = Runtime.getRuntime();
+	final long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+	lines[0] = String.format("%5.1f fps  %5.1f ticks/s  %s", first ? 0 : (frames - lastSampleFrames) / seconds,
+				 first ? 0 : (ticks - lastSampleTicks) / seconds, watchdog.getLevel());
+	lines[1] = String.format("tick  p50 %5.2f p99 %5.2f ms", tickP50[graphNext] / 1.0e6, tickP99[graphNext] / 1.0e6);
+	lines[2] = String.format("frame p50 %5.2f p99 %5.2f ms", frameP50[graphNext] / 1.0e6, frameP99[graphNext] / 1.0e6);
+	lines[3] = String.format("heap %d MB  gc %d  alloc %.1f MB/s  pipes %d", heapUsed >> 20, collections,
+				 allocated < 0 || first ? 0 : (allocated - lastSampleAllocated) / seconds / (1 << 20),
+				 snapshot.getPipeCount());
+
+	graphNext = (graphNext + 1) % GRAPH_SAMPLES;
+	lastSampleTime = now;
+	lastSampleFrames = frames;
+	lastSampleTicks = ticks;
+	lastSampleAllocated = allocated;
+    }
+
+    private long percentile(long[] samples, int count, double fraction) {
+	if (count == 0) {
+	    return 0;
+	}
+	System.arraycopy(samples, 0, sorted, 0, count);
+	Arrays.sort(sorted, 0, count);
+	return sorted[Math.min(count - 1, (int) (fraction * count))];
+    }
+
+    public boolean isVisible() {
+	return visible;
+    }
+    public void setVisible(boolean visible) {
+	this.visible = visible;
+    }
+}
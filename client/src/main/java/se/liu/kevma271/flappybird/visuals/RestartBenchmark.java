@@ -0,0 +1,64 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.SimulationLoop;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.io.FileNotFoundException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how long it takes to retry a game.
+ * <p>
+ *     The old retry path built a new bird, board and simulation loop and
+ *     reloaded every image, which is compared with resetting the board
+ *     in place and restarting the simulation thread. Creating the window
+ *     itself is left out, since it needs a display. The benchmark also
+ *     reports how much memory the calling thread allocates per retry.
+ * </p>
+ */
+public final class RestartBenchmark {
+    private static final int REBUILDS = 200;
+    private static final int RESTARTS = 5_000;
+    private static final int ROUNDS = 3;
+
+    private RestartBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Command-line arguments (unused).
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+	System.setProperty("java.awt.headless", "true");
+	final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	final long threadId = Thread.currentThread().threadId();
+
+	for (int round = 1; round <= ROUNDS; round++) {
+	    long allocated = threads.getThreadAllocatedBytes(threadId);
+	    long start = System.nanoTime();
+	    for (int i = 0; i < REBUILDS; i++) {
+		final Board board = new Board(new Bird(), i);
+		new SimulationLoop(board, () -> {});
+		new BoardPainter().loadImages();
+	    }
+	    final double rebuildMicros = (System.nanoTime() - start) / 1.0e3 / REBUILDS;
+	    final long rebuildBytes = (threads.getThreadAllocatedBytes(threadId) - allocated) / REBUILDS;
+
+	    final Board board = new Board(new Bird(), 0);
+	    final SimulationLoop simulation = new SimulationLoop(board, () -> {});
+	    simulation.start();
+	    allocated = threads.getThreadAllocatedBytes(threadId);
+	    start = System.nanoTime();
+	    for (int i = 0; i < RESTARTS; i++) {
+		simulation.restart(i);
+	    }
+	    final double restartMicros = (System.nanoTime() - start) / 1.0e3 / RESTARTS;
+	    final long restartBytes = (threads.getThreadAllocatedBytes(threadId) - allocated) / RESTARTS;
+	    simulation.stop();
+
+	    System.out.printf("Round %d: rebuild %.1f us and %,d bytes, restart in place %.1f us and %,d bytes%n", round, rebuildMicros,
+			      rebuildBytes, restartMicros, restartBytes);
+	}
+    }
+}
@@ -0,0 +1,49 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.RenderSnapshotBuffer;
+import se.liu.kevma271.flappybird.headless.AutopilotPolicy;
+import se.liu.kevma271.flappybird.headless.HeadlessGame;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+/**
+ * A game played by the autopilot for the spectator grid to show.
+ * <p>
+ *     Every step plays one frame and publishes a render snapshot. When
+ *     the game is over, the board is restarted in place with the next
+ *     seed, so that the grid always has something to show.
+ * </p>
+ */
+class SpectatedGame {
+    private final Board board;
+    private final HeadlessGame game;
+    private final RenderSnapshotBuffer snapshots = new RenderSnapshotBuffer();
+    private long seed;
+
+    SpectatedGame(final long seed, final int safetyMargin) {
+	this.seed = seed;
+	this.board = new Board(new Bird(), seed);
+	this.game = new HeadlessGame(board, new AutopilotPolicy(safetyMargin));
+	publish();
+    }
+
+    /**
+     * Plays one frame, or starts a new game if this one is over.
+     */
+    void step() {
+	if (!game.step()) {
+	    seed += 1;
+	    board.reset(seed);
+	}
+	publish();
+    }
+
+    private void publish() {
+	board.saveRenderSnapshot(snapshots.getWriteSnapshot());
+	snapshots.publish();
+    }
+
+    RenderSnapshotBuffer getSnapshots() {
+	return snapshots;
+    }
+}
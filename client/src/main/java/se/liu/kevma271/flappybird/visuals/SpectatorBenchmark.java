@@ -0,0 +1,114 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import se.liu.kevma271.flappybird.RenderSnapshot;
+
+/**
+ * Measures how many games the spectator grid can draw at the frame rate
+ * of the game on one core.
+ * <p>
+ *     The games are played by the autopilot on the same thread, and
+ *     every frame the grid draws all tiles that changed. The grid is
+ *     compared with drawing every game with its own board painter,
+ *     scaled down to the tile, which is what showing each game in a
+ *     window of its own amounts to. Drawing happens off screen, so the
+ *     time to copy the grid to a display is not included.
+ * </p>
+ */
+public final class SpectatorBenchmark {
+    private static final int GAMES = 64;
+    private static final int COLUMNS = 16;
+    private static final int TILE_WIDTH = 120;
+    private static final int TILE_HEIGHT = 213;
+    private static final int FRAMES = 1_200;
+    private static final int PAINTER_FRAMES = 60;
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    private SpectatorBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Command-line arguments (unused).
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+	System.setProperty("java.awt.headless", "true");
+	final int rows = (GAMES + COLUMNS - 1) / COLUMNS;
+
+	final SpriteCache sprites = new SpriteCache();
+	sprites.loadImages();
+	final GridRenderer renderer = new GridRenderer(sprites, COLUMNS, rows, TILE_WIDTH, TILE_HEIGHT);
+	final List<SpectatedGame> games = createGames();
+	for (SpectatedGame game : games) {
+	    renderer.addGame(game.getSnapshots());
+	}
+
+	// Give the grid the whole frame, minus the time the games took to simulate
+	final long[] renderNanos = new long[FRAMES];
+	long simulationNanos = 0;
+	for (int frame = 0; frame < FRAMES; frame++) {
+	    final long start = System.nanoTime();
+	    for (SpectatedGame game : games) {
+		game.step();
+	    }
+	    final long simulated = System.nanoTime();
+	    renderer.render(FRAME_NANOS - (simulated - start));
+	    renderNanos[frame] = System.nanoTime() - simulated;
+	    simulationNanos += simulated - start;
+	}
+	// Leave out the first second, while the code is compiled
+	final long[] measured = Arrays.copyOfRange(renderNanos, 60, FRAMES);
+	Arrays.sort(measured);
+	final double meanMillis = Arrays.stream(measured).average().orElse(0) / 1.0e6;
+	System.out.printf("Grid of %d games: %.2f ms mean, %.2f ms p99 per frame (%.0f fps), simulation %.2f ms per frame%n", GAMES,
+			  meanMillis, measured[measured.length * 99 / 100] / 1.0e6, 1000 / meanMillis,
+			  simulationNanos / 1.0e6 / FRAMES);
+	System.out.printf("Tiles drawn %,d, dropped %,d%n", renderer.getDrawnTiles(), renderer.getDroppedTiles());
+
+	// The same games, each drawn by a painter of its own scaled down to the tile
+	final List<SpectatedGame> paintedGames = createGames();
+	final List<BoardPainter> painters = new ArrayList<>();
+	for (int i = 0; i < GAMES; i++) {
+	    final BoardPainter painter = new BoardPainter();
+	    painter.loadImages();
+	    painters.add(painter);
+	}
+	final BufferedImage surface = new BufferedImage(COLUMNS * TILE_WIDTH, rows * TILE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+	final Graphics2D g = surface.createGraphics();
+	final AffineTransform identity = g.getTransform();
+	long painterNanos = 0;
+	for (int frame = 0; frame < PAINTER_FRAMES; frame++) {
+	    for (SpectatedGame game : paintedGames) {
+		game.step();
+	    }
+	    final long start = System.nanoTime();
+	    for (int i = 0; i < GAMES; i++) {
+		final RenderSnapshot snapshot = paintedGames.get(i).getSnapshots().getLatest();
+		g.setTransform(identity);
+		g.setClip(i % COLUMNS * TILE_WIDTH, i / COLUMNS * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT);
+		g.translate(i % COLUMNS * TILE_WIDTH, i / COLUMNS * TILE_HEIGHT);
+		g.scale((double) TILE_WIDTH / snapshot.getBoardWidth(), (double) TILE_HEIGHT / snapshot.getBoardHeight());
+		painters.get(i).paint(g, snapshot);
+	    }
+	    painterNanos += System.nanoTime() - start;
+	}
+	g.dispose();
+	final double painterMillis = painterNanos / 1.0e6 / PAINTER_FRAMES;
+	System.out.printf("Painter per game: %.2f ms per frame (%.0f fps)%n", painterMillis, 1000 / painterMillis);
+    }
+
+    private static List<SpectatedGame> createGames() {
+	final List<SpectatedGame> games = new ArrayList<>();
+	for (int i = 0; i < GAMES; i++) {
+	    games.add(new SpectatedGame(i, 10 + i % 30));
+	}
+	return games;
+    }
+}
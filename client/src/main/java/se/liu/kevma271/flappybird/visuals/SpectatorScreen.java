@@ -0,0 +1,125 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Window that shows many games at once in a grid, for example on the big
+ * screen of a tournament.
+ * <p>
+ *     A single timer repaints the window at the frame rate of the game
+ *     and every repaint lets the {@link GridRenderer} draw the tiles that
+ *     have changed, within a fixed budget, before the whole grid is
+ *     copied to the screen. The window itself never simulates any game.
+ * </p>
+ */
+public class SpectatorScreen extends Handler {
+    private static final int FRAME_MILLIS = 1000 / 60;
+
+    /**
+     * How long drawing the tiles may take in a frame, the rest is left
+     * for copying the grid to the screen.
+     */
+    private static final long RENDER_BUDGET = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final GridRenderer renderer;
+    private Timer timer = null;
+
+    public SpectatorScreen(final GridRenderer renderer) {
+	this.renderer = renderer;
+    }
+
+    public void setFrameSettings() {
+	frame = new JFrame("Flappy bird spectators");
+	setPreferredSize(new Dimension(renderer.getSurface().getWidth(), renderer.getSurface().getHeight()));
+	frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+	frame.add(this);
+	frame.pack();
+	frame.setLocationRelativeTo(null);
+	timer = new Timer(FRAME_MILLIS, e -> repaint());
+    }
+
+    /**
+     * The images are loaded into the sprite cache of the renderer.
+     */
+    public void loadImages() {
+    }
+
+    @Override public void showFrame() {
+	super.showFrame();
+	timer.start();
+    }
+
+    @Override public void dispose() {
+	if (timer != null) {
+	    timer.stop();
+	}
+	super.dispose();
+    }
+
+    public void draw(Graphics g) {
+	renderer.render(RENDER_BUDGET);
+	g.drawImage(renderer.getSurface(), 0, 0, null);
+    }
+
+    /**
+     * Shows a grid of games played by the autopilot.
+     *
+     * @param args Command-line arguments, see the help text.
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+	final Options options = new Options();
+	options.addOption("n", "games", true, "number of games (default 16)");
+	options.addOption("c", "columns", true, "tiles in a row (default: as square a grid as possible)");
+	options.addOption("w", "width", true, "width of a tile in pixels (default 120)");
+	final CommandLine line;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	} catch (ParseException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("SpectatorScreen", options);
+	    return;
+	}
+
+	final int games = Integer.parseInt(line.getOptionValue("games", "16"));
+	final int columns = Integer.parseInt(line.getOptionValue("columns", String.valueOf((int) Math.ceil(Math.sqrt(games)))));
+	final int tileWidth = Integer.parseInt(line.getOptionValue("width", "120"));
+	final int tileHeight = tileWidth * 16 / 9;
+
+	final SpriteCache sprites = new SpriteCache();
+	sprites.loadImages();
+	final GridRenderer renderer = new GridRenderer(sprites, columns, (games + columns - 1) / columns, tileWidth, tileHeight);
+	final List<SpectatedGame> spectatedGames = new ArrayList<>();
+	for (int i = 0; i < games; i++) {
+	    final SpectatedGame game = new SpectatedGame(i, 10 + i % 30);
+	    spectatedGames.add(game);
+	    renderer.addGame(game.getSnapshots());
+	}
+
+	// All games are simulated on one thread, which is the only writer of their snapshots
+	final ScheduledExecutorService simulation = Executors.newSingleThreadScheduledExecutor();
+	simulation.scheduleAtFixedRate(() -> {
+	    for (SpectatedGame game : spectatedGames) {
+		game.step();
+	    }
+	}, 0, FRAME_MILLIS, TimeUnit.MILLISECONDS);
+
+	SwingUtilities.invokeLater(() -> {
+	    final SpectatorScreen screen = new SpectatorScreen(renderer);
+	    screen.setFrameSettings();
+	    screen.showFrame();
+	});
+    }
+}
@@ -0,0 +1,87 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import se.liu.kevma271.flappybird.images.GameImages;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The images of the game, decoded once and scaled to the size they are
+ * drawn at.
+ * <p>
+ *     Many of the images are far larger than they are drawn, a pipe is
+ *     for example 384 by 3072 pixels but drawn 64 by 464 pixels on the
+ *     board, and even smaller in a tile of the spectator grid. Scaling
+ *     them while drawing costs more than everything else in a frame. The
+ *     cache instead scales every image once to the size it is asked
+ *     for, so that drawing it is a plain copy of pixels. Every image
+ *     keeps the last size it was scaled to, which is enough as long as
+ *     everything using the cache draws at the same scale.
+ * </p>
+ * <p>
+ *     The cache is not thread safe and should only be used by the thread
+ *     that draws.
+ * </p>
+ */
+public class SpriteCache {
+    private final Map<GameImages, BufferedImage> originals = new EnumMap<>(GameImages.class);
+    private final Map<GameImages, BufferedImage> scaled = new EnumMap<>(GameImages.class);
+
+    /**
+     * Loads and decodes all images of the game.
+     *
+     * @throws FileNotFoundException If an image is not found.
+     */
+    public void loadImages() throws FileNotFoundException {
+	for (GameImages image : GameImages.values()) {
+	    originals.put(image, BoardPainter.loadImage(image.getResource()));
+	}
+	scaled.clear();
+    }
+
+    /**
+     * Returns an image scaled to exactly the given size. The image is
+     * only scaled the first time it is asked for in a new size.
+     *
+     * @param image  The image.
+     * @param width  The width to draw the image with, at least 1.
+     * @param height The height to draw the image with, at least 1.
+     * @return The scaled image.
+     */
+    public BufferedImage getSprite(GameImages image, int width, int height) {
+	final BufferedImage sprite = scaled.get(image);
+	if (sprite != null && sprite.getWidth() == width && sprite.getHeight() == height) {
+	    return sprite;
+	}
+	final BufferedImage scaledSprite = scale(originals.get(image), Math.max(1, width), Math.max(1, height));
+	scaled.put(image, scaledSprite);
+	return scaledSprite;
+    }
+
+    /**
+     * Scales an image with bilinear filtering. When shrinking an image
+     * to less than half its size, it is halved a step at a time, since
+     * a single bilinear step only looks at a few of the source pixels
+     * and leaves out thin details such as the outline of the pipes.
+     */
+    private static BufferedImage scale(BufferedImage original, int width, int height) {
+	final int type = original.getTransparency() == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB
+									   : BufferedImage.TYPE_INT_ARGB_PRE;
+	BufferedImage current = original;
+	do {
+	    final int stepWidth = Math.max(width, current.getWidth() / 2);
+	    final int stepHeight = Math.max(height, current.getHeight() / 2);
+	    final BufferedImage step = new BufferedImage(stepWidth, stepHeight, type);
+	    final Graphics2D g = step.createGraphics();
+	    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+	    g.setComposite(AlphaComposite.Src);
+	    g.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+	    g.dispose();
+	    current = step;
+	} while (current.getWidth() != width || current.getHeight() != height);
+	return current;
+    }
+}
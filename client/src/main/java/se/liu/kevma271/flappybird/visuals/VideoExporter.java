@@ -0,0 +1,309 @@
+package se.liu.kevma271.flappybird.visuals;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.RenderSnapshot;
+import se.liu.kevma271.flappybird.SimulationLoop;
+import se.liu.kevma271.flappybird.headless.AutopilotPolicy;
+import se.liu.kevma271.flappybird.headless.FlapPolicy;
+import se.liu.kevma271.flappybird.headless.HeadlessGame;
+import se.liu.kevma271.flappybird.headless.ReplayPolicy;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports games played without a window, such as replays and bot runs,
+ * as a sequence of PNG images or as an animated GIF.
+ * <p>
+ *     The game is played and drawn on the calling thread, frame by frame
+ *     and as fast as possible, into a small pool of reusable off screen
+ *     images. Encoding the images runs in parallel on a pool of worker
+ *     threads. A frame is only drawn once one of the images is free
+ *     again, which limits the number of frames in flight and with that
+ *     the memory used. GIF frames are converted to indexed colors in
+ *     parallel and then written in order.
+ * </p>
+ */
+public class VideoExporter {
+    /**
+     * Delay between the frames of an animated GIF in hundredths of a
+     * second, as close to the tick rate of the game as GIF allows.
+     */
+    private static final int GIF_FRAME_DELAY = 2;
+
+    /**
+     * The file formats that games can be exported to.
+     */
+    public enum Format {
+	PNG, GIF
+    }
+
+    private final BoardPainter painter;
+    private final Format format;
+    private final int workerCount;
+    private final int maxFramesInFlight;
+
+    private long exportedFrames = 0;
+    private long exportNanos = 0;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param painter           Draws the frames, with the images loaded.
+     * @param format            The format to export to.
+     * @param workerCount       Number of threads encoding frames.
+     * @param maxFramesInFlight Number of frames that may be waiting
+     *                          for or being encoded at the same time.
+     */
+    public VideoExporter(final BoardPainter painter, final Format format, final int workerCount, final int maxFramesInFlight) {
+	if (workerCount < 1 || maxFramesInFlight < 1) {
+	    throw new IllegalArgumentException("Need at least one worker and one frame in flight");
+	}
+	this.painter = painter;
+	this.format = format;
+	this.workerCount = workerCount;
+	this.maxFramesInFlight = maxFramesInFlight;
+    }
+
+    /**
+     * Plays the game until it is over or the frame limit is reached and
+     * exports every frame.
+     *
+     * @param game      The game to play and export.
+     * @param maxFrames The maximum number of frames to export.
+     * @param output    The directory for PNG images, or the file for a
+     *                  GIF.
+     * @throws IOException          If a frame could not be written.
+     * @throws InterruptedException If the export was interrupted.
+     */
+    public void export(final HeadlessGame game, final long maxFrames, final Path output) throws IOException, InterruptedException {
+	final Board board = game.getBoard();
+	final BlockingQueue<BufferedImage> freeImages = new ArrayBlockingQueue<>(maxFramesInFlight);
+	for (int i = 0; i < maxFramesInFlight; i++) {
+	    freeImages.add(new BufferedImage(board.getWidth(), board.getHeight(), BufferedImage.TYPE_INT_RGB));
+	}
+	final RenderSnapshot snapshot = new RenderSnapshot();
+	final ExecutorService workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+	    final Thread thread = new Thread(runnable, "frame-encoder");
+	    thread.setDaemon(true);
+	    return thread;
+	});
+	final GifSequence gif = format == Format.GIF ? new GifSequence(output) : null;
+	if (format == Format.PNG) {
+	    Files.createDirectories(output);
+	}
+
+	final long start = System.nanoTime();
+	CompletableFuture<Void> allFrames = CompletableFuture.completedFuture(null);
+	long frame = 0;
+	try {
+	    boolean playing = true;
+	    while (playing && frame < maxFrames) {
+		final BufferedImage image = freeImages.take();
+		board.saveRenderSnapshot(snapshot);
+		final Graphics2D graphics = image.createGraphics();
+		painter.paint(graphics, snapshot);
+		graphics.dispose();
+
+		final CompletableFuture<Void> encoded;
+		if (gif == null) {
+		    final Path file = output.resolve(String.format("frame_%06d.png", frame));
+		    encoded = CompletableFuture.runAsync(() -> writePng(image, file), workers);
+		    allFrames = CompletableFuture.allOf(allFrames, encoded);
+		} else {
+		    // Convert in parallel, but write in the order of the frames
+		    final CompletableFuture<BufferedImage> indexed = CompletableFuture.supplyAsync(() -> toIndexedColors(image), workers);
+		    encoded = allFrames.thenCombine(indexed, (previous, converted) -> {
+			gif.write(converted);
+			return null;
+		    });
+		    allFrames = encoded;
+		}
+		encoded.whenComplete((result, failure) -> freeImages.add(image));
+
+		frame += 1;
+		playing = game.step();
+	    }
+	    allFrames.join();
+	} catch (RuntimeException e) {
+	    if (e.getCause() instanceof UncheckedIOException) {
+		throw ((UncheckedIOException) e.getCause()).getCause();
+	    }
+	    throw e;
+	} finally {
+	    workers.shutdown();
+	    workers.awaitTermination(1, TimeUnit.MINUTES);
+	    if (gif != null) {
+		gif.close();
+	    }
+	}
+	exportedFrames = frame;
+	exportNanos = System.nanoTime() - start;
+    }
+
+    private static void writePng(final BufferedImage image, final Path file) {
+	try {
+	    ImageIO.write(image, "png", file.toFile());
+	} catch (IOException e) {
+	    throw new UncheckedIOException(e);
+	}
+    }
+
+    private static BufferedImage toIndexedColors(final BufferedImage image) {
+	final BufferedImage indexed = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_INDEXED);
+	final Graphics2D graphics = indexed.createGraphics();
+	graphics.drawImage(image, 0, 0, null);
+	graphics.dispose();
+	return indexed;
+    }
+
+    public long getExportedFrames() {
+	return exportedFrames;
+    }
+
+    /**
+     * Returns how many frames per second the last export produced.
+     */
+    public double getFramesPerSecond() {
+	return exportNanos == 0 ? 0 : exportedFrames * 1.0e9 / exportNanos;
+    }
+
+    /**
+     * An animated GIF that frames are appended to one at a time.
+     */
+    private static class GifSequence {
+	private final ImageWriter writer;
+	private final ImageOutputStream stream;
+	private boolean firstFrame = true;
+
+	private GifSequence(final Path file) throws IOException {
+	    writer = ImageIO.getImageWritersByFormatName("gif").next();
+	    Files.deleteIfExists(file);
+	    stream = ImageIO.createImageOutputStream(file.toFile());
+	    writer.setOutput(stream);
+	    writer.prepareWriteSequence(null);
+	}
+
+	/**
+	 * Appends a frame to the animation. Frames are written one at a
+	 * time, in the order of the calls.
+	 *
+	 * @param image The frame to append.
+	 */
+	private synchronized void write(final BufferedImage image) {
+	    try {
+		final IIOMetadata metadata = writer.getDefaultImageMetadata(new ImageTypeSpecifier(image), null);
+		final String formatName = metadata.getNativeMetadataFormatName();
+		final IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(formatName);
+
+		final IIOMetadataNode control = new IIOMetadataNode("GraphicControlExtension");
+		control.setAttribute("disposalMethod", "none");
+		control.setAttribute("userInputFlag", "FALSE");
+		control.setAttribute("transparentColorFlag", "FALSE");
+		control.setAttribute("delayTime", String.valueOf(GIF_FRAME_DELAY));
+		control.setAttribute("transparentColorIndex", "0");
+		root.appendChild(control);
+
+		if (firstFrame) {
+		    // Make the animation loop forever
+		    final IIOMetadataNode extensions = new IIOMetadataNode("ApplicationExtensions");
+		    final IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+		    loop.setAttribute("applicationID", "NETSCAPE");
+		    loop.setAttribute("authenticationCode", "2.0");
+		    loop.setUserObject(new byte[] { 1, 0, 0 });
+		    extensions.appendChild(loop);
+		    root.appendChild(extensions);
+		    firstFrame = false;
+		}
+
+		metadata.setFromTree(formatName, root);
+		writer.writeToSequence(new IIOImage(image, null, metadata), null);
+	    } catch (IOException e) {
+		throw new UncheckedIOException(e);
+	    }
+	}
+
+	private void close() throws IOException {
+	    writer.endWriteSequence();
+	    stream.close();
+	    writer.dispose();
+	}
+    }
+
+    /**
+     * Exports a game from the command line without a display.
+     *
+     * @param args Command-line arguments, run without any for help.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+	System.setProperty("java.awt.headless", "true");
+
+	final Options options = new Options();
+	options.addOption("s", "seed", true, "seed of the game (default 1)");
+	options.addOption("f", "flaps", true, "comma separated ticks to flap on (default: play with the autopilot)");
+	options.addOption("o", "output", true, "directory for PNG frames or file for a GIF");
+	options.addOption("g", "gif", false, "export an animated GIF instead of PNG frames");
+	options.addOption("n", "frames", true, "maximum number of frames (default 3600)");
+	options.addOption("t", "threads", true, "encoding threads (default: one per core)");
+	options.addOption("q", "queue", true, "maximum frames in flight (default: 4 per thread)");
+
+	final CommandLine line;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	} catch (ParseException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("VideoExporter", options);
+	    return;
+	}
+	if (!line.hasOption("output")) {
+	    new HelpFormatter().printHelp("VideoExporter", options);
+	    return;
+	}
+
+	final long seed = Long.parseLong(line.getOptionValue("seed", "1"));
+	final int threads = Integer.parseInt(line.getOptionValue("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+	final int queue = Integer.parseInt(line.getOptionValue("queue", String.valueOf(4 * threads)));
+	final long maxFrames = Long.parseLong(line.getOptionValue("frames", "3600"));
+	final FlapPolicy policy;
+	if (line.hasOption("flaps")) {
+	    policy = new ReplayPolicy(Arrays.stream(line.getOptionValue("flaps").split(",")).mapToLong(Long::parseLong).toArray());
+	} else {
+	    policy = new AutopilotPolicy();
+	}
+
+	final BoardPainter painter = new BoardPainter();
+	painter.loadImages();
+	final VideoExporter exporter = new VideoExporter(painter, line.hasOption("gif") ? Format.GIF : Format.PNG, threads, queue);
+	exporter.export(new HeadlessGame(new Board(new Bird(), seed), policy), maxFrames, Paths.get(line.getOptionValue("output")));
+
+	final double framesPerSecond = exporter.getFramesPerSecond();
+	final double realTimeFramesPerSecond = 1.0e9 / SimulationLoop.DEFAULT_TICK_NANOS;
+	System.out.printf("Exported %d frames at %.0f fps (%.1fx real time)%n", exporter.getExportedFrames(), framesPerSecond,
+			  framesPerSecond / realTimeFramesPerSecond);
+    }
+}
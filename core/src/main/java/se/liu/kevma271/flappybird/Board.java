@@ -0,0 +1,907 @@
+package se.liu.kevma271.flappybird;
+
+import se.liu.kevma271.flappybird.collisions.Contract;
+import se.liu.kevma271.flappybird.collisions.DefaultCollisions;
+import se.liu.kevma271.flappybird.collisions.Intangibility;
+import se.liu.kevma271.flappybird.collisions.UpperPipeIntangibility;
+import se.liu.kevma271.flappybird.course.CourseSource;
+import se.liu.kevma271.flappybird.course.GeneratedCourse;
+import se.liu.kevma271.flappybird.events.BoardEvent;
+import se.liu.kevma271.flappybird.events.BoardEventPublisher;
+import se.liu.kevma271.flappybird.events.BoardEventType;
+import se.liu.kevma271.flappybird.objects.Bird;
+import se.liu.kevma271.flappybird.objects.FixedPoint;
+import se.liu.kevma271.flappybird.objects.Pipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the game board in the Flappy Bird game.
+ * <p>
+ * 	The game board includes various elements such as pipes and the
+ * 	bird. It is responsible for making the game continue by calling
+ * 	relevant methods and creating relevant instances of classes. It
+ * 	is responsible for all mechanics.
+ * </p>
+ */
+public class Board {
+    private static final int WIDTH = 360;
+    private static final int HEIGHT = 640;
+
+    /**
+     * List of listeners to be notified when the game board changes.
+     */
+    private List<BoardListener> boardListeners = new ArrayList<>();
+
+    /**
+     * Publishes what happens on the board to subscribers on other
+     * threads, without waiting for them.
+     */
+    private final BoardEventPublisher events = new BoardEventPublisher();
+    private List<Pipe> pipes = new ArrayList<>();
+    private Contract collisionHandler = new DefaultCollisions();
+
+    /**
+     * Schedules power-ups and the end of timed effects on tick numbers.
+     */
+    private TickScheduler scheduler = new TickScheduler();
+
+    private Pipe pipe = null;
+    private Bird bird;
+
+    /**
+     * Source of all randomness on the board, seeded so that a game can
+     * be replayed and its state saved and restored.
+     */
+    private GameRandom random;
+    private long seed;
+    private long tickCount = 0;
+
+    /**
+     * The heights of the pipes, and how many pipes have been taken from it.
+     */
+    private CourseSource course;
+    private long pipeIndex = 0;
+
+    /**
+     * How hard the game is, the gap and speed of the pipes, the flap,
+     * the gravity and the odds of the power-ups.
+     */
+    private final GameSettings settings;
+
+    /**
+     * Gravity in fixed-point units per tick squared.
+     */
+    private int gravity;
+    private int score = 0;
+    private boolean gameOver = false;
+    private boolean running = false;
+
+    /**
+     * What the game has counted so far, for telemetry.
+     */
+    private int flapCount = 0;
+    private int superPowerCount = 0;
+    private int gravityPowerCount = 0;
+    private DeathCause deathCause = null;
+
+    /**
+     * The tick of every flap, in the order they were made. Only the
+     * first flapCount ticks are used.
+     */
+    private static final int DEFAULT_FLAP_CAPACITY = 64;
+    private long[] flapTicks = new long[DEFAULT_FLAP_CAPACITY];
+
+    /**
+     * Whether collisions are tested over the whole motion since the last
+     * tick instead of only at the current positions.
+     */
+    private boolean sweptCollisions = false;
+
+    /**
+     * Whether listeners and subscribers are left out, while frames that
+     * were already shown are simulated again.
+     */
+    private boolean silent = false;
+
+    /**
+     * The events of the frames that are simulated again, held back until
+     * the rollback is over.
+     */
+    private final List<BoardEvent> resimulatedEvents = new ArrayList<>();
+
+    public Board(Bird bird) {
+	this(bird, System.nanoTime());
+    }
+
+    public Board(Bird bird, long seed) {
+	this(bird, seed, new GeneratedCourse(seed));
+    }
+
+    public Board(Bird bird, long seed, CourseSource course) {
+	this(bird, seed, course, GameSettings.DEFAULT);
+    }
+
+    public Board(Bird bird, long seed, CourseSource course, GameSettings settings) {
+	this.settings = settings;
+	this.sweptCollisions = settings.hasSweptCollisions();
+	this.gravity = settings.getGravity();
+	this.seed = seed;
+	this.random = new GameRandom(seed);
+	this.course = course;
+	this.bird = bird;
+	setUpGame();
+    }
+
+    /**
+     * Puts the bird and the first pipes in their starting positions
+     * and schedules the start of the game.
+     */
+    private void setUpGame() {
+	// Initialize the bird
+	bird.setPosX(WIDTH / 8);
+	bird.setPosY(HEIGHT / 2);
+	bird.rememberPosition();
+
+	// Create the first pipes
+	createPipes();
+
+	// Make the game normal on the first tick, which also schedules the first power-up
+	scheduler.schedule(1, TimedEffect.SHIELD_EXPIRED);
+    }
+
+    /**
+     * Starts a new game on a new course generated from the given seed.
+     *
+     * @param seed The seed of the new game.
+     */
+    public void reset(long seed) {
+	reset(seed, new GeneratedCourse(seed));
+    }
+
+    /**
+     * Starts a new game on this board, as if it had just been created.
+     * <p>
+     *     The board, the bird and the listeners are kept, so that
+     *     retrying does not have to rebuild the screen or reload any
+     *     images. Listeners are notified once the new game is set up.
+     * </p>
+     *
+     * @param seed   The seed of the new game.
+     * @param course The pipe heights of the new game.
+     */
+    public void reset(long seed, CourseSource course) {
+	this.seed = seed;
+	random.setState(seed);
+	this.course = course;
+	tickCount = 0;
+	pipeIndex = 0;
+	scheduler.clear();
+
+	final PowerUp oldBirdType = bird.getType();
+	bird.setType(null);
+	bird.setSpeed(0);
+	if (collisionHandler.getDescription() != PowerUp.REGULAR) {
+	    collisionHandler = new DefaultCollisions();
+	}
+	gravity = settings.getGravity();
+	score = 0;
+	gameOver = false;
+	running = false;
+	flapCount = 0;
+	superPowerCount = 0;
+	gravityPowerCount = 0;
+	deathCause = null;
+
+	pipes.clear();
+	pipe = null;
+	publishEvent(BoardEventType.GAME_STARTED, seed, null, null);
+	setUpGame();
+
+	if (oldBirdType != null) {
+	    notifyListenersSuperPower();
+	}
+	notifyListenersBoardChanged();
+    }
+
+    /**
+     * Calls other methods every tick of the game so the game continues
+     */
+    public void tick() {
+	tickCount += 1;
+
+	// Update speed of the bird, the bird moves whole pixels only
+	bird.updateSpeed(gravity);
+	bird.updatePosY(FixedPoint.toPixels(bird.getSpeed()));
+
+	// Call methods to continue game
+	areThereCollisions();
+	runTimedEffects();
+	updatePipes();
+	updateScore();
+	notifyListenersBoardChanged();
+    }
+
+    /**
+     * Checks if any collisions have happened
+     */
+    private void areThereCollisions() {
+	// Check for collisions
+	boolean collided;
+	if (sweptCollisions) {
+	    collided = collisionHandler.hasSweptCollision(pipes, this, bird);
+	} else {
+	    collided = collisionHandler.hasCollision(pipes, this, bird);
+	}
+	if (collided) {
+	    if (!gameOver) {
+		deathCause = findDeathCause();
+		gameOver = true;
+		publishEvent(BoardEventType.GAME_OVER, score, null, deathCause);
+	    }
+	}
+
+	// The next swept check starts from here
+	bird.rememberPosition();
+	for (Pipe pipe : pipes) {
+	    pipe.rememberPosition();
+	}
+    }
+
+    /**
+     * Finds out what the bird collided with. The board edges are checked
+     * in the same way as by the collision handlers. Otherwise the bird
+     * hit the pipe closest to it, and it hit the top pipe if it is in
+     * the upper half of that pipe's gap.
+     *
+     * @return What the bird collided with.
+     */
+    private DeathCause findDeathCause() {
+	if (bird.getPosY() <= getCeilingPosY()) {
+	    return DeathCause.CEILING;
+	} else if (bird.getPosY() >= getFloorPosY()) {
+	    return DeathCause.FLOOR;
+	}
+
+	final int birdCenterX = bird.getPosX() + bird.getWidth() / 2;
+	Pipe closestPipe = pipes.getFirst();
+	for (Pipe pipe : pipes) {
+	    if (Math.abs(pipe.getPosX() + pipe.getWidth() / 2 - birdCenterX) <
+		Math.abs(closestPipe.getPosX() + closestPipe.getWidth() / 2 - birdCenterX)) {
+		closestPipe = pipe;
+	    }
+	}
+
+	final int topPipeEnd = closestPipe.getPosY() + closestPipe.getHeight();
+	final int bottomPipeStart = topPipeEnd + closestPipe.getGap() - closestPipe.getMushroom();
+	if (bird.getPosY() < (topPipeEnd + bottomPipeStart) / 2) {
+	    return DeathCause.TOP_PIPE;
+	}
+	return DeathCause.BOTTOM_PIPE;
+    }
+
+    /**
+     * Handles the timed effects that are due on this tick.
+     * <p>
+     *     Only the effects of the current tick are looked at, so this
+     *     is constant work per tick. New timed effects are added as a
+     *     value in {@link TimedEffect} and handled here.
+     * </p>
+     */
+    private void runTimedEffects() {
+	TimedEffect effect = scheduler.poll(tickCount);
+	while (effect != null) {
+	    switch (effect) {
+		case SPAWN_POWER_UP:
+		    createRandomSuperPower();
+		    break;
+		case POWER_UP_SCORE:
+		    addScoreDuringSuperPower();
+		    break;
+		case POWER_UP_EXPIRED:
+		    createPostPowerShield();
+		    break;
+		case SHIELD_EXPIRED:
+		    makeGameNormal();
+		    break;
+	    }
+	    effect = scheduler.poll(tickCount);
+	}
+    }
+
+    /**
+     * Schedules the next power-up at a random tick.
+     * <p>
+     *     Power-ups used to be created by generating a random number on
+     *     every tick and checking if it fell within certain intervals.
+     *     The number of ticks until that happens follows a geometric
+     *     distribution, so the waiting time is drawn once from that
+     *     distribution instead.
+     * </p>
+     */
+    private void scheduleNextSuperPower() {
+	final double spawnChance = (double) (getBirdSuperOutcomes() + getGravitySuperOutcomes()) / getPowerUpRandomRange();
+	if (spawnChance <= 0) {
+	    // Power-ups are turned off
+	    return;
+	}
+
+	// Inverse transform sampling, the 1 - random keeps the logarithm finite
+	final double uniform = 1 - random.nextDouble();
+	final long ticksUntilSpawn = 1 + (long) (Math.log(uniform) / Math.log(1 - spawnChance));
+	scheduler.schedule(tickCount + ticksUntilSpawn, TimedEffect.SPAWN_POWER_UP);
+    }
+
+    /**
+     * Creates one of the superpowers, with the same odds between them
+     * as when a random number was generated on every tick.
+     */
+    private void createRandomSuperPower() {
+	final int outcomes = getBirdSuperOutcomes() + getGravitySuperOutcomes();
+	if (random.nextDouble() * outcomes < getBirdSuperOutcomes()) {
+	    setBirdSuper();
+	} else {
+	    setGravitySuper();
+	}
+    }
+
+    private int getPowerUpRandomRange() {
+	return settings.getPowerUpRange();
+    }
+
+    /**
+     * Returns how many of the random numbers create the bird superpower.
+     */
+    private int getBirdSuperOutcomes() {
+	return settings.getBirdSuperOutcomes();
+    }
+
+    /**
+     * Returns how many of the random numbers create the gravity superpower.
+     */
+    private int getGravitySuperOutcomes() {
+	return settings.getGravitySuperOutcomes();
+    }
+
+    /**
+     * Sets objects back to default settings after a superpower and
+     * schedules the next one.
+     */
+    private void makeGameNormal() {
+	collisionHandler = new DefaultCollisions();
+	bird.setType(collisionHandler.getDescription());
+	notifyListenersSuperPower();
+	scheduleNextSuperPower();
+    }
+
+    /**
+     * Creates a post-superpower shield.
+     * <p>
+     *     Sets the collisionhandler to intangibility to momentairly turn
+     *     collisions. The method schedules the end of the shield, which
+     *     will revert the collisionhandler to default. The pipespeed and
+     *     gravity are reverted right away.
+     * </p>
+     */
+    private void createPostPowerShield() {
+	// Invincibility will be active for 55 ticks, the game is normal again on the tick after
+	final int invincibilityTime = 55;
+
+	publishEvent(BoardEventType.POWER_UP_ENDED, 0, collisionHandler.getDescription(), null);
+	collisionHandler = new Intangibility();
+	bird.setType(collisionHandler.getDescription());
+	notifyListenersSuperPower();
+	scheduler.schedule(tickCount + invincibilityTime + 1, TimedEffect.SHIELD_EXPIRED);
+	pipe.setSpeed(pipe.getDefaultSpeed());
+	gravity = settings.getGravity();
+    }
+
+    /**
+     * Handles scores during superpowers.
+     * <p>
+     *     Since the default score handling counts how many pipes one has
+     *     passed, it would be unbalanced with superpowers. This method
+     *     is scheduled every second of the superpower and adds to the
+     *     score instead.
+     * </p>
+     */
+    private void addScoreDuringSuperPower() {
+	if (Math.abs(pipe.getSpeed() - pipe.getDefaultSpeed()) > FixedPoint.ONE) {
+	    score += 1;
+	    publishEvent(BoardEventType.SCORE_CHANGED, score, null, null);
+	}
+    }
+
+    /**
+     * Handles the creation of the superpower.
+     * <p>
+     *     Schedules the end of the superpower after a randomly generated
+     *     period within a minimum and maximum time, and a score for
+     *     every second of it. It increaces the speed of the pipes
+     *     drastically and sets the collisionhandler to intangibility
+     *     to minimize collisions. It also changes the color of the bird
+     *     to blue.
+     * </p>
+     */
+    private void setBirdSuper() {
+	// Min and max ticks for intangibility
+	final int minIntangibilityTime = 200;
+	final int maxIntangibilityTime = 400;
+	final int framesPerSecond = 60;
+	final int scoreAddInterval = framesPerSecond;
+
+	collisionHandler = new Intangibility();
+	bird.setType(collisionHandler.getDescription());
+	superPowerCount += 1;
+	final int duration = (int) (minIntangibilityTime + maxIntangibilityTime * random.nextDouble());
+	scheduleSuperPowerEnd(duration);
+
+	// Score whenever a whole number of seconds remains of the superpower
+	for (int remaining = duration - duration % scoreAddInterval; remaining > 0; remaining -= scoreAddInterval) {
+	    scheduler.schedule(tickCount + duration - remaining, TimedEffect.POWER_UP_SCORE);
+	}
+	pipe.setSpeed(pipe.getIntangibilitySpeed());
+	publishEvent(BoardEventType.POWER_UP_STARTED, 0, PowerUp.SUPER, null);
+	notifyListenersSuperPower();
+    }
+
+    /**
+     * Schedules the end of a superpower that lasts the given number of
+     * ticks, counting the current tick.
+     *
+     * @param duration The number of ticks the superpower is active.
+     */
+    private void scheduleSuperPowerEnd(int duration) {
+	scheduler.schedule(tickCount + duration - 1, TimedEffect.POWER_UP_EXPIRED);
+    }
+
+    /**
+     * Activates the gravity power-up.
+     * <p>
+     *     Schedules the end of the superpower after a randomly generated
+     *     period within a minimum and maximum time as before. It then
+     *     increaces the gravity with 50% and sets the bird's color to red.
+     * </p>
+     */
+    private void setGravitySuper() {
+	// Min and max ticks for increaced gravity
+	final int minGravityTime = 100;
+	final int maxGravityTime = 200;
+
+	collisionHandler = new UpperPipeIntangibility();
+	bird.setType(collisionHandler.getDescription());
+	gravityPowerCount += 1;
+	scheduleSuperPowerEnd((int) (minGravityTime + maxGravityTime * random.nextDouble()));
+	gravity = settings.getGravity() * 3 / 2;
+	publishEvent(BoardEventType.POWER_UP_STARTED, 0, PowerUp.GRAVITY, null);
+	notifyListenersSuperPower();
+    }
+
+    /**
+     * Creates a new pipe instance with the next height of the course
+     * and adds it to the pipe list.
+     */
+    private void createPipes() {
+	createPipes(null);
+    }
+
+    /**
+     * Adds a pipe with the next height of the course to the pipe list.
+     *
+     * @param recycledPipe A pipe that has left the board and can be
+     *                     reused, or null to create a new pipe.
+     */
+    private void createPipes(Pipe recycledPipe) {
+	int pipeSpeed = settings.getPipeSpeed();
+	// Check if we have created pipes before
+	if (pipe != null) {
+	    pipeSpeed = pipe.getSpeed();
+	}
+
+	Pipe pipe = recycledPipe != null ? recycledPipe : new Pipe(settings);
+	pipe.setSpeed(pipeSpeed);
+	pipes.add(pipe);
+	this.pipe = pipe;
+	pipe.setPosX(WIDTH);
+	pipe.setPosY(course.getPipeHeight(pipeIndex));
+	pipeIndex += 1;
+	pipe.rememberPosition();
+	publishEvent(recycledPipe != null ? BoardEventType.PIPE_RECYCLED : BoardEventType.PIPE_SPAWNED, pipe.getPosY(), null,
+		     null);
+    }
+
+    /**
+     * Handles the user inputs for movement of the bird.
+     *
+     * @param direction The direction that the player wants the bird to
+     *                  move.
+     */
+    public void moveBird(Direction direction) {
+	running = true;
+
+	if (direction == Direction.UP) {
+	    bird.updateSpeed(settings.getFlapImpulse());
+	    if (flapCount == flapTicks.length) {
+		flapTicks = Arrays.copyOf(flapTicks, flapCount * 2);
+	    }
+	    flapTicks[flapCount] = tickCount;
+	    flapCount += 1;
+	    publishEvent(BoardEventType.FLAP, 0, null, null);
+	}
+    }
+
+    /**
+     * Checks if pipes have to be removed.
+     * <p>
+     *     Tt checks if the last created couple of pipes have
+     *     enough margin to the right that new pipes can be created.
+     *     A pipe that has gone outside of the frame is removed and
+     *     reused as the new pipe.
+     * </p>
+     */
+    private void updatePipes() {
+	final int lastCreatedPipeX = pipes.getLast().getPosX();
+	final int mostLeftestPipeX = pipes.getFirst().getPosX();
+
+	if (lastCreatedPipeX < pipe.getMargin()) {
+	    // Check if leftest pipe is outside the board
+	    final int boardLeftFrame = 0;
+	    Pipe removedPipe = null;
+	    if (mostLeftestPipeX < boardLeftFrame) {
+		removedPipe = pipes.removeFirst();
+	    }
+	    createPipes(removedPipe);
+	}
+	movePipes();
+    }
+
+    /**
+     * Changes the x-position of all pipes to make them move left.
+     */
+    public void movePipes() {
+	for (Pipe pipe : pipes) {
+	    pipe.updatePosX(FixedPoint.toPixels(pipe.getSpeed()));
+	}
+    }
+
+    /**
+     * Checks if the bird is between any pipes and adds to the score
+     * if it is.
+     * <p>
+     *     A pipe scores on the tick it reaches the bird, whether or not
+     *     its speed lands it exactly on the x-position of the bird.
+     * </p>
+     */
+    private void updateScore() {
+	// Check if pipes have reached the x-position of the
+	// bird this tick and if the superpower isn't active
+	for (Pipe pipe : pipes) {
+	    if (pipe.getPosX() <= bird.getPosX() && pipe.getLastPosX() > bird.getPosX()) {
+		if (pipe.getSpeed() == pipe.getDefaultSpeed()) {
+		    score += 1;
+		    publishEvent(BoardEventType.SCORE_CHANGED, score, null, null);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Publishes an event that happened on this tick, unless nobody has
+     * subscribed to the events.
+     */
+    private void publishEvent(BoardEventType type, long value, PowerUp powerUp, DeathCause cause) {
+	if (!events.hasSubscribers()) {
+	    return;
+	}
+	final BoardEvent event = new BoardEvent(type, tickCount, value, powerUp, cause);
+	if (silent) {
+	    resimulatedEvents.add(event);
+	} else {
+	    events.publish(event);
+	}
+    }
+
+    /**
+     * Notifies all boardlisteners that the board has changed.
+     */
+    public void notifyListenersBoardChanged() {
+	if (silent) {
+	    return;
+	}
+	for (BoardListener boardListener : boardListeners) {
+	    boardListener.boardChanged();
+	}
+    }
+
+    /**
+     * Notifies all boardlisteners that a superpower is activated.
+     *
+     * @param birdType Indicates the color that the bird should be
+     *                 painted.
+     */
+    public void notifyListenersSuperPower() {
+	if (silent) {
+	    return;
+	}
+	for (BoardListener boardListener : boardListeners) {
+	    boardListener.birdChanged();
+	}
+    }
+
+    /**
+     * Copies the complete simulation state of the board into the given
+     * snapshot without allocating.
+     *
+     * @param snapshot The preallocated snapshot to fill.
+     */
+    public void saveSnapshot(BoardSnapshot snapshot) {
+	snapshot.birdPosX = bird.getPosX();
+	snapshot.birdPosY = bird.getPosY();
+	snapshot.birdLastPosY = bird.getLastPosY();
+	snapshot.birdSpeed = bird.getSpeed();
+	snapshot.birdType = bird.getType();
+
+	snapshot.ensurePipeCapacity(pipes.size());
+	snapshot.pipeCount = pipes.size();
+	for (int i = 0; i < pipes.size(); i++) {
+	    Pipe savedPipe = pipes.get(i);
+	    snapshot.pipePosX[i] = savedPipe.getPosX();
+	    snapshot.pipeLastPosX[i] = savedPipe.getLastPosX();
+	    snapshot.pipePosY[i] = savedPipe.getPosY();
+	    snapshot.pipeSpeed[i] = savedPipe.getSpeed();
+	}
+
+	snapshot.collisionType = collisionHandler.getDescription();
+	snapshot.ensureEffectCapacity(scheduler.size());
+	snapshot.effectCount = scheduler.size();
+	scheduler.copyTo(snapshot.effectTicks, snapshot.effects);
+	snapshot.gravity = gravity;
+	snapshot.score = score;
+	snapshot.gameOver = gameOver;
+	snapshot.running = running;
+	snapshot.randomState = random.getState();
+	snapshot.tickCount = tickCount;
+	snapshot.pipeIndex = pipeIndex;
+	snapshot.flapCount = flapCount;
+	snapshot.superPowerCount = superPowerCount;
+	snapshot.gravityPowerCount = gravityPowerCount;
+	snapshot.deathCause = deathCause;
+    }
+
+    /**
+     * Copies the state needed to draw the board into the given render
+     * snapshot without allocating.
+     *
+     * @param snapshot The render snapshot to fill.
+     */
+    public void saveRenderSnapshot(RenderSnapshot snapshot) {
+	snapshot.boardWidth = WIDTH;
+	snapshot.boardHeight = HEIGHT;
+
+	snapshot.birdPosX = bird.getPosX();
+	snapshot.birdPosY = bird.getPosY();
+	snapshot.birdWidth = bird.getWidth();
+	snapshot.birdHeight = bird.getHeight();
+	snapshot.birdType = bird.getType();
+
+	snapshot.ensurePipeCapacity(pipes.size());
+	snapshot.pipeCount = pipes.size();
+	snapshot.pipeWidth = pipe.getWidth();
+	snapshot.pipeHeight = pipe.getHeight();
+	snapshot.pipeGap = pipe.getGap();
+	for (int i = 0; i < pipes.size(); i++) {
+	    snapshot.pipePosX[i] = pipes.get(i).getPosX();
+	    snapshot.pipePosY[i] = pipes.get(i).getPosY();
+	}
+
+	snapshot.score = score;
+	snapshot.gameOver = gameOver;
+	snapshot.tickCount = tickCount;
+    }
+
+    /**
+     * Restores the board to the state stored in the given snapshot.
+     * <p>
+     *     Existing pipe instances are reused, so restoring only
+     *     allocates when the snapshot holds more pipes than the board
+     *     currently has, or when the collision type differs.
+     * </p>
+     *
+     * @param snapshot The snapshot to restore from.
+     */
+    public void restoreSnapshot(BoardSnapshot snapshot) {
+	final boolean birdTypeChanged = bird.getType() != snapshot.birdType;
+	bird.setPosX(snapshot.birdPosX);
+	bird.setPosY(snapshot.birdPosY);
+	bird.setLastPosition(snapshot.birdPosX, snapshot.birdLastPosY);
+	bird.setSpeed(snapshot.birdSpeed);
+	bird.setType(snapshot.birdType);
+
+	while (pipes.size() > snapshot.pipeCount) {
+	    pipes.removeLast();
+	}
+	while (pipes.size() < snapshot.pipeCount) {
+	    pipes.add(new Pipe(settings));
+	}
+	for (int i = 0; i < snapshot.pipeCount; i++) {
+	    Pipe restoredPipe = pipes.get(i);
+	    restoredPipe.setPosX(snapshot.pipePosX[i]);
+	    restoredPipe.setPosY(snapshot.pipePosY[i]);
+	    restoredPipe.setLastPosition(snapshot.pipeLastPosX[i], snapshot.pipePosY[i]);
+	    restoredPipe.setSpeed(snapshot.pipeSpeed[i]);
+	}
+	pipe = pipes.getLast();
+
+	if (collisionHandler.getDescription() != snapshot.collisionType) {
+	    collisionHandler = createCollisionHandler(snapshot.collisionType);
+	}
+	scheduler.clear();
+	for (int i = 0; i < snapshot.effectCount; i++) {
+	    scheduler.schedule(snapshot.effectTicks[i], snapshot.effects[i]);
+	}
+	gravity = snapshot.gravity;
+	score = snapshot.score;
+	gameOver = snapshot.gameOver;
+	running = snapshot.running;
+	random.setState(snapshot.randomState);
+	tickCount = snapshot.tickCount;
+	pipeIndex = snapshot.pipeIndex;
+	flapCount = snapshot.flapCount;
+	superPowerCount = snapshot.superPowerCount;
+	gravityPowerCount = snapshot.gravityPowerCount;
+	deathCause = snapshot.deathCause;
+
+	if (birdTypeChanged && snapshot.birdType != null) {
+	    notifyListenersSuperPower();
+	}
+    }
+
+    /**
+     * Creates the collision handler that belongs to the given power-up.
+     *
+     * @param type The power-up type of the collision handler.
+     * @return A new collision handler.
+     */
+    private Contract createCollisionHandler(PowerUp type) {
+	switch (type) {
+	    case SUPER:
+		return new Intangibility();
+	    case GRAVITY:
+		return new UpperPipeIntangibility();
+	    default:
+		return new DefaultCollisions();
+	}
+    }
+
+    public void addBoardListener(BoardListener boardListener) {
+	boardListeners.add(boardListener);
+    }
+
+    /**
+     * Returns the publisher of the events of this board. Unlike board
+     * listeners, subscribers are called on other threads and receive
+     * what has changed instead of having to read the board.
+     *
+     * @return The event publisher.
+     */
+    public BoardEventPublisher getEventPublisher() {
+	return events;
+    }
+
+    /**
+     * Leaves out the listeners and holds back the events until turned
+     * off again. Used when frames that the listeners have already seen
+     * are simulated again, so that they are not told twice.
+     *
+     * @param silent Whether to leave out the listeners and subscribers.
+     */
+    void setSilent(boolean silent) {
+	this.silent = silent;
+	if (silent) {
+	    resimulatedEvents.clear();
+	}
+    }
+
+    /**
+     * Tells the event subscribers that the frames since the given tick
+     * were simulated again, followed by the events that were held back
+     * while they were.
+     *
+     * @param fromTick The tick that the board was rolled back to.
+     */
+    void publishRollback(long fromTick) {
+	if (events.hasSubscribers()) {
+	    events.publish(new BoardEvent(BoardEventType.ROLLED_BACK, tickCount, fromTick, null, null));
+	    for (BoardEvent event : resimulatedEvents) {
+		events.publish(event);
+	    }
+	}
+	resimulatedEvents.clear();
+    }
+
+    public void setSweptCollisions(boolean sweptCollisions) {
+	this.sweptCollisions = sweptCollisions;
+    }
+    public boolean hasSweptCollisions() {
+	return sweptCollisions;
+    }
+
+    public boolean isRunning() {
+	return running;
+    }
+    public boolean isGameOver() {
+	return gameOver;
+    }
+    public List<Pipe> getPipes() {
+	return pipes;
+    }
+    public Bird getBird() {
+	return bird;
+    }
+    public int getCeilingPosY() {
+	final int boardCeiling = 0;
+	return boardCeiling;
+    }
+    public int getFloorPosY() {
+	final int floorWidth = 100;
+	final int floor = HEIGHT - floorWidth;
+	return floor;
+    }
+    public int getWidth() {
+	return WIDTH;
+    }
+    public int getHeight() {
+	return HEIGHT;
+    }
+    public int getScore() {
+	return score;
+    }
+    public long getSeed() {
+	return seed;
+    }
+    public GameSettings getSettings() {
+	return settings;
+    }
+    public long getTickCount() {
+	return tickCount;
+    }
+    public int getFlapCount() {
+	return flapCount;
+    }
+
+    /**
+     * Returns the tick of every flap of the game so far. Together with
+     * the seed, this is enough to play the game again. After restoring a
+     * snapshot, only the flaps up to the snapshot are known until the
+     * game is played on from there.
+     *
+     * @return The flap ticks in the order they were made.
+     */
+    public long[] getFlapTicks() {
+	return Arrays.copyOf(flapTicks, flapCount);
+    }
+    public int getSuperPowerCount() {
+	return superPowerCount;
+    }
+    public int getGravityPowerCount() {
+	return gravityPowerCount;
+    }
+    /**
+     * Returns what the bird collided with, or null while the game is
+     * not over.
+     */
+    public DeathCause getDeathCause() {
+	return deathCause;
+    }
+    public CourseSource getCourse() {
+	return course;
+    }
+    /**
+     * Returns the number of pipes taken from the course so far.
+     */
+    public long getPipeCount() {
+	return pipeIndex;
+    }
+}
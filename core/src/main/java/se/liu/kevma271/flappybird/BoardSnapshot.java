@@ -0,0 +1,85 @@
+package se.liu.kevma271.flappybird;
+
+/**
+ * A preallocated buffer holding the complete simulation state of a
+ * board at one point in time.
+ * <p>
+ *     A snapshot is filled by {@link Board#saveSnapshot(BoardSnapshot)}
+ *     and written back by {@link Board#restoreSnapshot(BoardSnapshot)}.
+ *     All state is kept in primitive fields and arrays so that saving
+ *     and restoring does not allocate and only takes a few hundred
+ *     nanoseconds. The same snapshot can be reused any number of times.
+ * </p>
+ */
+public class BoardSnapshot {
+    private static final int DEFAULT_PIPE_CAPACITY = 16;
+    private static final int DEFAULT_EFFECT_CAPACITY = 16;
+
+    int birdPosX = 0;
+    int birdPosY = 0;
+    int birdLastPosY = 0;
+    int birdSpeed = 0;
+    PowerUp birdType = null;
+
+    int pipeCount = 0;
+    int[] pipePosX = new int[DEFAULT_PIPE_CAPACITY];
+    int[] pipeLastPosX = new int[DEFAULT_PIPE_CAPACITY];
+    int[] pipePosY = new int[DEFAULT_PIPE_CAPACITY];
+    int[] pipeSpeed = new int[DEFAULT_PIPE_CAPACITY];
+
+    PowerUp collisionType = null;
+    int effectCount = 0;
+    long[] effectTicks = new long[DEFAULT_EFFECT_CAPACITY];
+    TimedEffect[] effects = new TimedEffect[DEFAULT_EFFECT_CAPACITY];
+    int gravity = 0;
+    int score = 0;
+    boolean gameOver = false;
+    boolean running = false;
+    long randomState = 0;
+    long tickCount = 0;
+    long pipeIndex = 0;
+    int flapCount = 0;
+    int superPowerCount = 0;
+    int gravityPowerCount = 0;
+    DeathCause deathCause = null;
+
+    /**
+     * Makes sure the pipe arrays can hold the given number of pipes.
+     * This only allocates if the board has more pipes than ever before.
+     *
+     * @param count The number of pipes that has to fit.
+     */
+    void ensurePipeCapacity(final int count) {
+	if (count > pipePosX.length) {
+	    final int capacity = Math.max(count, pipePosX.length * 2);
+	    pipePosX = new int[capacity];
+	    pipeLastPosX = new int[capacity];
+	    pipePosY = new int[capacity];
+	    pipeSpeed = new int[capacity];
+	}
+    }
+
+    /**
+     * Makes sure the effect arrays can hold the given number of
+     * scheduled effects.
+     *
+     * @param count The number of effects that has to fit.
+     */
+    void ensureEffectCapacity(final int count) {
+	if (count > effectTicks.length) {
+	    final int capacity = Math.max(count, effectTicks.length * 2);
+	    effectTicks = new long[capacity];
+	    effects = new TimedEffect[capacity];
+	}
+    }
+
+    public long getTickCount() {
+	return tickCount;
+    }
+    public int getScore() {
+	return score;
+    }
+    public boolean isGameOver() {
+	return gameOver;
+    }
+}
@@ -0,0 +1,12 @@
+package se.liu.kevma271.flappybird;
+
+/**
+ * Enum representing what the bird collided with when the game ended.
+ * <p>
+ *     FLOOR and CEILING are the edges of the board, TOP_PIPE and
+ *     BOTTOM_PIPE are the upper and lower half of a pair of pipes.
+ * </p>
+ */
+public enum DeathCause {
+    FLOOR, CEILING, TOP_PIPE, BOTTOM_PIPE
+}
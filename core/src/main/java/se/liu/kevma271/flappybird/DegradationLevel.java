@@ -0,0 +1,31 @@
+package se.liu.kevma271.flappybird;
+
+/**
+ * Enum representing how much the drawing of the game is cut down to
+ * keep up with the tick rate on slow hardware.
+ * <p>
+ *     FULL draws everything on every tick with the rendering hints that
+ *     the graphics context comes with. REDUCED draws the background
+ *     unscaled and asks for speed over quality, with antialiasing and
+ *     smooth image scaling off. SKIPPING also only draws every second tick
+ *     and MINIMAL replaces the background image with a plain sky and
+ *     only draws every third tick. The board is simulated on every tick
+ *     at all levels.
+ * </p>
+ */
+public enum DegradationLevel {
+    FULL(1), REDUCED(1), SKIPPING(2), MINIMAL(3);
+
+    private final int frameInterval;
+
+    DegradationLevel(final int frameInterval) {
+	this.frameInterval = frameInterval;
+    }
+
+    /**
+     * Returns the number of ticks per drawn frame.
+     */
+    public int getFrameInterval() {
+	return frameInterval;
+    }
+}
@@ -0,0 +1,199 @@
+package se.liu.kevma271.flappybird;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Measures what ticks and frames cost against the time budget of one
+ * tick and degrades the drawing when the game can not keep up.
+ * <p>
+ *     The simulation thread reports the cost of every tick and asks
+ *     whether a frame should be drawn for it, the drawing thread reports
+ *     the cost of every frame it draws. Both costs are smoothed, and the
+ *     load is the tick cost plus the frame cost spread over the ticks
+ *     per frame. When the load stays above most of the budget, the
+ *     watchdog steps down one {@link DegradationLevel}, and when it has
+ *     stayed well below the budget for a few seconds, it steps back up.
+ *     The gap between the two limits keeps the level from flapping.
+ * </p>
+ */
+public class FrameWatchdog {
+    private static final Logger LOGGER = Logger.getLogger(FrameWatchdog.class.getName());
+
+    /**
+     * Weight of the newest sample in the smoothed costs.
+     */
+    private static final double SMOOTHING = 0.1;
+    private static final double DEGRADE_LOAD = 0.9;
+    private static final double RECOVER_LOAD = 0.5;
+
+    /**
+     * Number of frames in a row the load has to stay above or below the
+     * limits before the level changes.
+     */
+    private static final int DEGRADE_FRAMES = 10;
+    private static final int RECOVER_FRAMES = 180;
+
+    /**
+     * Number of the latest tick costs kept for percentiles.
+     */
+    public static final int TICK_SAMPLES = 128;
+
+    private final long budgetNanos;
+
+    private volatile DegradationLevel level = DegradationLevel.FULL;
+    private volatile double tickCost = 0;
+    private volatile double frameCost = 0;
+
+    // Only written by the simulation thread
+    private final AtomicLongArray tickSamples = new AtomicLongArray(TICK_SAMPLES);
+    private volatile long ticks = 0;
+    private int ticksSinceFrame = 0;
+    private volatile long skippedFrames = 0;
+    private volatile long overBudgetTicks = 0;
+
+    // Only touched by the drawing thread
+    private int overloadedFrames = 0;
+    private int calmFrames = 0;
+    private volatile long overBudgetFrames = 0;
+    private volatile long degradations = 0;
+
+    /**
+     * Creates a watchdog.
+     *
+     * @param budgetNanos The time of one tick in nanoseconds.
+     */
+    public FrameWatchdog(final long budgetNanos) {
+	this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Reports the cost of a tick. Called by the simulation thread.
+     *
+     * @param nanos The time the tick took.
+     */
+    public void recordTick(final long nanos) {
+	tickCost += (nanos - tickCost) * SMOOTHING;
+	tickSamples.lazySet((int) (ticks % TICK_SAMPLES), nanos);
+	ticks += 1;
+	if (nanos > budgetNanos) {
+	    overBudgetTicks += 1;
+	}
+    }
+
+    /**
+     * Decides whether the tick that just finished should be drawn.
+     * Called by the simulation thread once per tick.
+     *
+     * @return True if a frame should be drawn, false if it is skipped.
+     */
+    public boolean shouldRenderFrame() {
+	ticksSinceFrame += 1;
+	if (ticksSinceFrame >= level.getFrameInterval()) {
+	    ticksSinceFrame = 0;
+	    return true;
+	}
+	skippedFrames += 1;
+	return false;
+    }
+
+    /**
+     * Reports the cost of a drawn frame and adjusts the level. Called by
+     * the drawing thread.
+     *
+     * @param nanos The time drawing the frame took.
+     */
+    public void recordFrame(final long nanos) {
+	frameCost += (nanos - frameCost) * SMOOTHING;
+	if (nanos > budgetNanos) {
+	    overBudgetFrames += 1;
+	}
+
+	final DegradationLevel current = level;
+	final double load = getLoad();
+	if (load > budgetNanos * DEGRADE_LOAD) {
+	    calmFrames = 0;
+	    overloadedFrames += 1;
+	    if (overloadedFrames >= DEGRADE_FRAMES && current.ordinal() < DegradationLevel.values().length - 1) {
+		changeLevel(DegradationLevel.values()[current.ordinal() + 1]);
+		degradations += 1;
+	    }
+	} else if (load < budgetNanos * RECOVER_LOAD) {
+	    overloadedFrames = 0;
+	    calmFrames += 1;
+	    if (calmFrames >= RECOVER_FRAMES && current != DegradationLevel.FULL) {
+		changeLevel(DegradationLevel.values()[current.ordinal() - 1]);
+	    }
+	} else {
+	    overloadedFrames = 0;
+	    calmFrames = 0;
+	}
+    }
+
+    private void changeLevel(final DegradationLevel newLevel) {
+	LOGGER.info(String.format("Drawing level %s -> %s, tick %.2f ms, frame %.2f ms", level, newLevel, tickCost / 1.0e6,
+				  frameCost / 1.0e6));
+	level = newLevel;
+	overloadedFrames = 0;
+	calmFrames = 0;
+    }
+
+    /**
+     * Returns the smoothed time per tick spent on simulating and
+     * drawing, in nanoseconds.
+     */
+    public double getLoad() {
+	return tickCost + frameCost / level.getFrameInterval();
+    }
+
+    /**
+     * Copies the costs of the latest ticks into an array.
+     *
+     * @param costs An array with room for TICK_SAMPLES costs.
+     * @return The number of costs copied.
+     */
+    public int copyTickCosts(final long[] costs) {
+	final int count = (int) Math.min(ticks, TICK_SAMPLES);
+	for (int i = 0; i < count; i++) {
+	    costs[i] = tickSamples.get(i);
+	}
+	return count;
+    }
+
+    /**
+     * Returns the number of ticks recorded so far.
+     */
+    public long getTicks() {
+	return ticks;
+    }
+    public DegradationLevel getLevel() {
+	return level;
+    }
+    public long getBudgetNanos() {
+	return budgetNanos;
+    }
+    public double getTickCost() {
+	return tickCost;
+    }
+    public double getFrameCost() {
+	return frameCost;
+    }
+    /**
+     * Returns the number of ticks that were not drawn.
+     */
+    public long getSkippedFrames() {
+	return skippedFrames;
+    }
+    public long getOverBudgetTicks() {
+	return overBudgetTicks;
+    }
+    public long getOverBudgetFrames() {
+	return overBudgetFrames;
+    }
+    /**
+     * Returns how many times the level has been stepped down.
+     */
+    public long getDegradations() {
+	return degradations;
+    }
+}
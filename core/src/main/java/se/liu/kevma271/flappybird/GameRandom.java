@@ -0,0 +1,55 @@
+package se.liu.kevma271.flappybird;
+
+/**
+ * A small seedable random number generator used for every random
+ * decision in the game mechanics.
+ * <p>
+ *     Unlike Math.random(), the complete state of the generator is a
+ *     single long that can be read and written back. This makes it
+ *     possible to save and restore the board and to replay a game from
+ *     its seed. The numbers are generated with the SplitMix64 algorithm.
+ * </p>
+ */
+public class GameRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public GameRandom(final long seed) {
+	this.state = seed;
+    }
+
+    /**
+     * Returns the next pseudorandom long.
+     *
+     * @return A uniformly distributed long value.
+     */
+    public long nextLong() {
+	state += GOLDEN_GAMMA;
+	long z = state;
+	z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+	z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+	return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the next pseudorandom double, a drop-in replacement for
+     * Math.random().
+     *
+     * @return A uniformly distributed value between 0.0 (inclusive) and
+     * 1.0 (exclusive).
+     */
+    public double nextDouble() {
+	final int unusedBits = 11;
+	final double unitScale = 0x1.0p-53;
+	return (nextLong() >>> unusedBits) * unitScale;
+    }
+
+    public long getState() {
+	return state;
+    }
+
+    public void setState(final long state) {
+	this.state = state;
+    }
+}
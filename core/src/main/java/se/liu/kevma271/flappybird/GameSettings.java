@@ -0,0 +1,146 @@
+package se.liu.kevma271.flappybird;
+
+import se.liu.kevma271.flappybird.objects.FixedPoint;
+
+/**
+ * The numbers that decide how hard the game is.
+ * <p>
+ *     A board and its pipes read these instead of constants of their
+ *     own, so that different difficulties can be played and compared
+ *     side by side, see the difficulty sweep. Settings are immutable,
+ *     every {@code with} method returns a copy with one value changed.
+ *     Speeds and accelerations are in fixed-point units, see
+ *     {@link FixedPoint}.
+ * </p>
+ */
+public final class GameSettings {
+    /**
+     * The settings of the normal game.
+     */
+    public static final GameSettings DEFAULT =
+	    new GameSettings(140, 90, FixedPoint.fromPixels(-5), FixedPoint.fromPixels(-30), FixedPoint.fromPixels(-13), FixedPoint.ONE,
+			     2500, 1, 4, false);
+
+    private final int pipeGap;
+    private final int pipeMargin;
+    private final int pipeSpeed;
+    private final int intangibilityPipeSpeed;
+    private final int flapImpulse;
+    private final int gravity;
+    private final int powerUpRange;
+    private final int birdSuperOutcomes;
+    private final int gravitySuperOutcomes;
+    private final boolean sweptCollisions;
+
+    /**
+     * Creates settings.
+     *
+     * @param pipeGap                The gap between the upper and lower
+     *                               pipe in pixels.
+     * @param pipeMargin             How far from the left edge the last
+     *                               pipe must be before the next one is
+     *                               created, in pixels.
+     * @param pipeSpeed              The normal speed of the pipes, negative
+     *                               since they move left.
+     * @param intangibilityPipeSpeed The speed of the pipes during the bird
+     *                               superpower.
+     * @param flapImpulse            The speed the bird gets from a flap,
+     *                               negative since it moves up.
+     * @param gravity                The normal gravity.
+     * @param powerUpRange           The number of equally likely outcomes
+     *                               every tick, of which the two below
+     *                               create a superpower.
+     * @param birdSuperOutcomes      The outcomes that create the bird
+     *                               superpower.
+     * @param gravitySuperOutcomes   The outcomes that create the gravity
+     *                               superpower.
+     * @param sweptCollisions        Whether pipe collisions are tested over
+     *                               the whole motion of a tick, so that
+     *                               fast pipes at low tick rates can not
+     *                               pass through the bird.
+     */
+    public GameSettings(final int pipeGap, final int pipeMargin, final int pipeSpeed, final int intangibilityPipeSpeed,
+			final int flapImpulse, final int gravity, final int powerUpRange, final int birdSuperOutcomes,
+			final int gravitySuperOutcomes, final boolean sweptCollisions)
+    {
+	if (pipeGap <= 0 || pipeSpeed >= 0 || powerUpRange <= 0 || birdSuperOutcomes < 0 || gravitySuperOutcomes < 0 ||
+	    birdSuperOutcomes + gravitySuperOutcomes > powerUpRange) {
+	    throw new IllegalArgumentException("Unplayable game settings");
+	}
+	this.pipeGap = pipeGap;
+	this.pipeMargin = pipeMargin;
+	this.pipeSpeed = pipeSpeed;
+	this.intangibilityPipeSpeed = intangibilityPipeSpeed;
+	this.flapImpulse = flapImpulse;
+	this.gravity = gravity;
+	this.powerUpRange = powerUpRange;
+	this.birdSuperOutcomes = birdSuperOutcomes;
+	this.gravitySuperOutcomes = gravitySuperOutcomes;
+	this.sweptCollisions = sweptCollisions;
+    }
+
+    public GameSettings withPipeGap(final int pipeGap) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+    public GameSettings withPipeMargin(final int pipeMargin) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+    public GameSettings withPipeSpeed(final int pipeSpeed) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+    public GameSettings withFlapImpulse(final int flapImpulse) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+    public GameSettings withGravity(final int gravity) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+    public GameSettings withBirdSuperOutcomes(final int birdSuperOutcomes) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+    public GameSettings withGravitySuperOutcomes(final int gravitySuperOutcomes) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+
+    public GameSettings withSweptCollisions(final boolean sweptCollisions) {
+	return new GameSettings(pipeGap, pipeMargin, pipeSpeed, intangibilityPipeSpeed, flapImpulse, gravity, powerUpRange,
+				birdSuperOutcomes, gravitySuperOutcomes, sweptCollisions);
+    }
+
+    public int getPipeGap() {
+	return pipeGap;
+    }
+    public int getPipeMargin() {
+	return pipeMargin;
+    }
+    public int getPipeSpeed() {
+	return pipeSpeed;
+    }
+    public int getIntangibilityPipeSpeed() {
+	return intangibilityPipeSpeed;
+    }
+    public int getFlapImpulse() {
+	return flapImpulse;
+    }
+    public int getGravity() {
+	return gravity;
+    }
+    public int getPowerUpRange() {
+	return powerUpRange;
+    }
+    public int getBirdSuperOutcomes() {
+	return birdSuperOutcomes;
+    }
+    public int getGravitySuperOutcomes() {
+	return gravitySuperOutcomes;
+    }
+    public boolean hasSweptCollisions() {
+	return sweptCollisions;
+    }
+}
@@ -0,0 +1,96 @@
+package se.liu.kevma271.flappybird;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Measures the time from a key press until the first frame that shows
+ * its effect has been drawn.
+ * <p>
+ *     The simulation thread reports every input it applies together with
+ *     the tick that applies it. The drawing thread reports every frame
+ *     it draws together with the tick the frame shows, which completes
+ *     all inputs up to that tick. The latencies of the latest inputs
+ *     are kept for percentiles, and the percentiles are logged at
+ *     regular intervals.
+ * </p>
+ */
+public class InputLatencyTracker {
+    private static final Logger LOGGER = Logger.getLogger(InputLatencyTracker.class.getName());
+    private static final int WINDOW_SIZE = 256;
+    private static final int PENDING_CAPACITY = 256;
+
+    private final TimestampQueue pending = new TimestampQueue(PENDING_CAPACITY);
+
+    // Only touched by the drawing thread
+    private final long[] window = new long[WINDOW_SIZE];
+    private final long[] sorted = new long[WINDOW_SIZE];
+    private int windowCount = 0;
+    private int windowNext = 0;
+    private long measuredInputs = 0;
+
+    /**
+     * Reports that an input has been applied. Called by the simulation
+     * thread.
+     *
+     * @param timestamp The time of the input in nanoseconds.
+     * @param tick      The first tick that shows the input.
+     */
+    public void inputApplied(final long timestamp, final long tick) {
+	pending.offer(timestamp, tick);
+    }
+
+    /**
+     * Reports that a frame has been drawn. Called by the drawing thread.
+     *
+     * @param tick  The tick that the frame shows.
+     * @param nanos The time the frame was finished.
+     */
+    public void framePresented(final long tick, final long nanos) {
+	while (!pending.isEmpty() && pending.peekTick() <= tick) {
+	    window[windowNext] = nanos - pending.peekTimestamp();
+	    pending.remove();
+	    windowNext = (windowNext + 1) % WINDOW_SIZE;
+	    windowCount = Math.min(windowCount + 1, WINDOW_SIZE);
+	    measuredInputs += 1;
+
+	    if (measuredInputs % WINDOW_SIZE == 0) {
+		LOGGER.info(String.format("Input to frame latency of the last %d inputs: p50 %.1f ms, p90 %.1f ms, p99 %.1f ms",
+					  WINDOW_SIZE, getPercentile(0.5) / 1.0e6, getPercentile(0.9) / 1.0e6,
+					  getPercentile(0.99) / 1.0e6));
+	    }
+	}
+    }
+
+    /**
+     * Forgets the inputs that no frame has shown yet, when a new game
+     * starts and the ticks start over. Otherwise they would only be
+     * completed once the new game reaches their ticks, with latencies
+     * that span both games. The latencies already measured are kept.
+     * Called by the drawing thread while the simulation thread is
+     * stopped.
+     */
+    public void reset() {
+	pending.clear();
+    }
+
+    /**
+     * Returns a percentile of the latency of the latest inputs. Called
+     * by the drawing thread.
+     *
+     * @param fraction The fraction between 0 and 1.
+     * @return The latency in nanoseconds, or 0 if nothing was measured.
+     */
+    public long getPercentile(final double fraction) {
+	if (windowCount == 0) {
+	    return 0;
+	}
+	System.arraycopy(window, 0, sorted, 0, windowCount);
+	Arrays.sort(sorted, 0, windowCount);
+	return sorted[Math.min(windowCount - 1, (int) (fraction * windowCount))];
+    }
+
+    public long getMeasuredInputs() {
+	return measuredInputs;
+    }
+}
@@ -0,0 +1,97 @@
+package se.liu.kevma271.flappybird;
+
+/**
+ * The part of the board state that is needed to draw one frame.
+ * <p>
+ *     Render snapshots are filled by the simulation thread through
+ *     {@link Board#saveRenderSnapshot(RenderSnapshot)} and handed over to
+ *     the drawing thread by a {@link RenderSnapshotBuffer}. Once
+ *     published, a snapshot is never written to while the drawing thread
+ *     holds it, so it can be read without any locking.
+ * </p>
+ */
+public class RenderSnapshot {
+    private static final int DEFAULT_PIPE_CAPACITY = 16;
+
+    int boardWidth = 0;
+    int boardHeight = 0;
+
+    int birdPosX = 0;
+    int birdPosY = 0;
+    int birdWidth = 0;
+    int birdHeight = 0;
+    PowerUp birdType = null;
+
+    int pipeCount = 0;
+    int pipeWidth = 0;
+    int pipeHeight = 0;
+    int pipeGap = 0;
+    int[] pipePosX = new int[DEFAULT_PIPE_CAPACITY];
+    int[] pipePosY = new int[DEFAULT_PIPE_CAPACITY];
+
+    int score = 0;
+    boolean gameOver = false;
+    long tickCount = 0;
+
+    /**
+     * Makes sure the pipe arrays can hold the given number of pipes.
+     *
+     * @param count The number of pipes that has to fit.
+     */
+    void ensurePipeCapacity(final int count) {
+	if (count > pipePosX.length) {
+	    final int capacity = Math.max(count, pipePosX.length * 2);
+	    pipePosX = new int[capacity];
+	    pipePosY = new int[capacity];
+	}
+    }
+
+    public int getBoardWidth() {
+	return boardWidth;
+    }
+    public int getBoardHeight() {
+	return boardHeight;
+    }
+    public int getBirdPosX() {
+	return birdPosX;
+    }
+    public int getBirdPosY() {
+	return birdPosY;
+    }
+    public int getBirdWidth() {
+	return birdWidth;
+    }
+    public int getBirdHeight() {
+	return birdHeight;
+    }
+    public PowerUp getBirdType() {
+	return birdType;
+    }
+    public int getPipeCount() {
+	return pipeCount;
+    }
+    public int getPipeWidth() {
+	return pipeWidth;
+    }
+    public int getPipeHeight() {
+	return pipeHeight;
+    }
+    public int getPipeGap() {
+	return pipeGap;
+    }
+    public int getPipePosX(final int index) {
+	return pipePosX[index];
+    }
+    public int getPipePosY(final int index) {
+	return pipePosY[index];
+    }
+    public int getScore() {
+	return score;
+    }
+    public boolean isGameOver() {
+	return gameOver;
+    }
+    public long getTickCount() {
+	return tickCount;
+    }
+}
@@ -0,0 +1,63 @@
+package se.liu.kevma271.flappybird;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer that hands render snapshots from the
+ * simulation thread to the drawing thread.
+ * <p>
+ *     There are three snapshots. The writer owns one, the reader owns
+ *     one and the third is the latest published snapshot. Publishing and
+ *     fetching both swap a snapshot with the published one through a
+ *     single atomic integer, so neither side ever waits for the other and
+ *     neither side touches a snapshot that the other side owns. There
+ *     must only be one writing thread and one reading thread.
+ * </p>
+ */
+public class RenderSnapshotBuffer {
+    /**
+     * Bit set in the exchange when the published snapshot has not been
+     * fetched by the reader yet.
+     */
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final RenderSnapshot[] snapshots = { new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot() };
+
+    /**
+     * Index of the published snapshot, combined with the FRESH bit.
+     */
+    private final AtomicInteger exchange = new AtomicInteger(1);
+    private int writeIndex = 0;
+    private int readIndex = 2;
+
+    /**
+     * Returns the snapshot that the writer should fill next.
+     *
+     * @return The snapshot owned by the writer.
+     */
+    public RenderSnapshot getWriteSnapshot() {
+	return snapshots[writeIndex];
+    }
+
+    /**
+     * Publishes the snapshot returned by the last call to
+     * getWriteSnapshot() and gives the writer a new one to fill.
+     */
+    public void publish() {
+	writeIndex = exchange.getAndSet(writeIndex | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published snapshot. The snapshot stays
+     * valid until the next call to this method.
+     *
+     * @return The latest snapshot available to the reader.
+     */
+    public RenderSnapshot getLatest() {
+	if ((exchange.get() & FRESH) != 0) {
+	    readIndex = exchange.getAndSet(readIndex) & INDEX_MASK;
+	}
+	return snapshots[readIndex];
+    }
+}
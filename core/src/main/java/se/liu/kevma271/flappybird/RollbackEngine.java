@@ -0,0 +1,230 @@
+package se.liu.kevma271.flappybird;
+
+/**
+ * Rollback engine for network play on top of the board snapshots.
+ * <p>
+ *     The engine advances the board one frame at a time and keeps a
+ *     snapshot and the input of each of the last frames in a ring
+ *     buffer. When an input arrives late, the board is restored to the
+ *     snapshot of the frame the input belongs to and the frames up to
+ *     the present are simulated again with the corrected input. All
+ *     snapshots are allocated up front, so rolling back does not
+ *     allocate.
+ * </p>
+ * <p>
+ *     The listeners of the board are left out while frames are simulated
+ *     again, since they have already been told about those frames, and
+ *     are told once about the corrected board afterwards. The event
+ *     subscribers get a ROLLED_BACK event with the tick that was rolled
+ *     back to, followed by all events of the frames simulated again, so
+ *     they can throw away what they were told since that tick and take
+ *     the corrected events instead. A rollback has to fit in the time of
+ *     one frame.
+ *     From how long earlier rollbacks took per frame, a late input whose
+ *     rollback would take longer than the frame budget is refused
+ *     instead of applied.
+ * </p>
+ */
+public class RollbackEngine {
+    /**
+     * The time of one frame at 60 frames per second.
+     */
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 16_000_000L;
+
+    private final Board board;
+    private final long frameBudgetNanos;
+
+    /**
+     * Snapshot of the board taken right before each frame was simulated.
+     */
+    private final BoardSnapshot[] history;
+
+    /**
+     * Whether the bird flapped in each frame of the history.
+     */
+    private final boolean[] flaps;
+
+    private long frame = 0;
+    private long rollbacks = 0;
+    private long resimulatedFrames = 0;
+    private long lastRollbackNanos = 0;
+    private long overBudgetRollbacks = 0;
+    private long refusedInputs = 0;
+
+    /**
+     * The time per frame simulated again, averaged over the recent
+     * rollbacks so that one slow rollback, for example before the code
+     * is compiled, does not refuse inputs for the rest of the game.
+     */
+    private long nanosPerFrame = 0;
+
+    /**
+     * Creates a rollback engine for the given board with the budget of
+     * one frame at 60 frames per second.
+     *
+     * @param board         The board to simulate.
+     * @param historyLength How many frames back a late input can be
+     *                      applied.
+     */
+    public RollbackEngine(final Board board, final int historyLength) {
+	this(board, historyLength, DEFAULT_FRAME_BUDGET_NANOS);
+    }
+
+    /**
+     * Creates a rollback engine for the given board.
+     *
+     * @param board            The board to simulate.
+     * @param historyLength    How many frames back a late input can be
+     *                         applied.
+     * @param frameBudgetNanos How long one rollback may take.
+     */
+    public RollbackEngine(final Board board, final int historyLength, final long frameBudgetNanos) {
+	if (historyLength < 1) {
+	    throw new IllegalArgumentException("History length must be positive: " + historyLength);
+	}
+	if (frameBudgetNanos <= 0) {
+	    throw new IllegalArgumentException("Frame budget must be positive: " + frameBudgetNanos);
+	}
+	this.board = board;
+	this.frameBudgetNanos = frameBudgetNanos;
+	this.history = new BoardSnapshot[historyLength];
+	this.flaps = new boolean[historyLength];
+	for (int i = 0; i < historyLength; i++) {
+	    history[i] = new BoardSnapshot();
+	}
+    }
+
+    /**
+     * Simulates the next frame with the given input and remembers the
+     * state from before the frame.
+     *
+     * @param flap Whether the bird flaps in this frame.
+     */
+    public void advance(final boolean flap) {
+	final int slot = slotOf(frame);
+	board.saveSnapshot(history[slot]);
+	flaps[slot] = flap;
+	simulate(flap);
+	frame += 1;
+    }
+
+    /**
+     * Applies a flap that should have happened in an earlier frame.
+     * <p>
+     *     The board is rolled back to the given frame and every frame
+     *     since is simulated again, so afterwards the board is in the
+     *     state it would have had if the input had arrived on time.
+     * </p>
+     *
+     * @param inputFrame The frame that the flap belongs to.
+     * @return True if the input was applied, false if the frame is
+     * older than the kept history or rolling back that far would not fit
+     * in the frame budget.
+     */
+    public boolean applyLateInput(final long inputFrame) {
+	if (inputFrame < 0 || inputFrame >= frame) {
+	    throw new IllegalArgumentException("Frame " + inputFrame + " is not in the past, current frame is " + frame);
+	}
+	if (frame - inputFrame > history.length) {
+	    return false;
+	}
+	final int inputSlot = slotOf(inputFrame);
+	if (flaps[inputSlot]) {
+	    return true;
+	}
+	final long frameCount = frame - inputFrame;
+	if (nanosPerFrame * frameCount > frameBudgetNanos) {
+	    refusedInputs += 1;
+	    return false;
+	}
+
+	final long start = System.nanoTime();
+	final PowerUp birdType = board.getBird().getType();
+	final long rolledBackTick;
+	board.setSilent(true);
+	try {
+	    board.restoreSnapshot(history[inputSlot]);
+	    rolledBackTick = board.getTickCount();
+	    flaps[inputSlot] = true;
+	    simulate(true);
+	    for (long resimulated = inputFrame + 1; resimulated < frame; resimulated++) {
+		final int slot = slotOf(resimulated);
+		board.saveSnapshot(history[slot]);
+		simulate(flaps[slot]);
+	    }
+	} finally {
+	    board.setSilent(false);
+	}
+	board.publishRollback(rolledBackTick);
+	if (board.getBird().getType() != birdType) {
+	    board.notifyListenersSuperPower();
+	}
+	board.notifyListenersBoardChanged();
+
+	rollbacks += 1;
+	resimulatedFrames += frameCount;
+	lastRollbackNanos = System.nanoTime() - start;
+	final long frameNanos = lastRollbackNanos / frameCount;
+	nanosPerFrame = rollbacks == 1 ? frameNanos : (3 * nanosPerFrame + frameNanos) / 4;
+	if (lastRollbackNanos > frameBudgetNanos) {
+	    overBudgetRollbacks += 1;
+	}
+	return true;
+    }
+
+    /**
+     * Simulates one frame the same way as the game loop does.
+     *
+     * @param flap Whether the bird flaps in this frame.
+     */
+    private void simulate(final boolean flap) {
+	if (flap) {
+	    board.moveBird(Direction.UP);
+	}
+	if (board.isRunning() && !board.isGameOver()) {
+	    board.tick();
+	}
+    }
+
+    private int slotOf(final long frameNumber) {
+	return (int) (frameNumber % history.length);
+    }
+
+    public long getFrame() {
+	return frame;
+    }
+    public int getHistoryLength() {
+	return history.length;
+    }
+    public long getRollbacks() {
+	return rollbacks;
+    }
+    public long getResimulatedFrames() {
+	return resimulatedFrames;
+    }
+    public long getLastRollbackNanos() {
+	return lastRollbackNanos;
+    }
+    public long getFrameBudgetNanos() {
+	return frameBudgetNanos;
+    }
+
+    /**
+     * Returns how many rollbacks took longer than the frame budget.
+     *
+     * @return The number of rollbacks over the budget.
+     */
+    public long getOverBudgetRollbacks() {
+	return overBudgetRollbacks;
+    }
+
+    /**
+     * Returns how many late inputs were refused since rolling back would
+     * not have fit in the frame budget.
+     *
+     * @return The number of refused inputs.
+     */
+    public long getRefusedInputs() {
+	return refusedInputs;
+    }
+}
@@ -0,0 +1,225 @@
+package se.liu.kevma271.flappybird;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the board simulation on its own thread at a fixed tick rate.
+ * <p>
+ *     The simulation thread is the only thread that touches the board
+ *     once the loop has been started. Input from other threads is
+ *     timestamped, queued without locking and applied at the start of
+ *     the next tick, and after every tick the state needed for drawing is published
+ *     through a {@link RenderSnapshotBuffer}. This way a slow paint on
+ *     the drawing thread never delays the physics.
+ * </p>
+ * <p>
+ *     The loop listens to the board itself and publishes when the board
+ *     has changed. It registers before any other listener can be added,
+ *     so listeners that repaint always find the new snapshot.
+ * </p>
+ */
+public class SimulationLoop implements BoardListener {
+    /**
+     * Time between two ticks, the same as the old Swing timer delay.
+     */
+    public static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1000 / 60);
+
+    /**
+     * How many ticks the loop catches up on after falling behind, for
+     * example after the computer has been suspended.
+     */
+    private static final int MAX_CATCH_UP_TICKS = 10;
+
+    private final Board board;
+    private final long tickNanos;
+    private final Runnable gameOverCallback;
+    private final RenderSnapshotBuffer renderSnapshots = new RenderSnapshotBuffer();
+    private final FrameWatchdog watchdog;
+
+    private static final int INPUT_CAPACITY = 64;
+
+    /**
+     * Upward moves requested since the last tick, by the time they were
+     * requested. Only the drawing thread may request moves.
+     */
+    private final TimestampQueue inputs = new TimestampQueue(INPUT_CAPACITY);
+    private final InputLatencyTracker inputLatency = new InputLatencyTracker();
+
+    private volatile boolean stopped = false;
+    private Thread thread = null;
+
+    /**
+     * Creates a simulation loop for the given board.
+     *
+     * @param board            The board to simulate.
+     * @param tickNanos        Nanoseconds between two ticks.
+     * @param gameOverCallback Called on the simulation thread once the
+     *                         game is over and the loop has stopped.
+     */
+    public SimulationLoop(final Board board, final long tickNanos, final Runnable gameOverCallback) {
+	this.board = board;
+	this.tickNanos = tickNanos;
+	this.gameOverCallback = gameOverCallback;
+	this.watchdog = new FrameWatchdog(tickNanos);
+
+	// Publish the starting position so there is something to draw
+	publishRenderSnapshot();
+	board.addBoardListener(this);
+    }
+
+    public SimulationLoop(final Board board, final Runnable gameOverCallback) {
+	this(board, DEFAULT_TICK_NANOS, gameOverCallback);
+    }
+
+    /**
+     * Starts the simulation thread.
+     */
+    public void start() {
+	thread = new Thread(this::run, "simulation");
+	thread.setDaemon(true);
+	thread.start();
+    }
+
+    /**
+     * Stops the simulation thread after the tick it is currently in.
+     */
+    public void stop() {
+	stopped = true;
+	if (thread != null) {
+	    LockSupport.unpark(thread);
+	}
+    }
+
+    /**
+     * Starts a new game on the same board and restarts the simulation
+     * thread. A game that is still running is stopped first.
+     * <p>
+     *     The board is reset while no simulation thread is running, and
+     *     the reset publishes the starting position before the new
+     *     thread starts, so the next frame already shows the new game.
+     *     Moves requested while the old game was over are discarded, and
+     *     so are the inputs of the old game whose latency was not
+     *     measured yet. Must be called from the thread that requests moves
+     *     and draws the frames.
+     * </p>
+     *
+     * @param seed The seed of the new game.
+     */
+    public void restart(final long seed) {
+	stop();
+	if (thread != null) {
+	    try {
+		thread.join();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		return;
+	    }
+	}
+	inputs.clear();
+	inputLatency.reset();
+	board.reset(seed);
+	stopped = false;
+	start();
+    }
+
+    /**
+     * Requests a movement of the bird now.
+     *
+     * @param direction The direction the player wants the bird to move.
+     */
+    public void moveBird(final Direction direction) {
+	moveBird(direction, System.nanoTime());
+    }
+
+    /**
+     * Requests a movement of the bird, to be applied on the next tick.
+     * Must always be called from the same thread, usually the event
+     * dispatch thread.
+     *
+     * @param direction The direction the player wants the bird to move.
+     * @param timestamp The time of the input from System.nanoTime().
+     */
+    public void moveBird(final Direction direction, final long timestamp) {
+	if (direction == Direction.UP) {
+	    inputs.offer(timestamp, 0);
+	}
+    }
+
+    /**
+     * The body of the simulation thread. Ticks are scheduled against
+     * fixed deadlines so that the tick rate does not drift.
+     */
+    private void run() {
+	long deadline = System.nanoTime();
+	while (!stopped) {
+	    final long tickStart = System.nanoTime();
+	    step();
+	    watchdog.recordTick(System.nanoTime() - tickStart);
+	    if (board.isGameOver()) {
+		stopped = true;
+		gameOverCallback.run();
+		return;
+	    }
+
+	    deadline += tickNanos;
+	    long remaining = deadline - System.nanoTime();
+	    if (remaining < -MAX_CATCH_UP_TICKS * tickNanos) {
+		deadline = System.nanoTime();
+	    }
+	    while (remaining > 0 && !stopped) {
+		LockSupport.parkNanos(remaining);
+		remaining = deadline - System.nanoTime();
+	    }
+	}
+    }
+
+    /**
+     * Performs one step of the game loop: applies the input received
+     * since the last step and ticks the board.
+     */
+    private void step() {
+	while (!inputs.isEmpty()) {
+	    final long timestamp = inputs.peekTimestamp();
+	    inputs.remove();
+	    board.moveBird(Direction.UP);
+	    if (!board.isGameOver()) {
+		// The move shows from the tick that is about to run
+		inputLatency.inputApplied(timestamp, board.getTickCount() + 1);
+	    }
+	}
+	if (board.isRunning()) {
+	    board.tick();
+	}
+    }
+
+    public void boardChanged() {
+	publishRenderSnapshot();
+    }
+
+    public void birdChanged() {
+	// The bird type is part of the snapshot published on boardChanged
+    }
+
+    private void publishRenderSnapshot() {
+	board.saveRenderSnapshot(renderSnapshots.getWriteSnapshot());
+	renderSnapshots.publish();
+    }
+
+    public RenderSnapshotBuffer getRenderSnapshots() {
+	return renderSnapshots;
+    }
+    public InputLatencyTracker getInputLatency() {
+	return inputLatency;
+    }
+    /**
+     * Returns the watchdog that measures ticks against the tick time and
+     * decides which ticks are drawn.
+     */
+    public FrameWatchdog getWatchdog() {
+	return watchdog;
+    }
+    public long getTickNanos() {
+	return tickNanos;
+    }
+}
@@ -0,0 +1,178 @@
+package se.liu.kevma271.flappybird;
+
+import java.util.Arrays;
+
+/**
+ * A hashed timer wheel that schedules timed effects on tick numbers.
+ * <p>
+ *     Every scheduled effect is put in the slot of its tick modulo the
+ *     number of slots. Polling a tick only looks at the entries in that
+ *     slot, so the work per tick does not depend on how far ahead
+ *     effects are scheduled. Effects further away than one turn of the
+ *     wheel simply stay in their slot until their tick comes.
+ * </p>
+ * <p>
+ *     The entries are kept in preallocated arrays linked together by
+ *     index, so scheduling and polling does not allocate. Effects that
+ *     are due on the same tick are returned in the order they were
+ *     scheduled, which keeps the board deterministic.
+ * </p>
+ */
+public class TickScheduler {
+    private static final int SLOT_COUNT = 256;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private final int[] slotHeads = new int[SLOT_COUNT];
+    private final int[] slotTails = new int[SLOT_COUNT];
+
+    private long[] deadlines = new long[DEFAULT_CAPACITY];
+    private TimedEffect[] effects = new TimedEffect[DEFAULT_CAPACITY];
+    private int[] next = new int[DEFAULT_CAPACITY];
+    private int freeHead = NONE;
+    private int size = 0;
+
+    public TickScheduler() {
+	Arrays.fill(slotHeads, NONE);
+	Arrays.fill(slotTails, NONE);
+	linkFreeEntries(0);
+    }
+
+    /**
+     * Schedules an effect to happen on the given tick.
+     *
+     * @param tick   The tick number the effect is due on.
+     * @param effect The effect to schedule.
+     */
+    public void schedule(final long tick, final TimedEffect effect) {
+	if (freeHead == NONE) {
+	    grow();
+	}
+	final int entry = freeHead;
+	freeHead = next[entry];
+
+	deadlines[entry] = tick;
+	effects[entry] = effect;
+	next[entry] = NONE;
+
+	final int slot = (int) (tick & SLOT_MASK);
+	if (slotHeads[slot] == NONE) {
+	    slotHeads[slot] = entry;
+	} else {
+	    next[slotTails[slot]] = entry;
+	}
+	slotTails[slot] = entry;
+	size += 1;
+    }
+
+    /**
+     * Removes and returns the first effect that is due on the given
+     * tick. Effects scheduled on the same tick while it is being polled
+     * are returned as well.
+     *
+     * @param tick The current tick number.
+     * @return The next due effect, or null if there is none left.
+     */
+    public TimedEffect poll(final long tick) {
+	final int slot = (int) (tick & SLOT_MASK);
+	int previous = NONE;
+	for (int entry = slotHeads[slot]; entry != NONE; entry = next[entry]) {
+	    if (deadlines[entry] == tick) {
+		unlink(slot, previous, entry);
+		return release(entry);
+	    }
+	    previous = entry;
+	}
+	return null;
+    }
+
+    /**
+     * Removes all scheduled effects. Only the entries are visited, not
+     * all the slots of the wheel.
+     */
+    public void clear() {
+	for (int entry = 0; entry < next.length; entry++) {
+	    if (effects[entry] != null) {
+		final int slot = (int) (deadlines[entry] & SLOT_MASK);
+		slotHeads[slot] = NONE;
+		slotTails[slot] = NONE;
+		effects[entry] = null;
+	    }
+	}
+	linkFreeEntries(0);
+	size = 0;
+    }
+
+    /**
+     * Copies all scheduled effects into the given arrays, slot by slot
+     * and in scheduling order within each slot. Scheduling them again in
+     * the same order restores the scheduler exactly.
+     *
+     * @param tickCopy   Receives the tick number of each effect.
+     * @param effectCopy Receives the effects.
+     */
+    public void copyTo(final long[] tickCopy, final TimedEffect[] effectCopy) {
+	int copied = 0;
+	for (int head = 0; head < next.length; head++) {
+	    // Every used slot is copied when its first entry is found
+	    if (effects[head] == null || slotHeads[(int) (deadlines[head] & SLOT_MASK)] != head) {
+		continue;
+	    }
+	    for (int entry = head; entry != NONE; entry = next[entry]) {
+		tickCopy[copied] = deadlines[entry];
+		effectCopy[copied] = effects[entry];
+		copied += 1;
+	    }
+	}
+    }
+
+    public int size() {
+	return size;
+    }
+
+    private void unlink(final int slot, final int previous, final int entry) {
+	if (previous == NONE) {
+	    slotHeads[slot] = next[entry];
+	} else {
+	    next[previous] = next[entry];
+	}
+	if (slotTails[slot] == entry) {
+	    slotTails[slot] = previous;
+	}
+    }
+
+    private TimedEffect release(final int entry) {
+	final TimedEffect effect = effects[entry];
+	effects[entry] = null;
+	next[entry] = freeHead;
+	freeHead = entry;
+	size -= 1;
+	return effect;
+    }
+
+    /**
+     * Doubles the number of entries and puts the new ones on the free
+     * list.
+     */
+    private void grow() {
+	final int oldCapacity = next.length;
+	final int capacity = oldCapacity * 2;
+	deadlines = Arrays.copyOf(deadlines, capacity);
+	effects = Arrays.copyOf(effects, capacity);
+	next = Arrays.copyOf(next, capacity);
+	linkFreeEntries(oldCapacity);
+    }
+
+    /**
+     * Makes the free list consist of all entries from the given one.
+     *
+     * @param first The first free entry.
+     */
+    private void linkFreeEntries(final int first) {
+	for (int entry = first; entry < next.length; entry++) {
+	    next[entry] = entry + 1 < next.length ? entry + 1 : NONE;
+	}
+	freeHead = first;
+    }
+}
@@ -0,0 +1,15 @@
+package se.liu.kevma271.flappybird;
+
+/**
+ * Enum representing the timed events of the game that the board
+ * schedules on its {@link TickScheduler}.
+ * <p>
+ *     SPAWN_POWER_UP activates a random power-up, POWER_UP_SCORE adds to
+ *     the score while the super power-up is active, POWER_UP_EXPIRED
+ *     ends a power-up and creates the post-superpower shield and
+ *     SHIELD_EXPIRED makes the game normal again.
+ * </p>
+ */
+public enum TimedEffect {
+    SPAWN_POWER_UP, POWER_UP_SCORE, POWER_UP_EXPIRED, SHIELD_EXPIRED
+}
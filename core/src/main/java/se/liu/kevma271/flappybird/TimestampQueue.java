@@ -0,0 +1,83 @@
+package se.liu.kevma271.flappybird;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue of timestamped entries between one producing
+ * and one consuming thread.
+ * <p>
+ *     Every entry is a timestamp and a tick number, kept in two
+ *     preallocated arrays, so neither side allocates or waits. The
+ *     producer publishes an entry by advancing the tail, the consumer
+ *     frees it by advancing the head.
+ * </p>
+ */
+public class TimestampQueue {
+    private final long[] timestamps;
+    private final long[] ticks;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity The number of entries that fit, rounded up to a
+     *                 power of two.
+     */
+    public TimestampQueue(final int capacity) {
+	final int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+	timestamps = new long[size];
+	ticks = new long[size];
+	mask = size - 1;
+    }
+
+    /**
+     * Adds an entry. Must only be called by the producing thread.
+     *
+     * @param timestamp The time of the entry in nanoseconds.
+     * @param tick      The tick the entry belongs to.
+     * @return False if the queue was full and the entry was dropped.
+     */
+    public boolean offer(final long timestamp, final long tick) {
+	final long position = tail.get();
+	if (position - head.get() == timestamps.length) {
+	    return false;
+	}
+	final int index = (int) position & mask;
+	timestamps[index] = timestamp;
+	ticks[index] = tick;
+	tail.lazySet(position + 1);
+	return true;
+    }
+
+    /**
+     * Returns true if there is no entry to take. Must only be called by
+     * the consuming thread, like the methods below.
+     */
+    public boolean isEmpty() {
+	return head.get() == tail.get();
+    }
+
+    public long peekTimestamp() {
+	return timestamps[(int) head.get() & mask];
+    }
+
+    public long peekTick() {
+	return ticks[(int) head.get() & mask];
+    }
+
+    /**
+     * Removes the oldest entry.
+     */
+    public void remove() {
+	head.lazySet(head.get() + 1);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+	head.lazySet(tail.get());
+    }
+}
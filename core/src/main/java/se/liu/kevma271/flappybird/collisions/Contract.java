@@ -22,6 +22,19 @@ public interface Contract {
      */
     boolean hasCollision(List<Pipe> pipes, Board board, Bird bird);
 
+    /**
+     * Checks if there has been a collision between the bird and pipes
+     * at any time since the last collision check, not only at the
+     * current positions. Objects that move further than their own size
+     * in one tick can not pass through each other with this check.
+     *
+     * @param pipes The list of pipes in the game.
+     * @param board The game board containing the pipes.
+     * @param bird  The bird object representing the player.
+     * @return True if a collision is detected, false otherwise.
+     */
+    boolean hasSweptCollision(List<Pipe> pipes, Board board, Bird bird);
+
     /**
      * Returns the type of cillision.
      */
@@ -43,6 +43,32 @@ public class DefaultCollisions implements Contract {
 	return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The ground and ceiling are checked in the same way as above. For
+     * the pipes, the motion since the last check is tested against the
+     * top pipe and the bottom pipe.
+     * </p>
+     */
+    public boolean hasSweptCollision(List<Pipe> pipes, Board board, Bird bird) {
+	// Check if bird has touched the ground or ceiling
+	if (bird.getPosY() <= board.getCeilingPosY() || bird.getPosY() >= board.getFloorPosY())
+	    return true;
+
+	for (Pipe pipe : pipes) {
+	    int topPipeEnd = pipe.getPosY() + pipe.getHeight();
+	    int bottomPipeStart = topPipeEnd+pipe.getGap() - pipe.getMushroom();
+
+	    if (SweptAabb.hasHitPipeSection(pipe, bird, Integer.MIN_VALUE, topPipeEnd)) {
+		return true;
+	    } else if (SweptAabb.hasHitPipeSection(pipe, bird, bottomPipeStart, Integer.MAX_VALUE)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
     public PowerUp getDescription() {
 	return PowerUp.REGULAR;
     }
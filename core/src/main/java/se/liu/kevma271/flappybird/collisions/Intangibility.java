@@ -3,6 +3,7 @@ package se.liu.kevma271.flappybird.collisions;
 import se.liu.kevma271.flappybird.PowerUp;
 import se.liu.kevma271.flappybird.objects.Bird;
 import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.objects.FixedPoint;
 import se.liu.kevma271.flappybird.objects.Pipe;
 import java.util.List;
 
@@ -37,6 +38,18 @@ public class Intangibility implements Contract {
 	return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The bird can only collide with the ground, which covers everything
+     * below it, so the current position is enough to detect it.
+     * </p>
+     */
+    @Override
+    public boolean hasSweptCollision(List<Pipe> pipes, Board board, Bird bird) {
+	return hasCollision(pipes, board, bird);
+    }
+
     /**
      * Adjusts the bird's position to stay under the board ceiling
      * during the intangibility superpower. It also updates the bird's
@@ -45,7 +58,7 @@ public class Intangibility implements Contract {
      * @param board The game board containing the pipes.
      */
     public void keepUnderCeiling(Board board, Bird bird) {
-	final int counterMovement = 3;
+	final int counterMovement = FixedPoint.fromPixels(3);
 	bird.setPosY(board.getCeilingPosY());
 	bird.updateSpeed(counterMovement);
     }
@@ -45,6 +45,31 @@ public class UpperPipeIntangibility implements Contract {
 	return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Tests the motion since the last check against the mushroom of the
+     * upper pipe and against the bottom pipe.
+     * </p>
+     */
+    public boolean hasSweptCollision(List<Pipe> pipes, Board board, Bird bird) {
+	// Check if bird has touched the ground or ceiling
+	if (bird.getPosY() <= board.getCeilingPosY() || bird.getPosY() >= board.getFloorPosY())
+	    return true;
+
+	for (Pipe pipe : pipes) {
+	    int topPipeEnd = pipe.getPosY() + pipe.getHeight();
+	    int bottomPipeStart = topPipeEnd+pipe.getGap() - pipe.getMushroom();
+
+	    if (SweptAabb.hasHitPipeSection(pipe, bird, topPipeEnd-pipe.getMushroom(), topPipeEnd)) {
+		return true;
+	    } else if (SweptAabb.hasHitPipeSection(pipe, bird, bottomPipeStart, Integer.MAX_VALUE)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
     public PowerUp getDescription() {
 	return PowerUp.GRAVITY;
     }
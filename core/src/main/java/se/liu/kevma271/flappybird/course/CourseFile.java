@@ -0,0 +1,156 @@
+package se.liu.kevma271.flappybird.course;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A course stored in a compact binary file, for example a shared daily
+ * challenge or a course that has been checked to be survivable.
+ * <p>
+ *     The file starts with a 16 byte header: the magic number "FBCR",
+ *     a format version, two reserved bytes and the number of pipes. After
+ *     the header every pipe height is stored as a two byte signed
+ *     integer. The file is memory-mapped a window at a time, so even
+ *     very long courses are streamed from disk without being read into
+ *     memory.
+ * </p>
+ * <p>
+ *     A course file may be read by several threads at once, for example
+ *     by the workers of a score verifier. Each thread may map a window
+ *     of its own when they read far apart, but no thread ever sees a
+ *     window that does not hold the pipe it asked for.
+ * </p>
+ */
+public class CourseFile implements CourseSource, Closeable {
+    private static final int MAGIC = 0x46424352;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int BYTES_PER_PIPE = Short.BYTES;
+
+    /**
+     * Number of pipes in each mapped window of the file.
+     */
+    private static final long WINDOW_PIPES = 1L << 24;
+
+    private final FileChannel channel;
+    private final long length;
+
+    private volatile Window window = new Window(0, 0, null);
+
+    private CourseFile(final FileChannel channel, final long length) {
+	this.channel = channel;
+	this.length = length;
+    }
+
+    /**
+     * Opens a course file for reading.
+     *
+     * @param path The path of the course file.
+     * @return The course stored in the file.
+     * @throws IOException If the file can not be read or is not a course
+     * file.
+     */
+    public static CourseFile open(final Path path) throws IOException {
+	final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+	try {
+	    final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+	    if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+		throw new IOException("Not a course file: " + path);
+	    }
+	    header.getShort();
+	    final long length = header.getLong();
+	    if (length <= 0 || channel.size() < HEADER_SIZE + length * BYTES_PER_PIPE) {
+		throw new IOException("Course file is truncated: " + path);
+	    }
+	    return new CourseFile(channel, length);
+	} catch (IOException e) {
+	    channel.close();
+	    throw e;
+	}
+    }
+
+    /**
+     * Writes the first pipes of a course to a file.
+     *
+     * @param path      The path of the course file.
+     * @param source    The course to write.
+     * @param pipeCount The number of pipes to write.
+     * @throws IOException If the file can not be written.
+     */
+    public static void write(final Path path, final CourseSource source, final long pipeCount) throws IOException {
+	if (pipeCount <= 0) {
+	    throw new IllegalArgumentException("A course needs at least one pipe: " + pipeCount);
+	}
+	try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+	    output.writeInt(MAGIC);
+	    output.writeShort(VERSION);
+	    output.writeShort(0);
+	    output.writeLong(pipeCount);
+	    for (long index = 0; index < pipeCount; index++) {
+		final int height = source.getPipeHeight(index);
+		if (height < Short.MIN_VALUE || height > Short.MAX_VALUE) {
+		    throw new IllegalArgumentException("Pipe height does not fit in a course file: " + height);
+		}
+		output.writeShort(height);
+	    }
+	}
+    }
+
+    public int getPipeHeight(final long index) {
+	final long pipe = index % length;
+	Window current = window;
+	if (pipe < current.start || pipe >= current.start + current.length) {
+	    current = mapWindow(pipe);
+	    window = current;
+	}
+	return current.buffer.getShort((int) ((pipe - current.start) * BYTES_PER_PIPE));
+    }
+
+    public long getLength() {
+	return length;
+    }
+
+    /**
+     * Maps the window of the file that contains the given pipe.
+     *
+     * @param pipe The index of the pipe within the file.
+     * @return The window.
+     */
+    private Window mapWindow(final long pipe) {
+	final long start = pipe - pipe % WINDOW_PIPES;
+	final long windowLength = Math.min(WINDOW_PIPES, length - start);
+	try {
+	    return new Window(start, windowLength, channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + start * BYTES_PER_PIPE,
+								  windowLength * BYTES_PER_PIPE));
+	} catch (IOException e) {
+	    throw new IllegalStateException("Could not map course file: " + e.getMessage(), e);
+	}
+    }
+
+    public void close() throws IOException {
+	channel.close();
+    }
+
+    /**
+     * A mapped part of the file. Only absolute reads are made from the
+     * buffer, so it can be shared between threads.
+     */
+    private static final class Window {
+	private final long start;
+	private final long length;
+	private final MappedByteBuffer buffer;
+
+	private Window(final long start, final long length, final MappedByteBuffer buffer) {
+	    this.start = start;
+	    this.length = length;
+	    this.buffer = buffer;
+	}
+    }
+}
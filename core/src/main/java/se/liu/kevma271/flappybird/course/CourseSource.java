@@ -0,0 +1,31 @@
+package se.liu.kevma271.flappybird.course;
+
+/**
+ * Interface for everything that can provide the course of a game, that
+ * is the height of every pipe in the order they appear.
+ * <p>
+ *     Heights are looked up by the index of the pipe rather than read
+ *     one after the other. That way the board only has to remember how
+ *     many pipes it has created to be saved, restored and replayed.
+ * </p>
+ */
+public interface CourseSource {
+    /**
+     * Marks a course without an end.
+     */
+    long ENDLESS = Long.MAX_VALUE;
+
+    /**
+     * Returns the y-position of the upper pipe with the given index.
+     *
+     * @param index The number of pipes created before this one.
+     * @return Y-position of where the upper pipe shall be drawed.
+     */
+    int getPipeHeight(long index);
+
+    /**
+     * Returns the number of different pipes in the course. Courses
+     * start over from the first pipe once they have run out.
+     */
+    long getLength();
+}
@@ -0,0 +1,114 @@
+package se.liu.kevma271.flappybird.course;
+
+import se.liu.kevma271.flappybird.objects.Pipe;
+
+import java.time.LocalDate;
+
+/**
+ * An endless procedural course generated from a seed.
+ * <p>
+ *     Every pipe height is computed from the seed and the index of the
+ *     pipe alone, so the same seed always gives the same course and any
+ *     part of it can be generated without generating what comes before.
+ *     Heights are produced a chunk at a time into a lookahead buffer,
+ *     which always holds the chunk after the current one as well.
+ * </p>
+ */
+public class GeneratedCourse implements CourseSource {
+    private static final int CHUNK_SIZE = 256;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    /**
+     * Used for the dimensions of the pipes when turning random numbers
+     * into heights.
+     */
+    private final Pipe pipeShape = new Pipe();
+
+    private long chunkStart;
+    private int[] chunk;
+    private int[] nextChunk;
+
+    /**
+     * Creates a course.
+     *
+     * @param seed The seed of the course.
+     */
+    public GeneratedCourse(final long seed) {
+	this.seed = seed;
+	this.chunkStart = 0;
+	this.chunk = generateChunk(0);
+	this.nextChunk = generateChunk(CHUNK_SIZE);
+    }
+
+    /**
+     * Creates the daily challenge course of the given date, which is the
+     * same for every player on that day.
+     *
+     * @param date The date of the challenge.
+     * @return The course of the day.
+     */
+    public static GeneratedCourse daily(final LocalDate date) {
+	return new GeneratedCourse(mix(date.toEpochDay()));
+    }
+
+    public int getPipeHeight(final long index) {
+	if (index >= chunkStart + CHUNK_SIZE && index < chunkStart + 2 * CHUNK_SIZE) {
+	    advanceChunk();
+	}
+	if (index >= chunkStart && index < chunkStart + CHUNK_SIZE) {
+	    return chunk[(int) (index - chunkStart)];
+	}
+	// Far outside the buffer, for example after rolling back
+	return computeHeight(index);
+    }
+
+    public long getLength() {
+	return ENDLESS;
+    }
+
+    public long getSeed() {
+	return seed;
+    }
+
+    /**
+     * Makes the next chunk the current one and starts on the one after.
+     */
+    private void advanceChunk() {
+	chunk = nextChunk;
+	chunkStart += CHUNK_SIZE;
+	nextChunk = generateChunk(chunkStart + CHUNK_SIZE);
+    }
+
+    private int[] generateChunk(final long start) {
+	final int[] heights = new int[CHUNK_SIZE];
+	for (int i = 0; i < CHUNK_SIZE; i++) {
+	    heights[i] = computeHeight(start + i);
+	}
+	return heights;
+    }
+
+    /**
+     * Computes the height of a single pipe from the seed and its index.
+     *
+     * @param index The index of the pipe.
+     * @return Y-position of where the upper pipe shall be drawed.
+     */
+    private int computeHeight(final long index) {
+	final int unusedBits = 11;
+	final double unitScale = 0x1.0p-53;
+	final double random = (mix(seed + (index + 1) * GOLDEN_GAMMA) >>> unusedBits) * unitScale;
+	return pipeShape.getRandomHeight(random);
+    }
+
+    /**
+     * Scrambles the bits of a number, the finalizer of SplitMix64.
+     */
+    private static long mix(final long value) {
+	long z = value;
+	z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+	z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+	return z ^ (z >>> 31);
+    }
+}
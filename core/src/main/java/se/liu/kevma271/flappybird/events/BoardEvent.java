@@ -0,0 +1,50 @@
+package se.liu.kevma271.flappybird.events;
+
+import se.liu.kevma271.flappybird.DeathCause;
+import se.liu.kevma271.flappybird.PowerUp;
+
+/**
+ * Something that happened on a board during a tick.
+ * <p>
+ *     What the value means depends on the type of the event. It is the
+ *     y-position of the pipes for PIPE_SPAWNED and PIPE_RECYCLED, the
+ *     new score for SCORE_CHANGED and GAME_OVER, the seed of the new game
+ *     for GAME_STARTED, the tick that was rolled back to for ROLLED_BACK
+ *     and zero otherwise. Power-up events also tell
+ *     which power-up started or ended, and GAME_OVER what the bird
+ *     collided with.
+ * </p>
+ */
+public class BoardEvent {
+    private final BoardEventType type;
+    private final long tick;
+    private final long value;
+    private final PowerUp powerUp;
+    private final DeathCause deathCause;
+
+    public BoardEvent(final BoardEventType type, final long tick, final long value, final PowerUp powerUp,
+		      final DeathCause deathCause)
+    {
+	this.type = type;
+	this.tick = tick;
+	this.value = value;
+	this.powerUp = powerUp;
+	this.deathCause = deathCause;
+    }
+
+    public BoardEventType getType() {
+	return type;
+    }
+    public long getTick() {
+	return tick;
+    }
+    public long getValue() {
+	return value;
+    }
+    public PowerUp getPowerUp() {
+	return powerUp;
+    }
+    public DeathCause getDeathCause() {
+	return deathCause;
+    }
+}
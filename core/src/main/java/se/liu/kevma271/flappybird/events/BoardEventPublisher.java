@@ -0,0 +1,295 @@
+package se.liu.kevma271.flappybird.events;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publishes the events of a board to any number of subscribers.
+ * <p>
+ *     The board calls {@link #publish(BoardEvent)} while it ticks. The
+ *     event is only put in the buffer of every subscriber, and the
+ *     subscribers are called later on an executor, so a slow subscriber
+ *     does not slow down the game. Every subscriber has its own bounded
+ *     buffer and its own policy for what happens when the buffer is
+ *     full. Events are only delivered as far as the subscriber has
+ *     requested them, as described by {@link Flow}.
+ * </p>
+ */
+public class BoardEventPublisher implements Flow.Publisher<BoardEvent> {
+    private static final Logger LOGGER = Logger.getLogger(BoardEventPublisher.class.getName());
+
+    /**
+     * The buffer size used when subscribing without giving one.
+     */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * Runs the subscribers when no executor is given. The threads are
+     * only started once there is something to deliver.
+     */
+    private static final Executor DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+	final Thread thread = new Thread(runnable, "board-events");
+	thread.setDaemon(true);
+	return thread;
+    });
+
+    private final List<EventSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private boolean closed = false;
+
+    /**
+     * Subscribes with the default buffer size, dropping the oldest
+     * events when the subscriber falls behind.
+     *
+     * @param subscriber The subscriber.
+     */
+    @Override public void subscribe(final Flow.Subscriber<? super BoardEvent> subscriber) {
+	subscribe(subscriber, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Subscribes with a buffer of its own.
+     * <p>
+     *     With the BLOCK policy, the executor must not run on the thread
+     *     that ticks the board, since the board would then wait for
+     *     itself.
+     * </p>
+     *
+     * @param subscriber The subscriber.
+     * @param capacity   How many events the buffer of the subscriber
+     *                   holds.
+     * @param policy     What to do when the buffer is full.
+     * @param executor   The executor that calls the subscriber.
+     */
+    public synchronized void subscribe(final Flow.Subscriber<? super BoardEvent> subscriber, final int capacity,
+				       final OverflowPolicy policy, final Executor executor)
+    {
+	Objects.requireNonNull(subscriber, "subscriber");
+	if (capacity < 1) {
+	    throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+	}
+	final EventSubscription subscription = new EventSubscription(subscriber, capacity, policy, executor);
+	subscriber.onSubscribe(subscription);
+	if (closed) {
+	    subscription.complete();
+	} else {
+	    subscriptions.add(subscription);
+	}
+    }
+
+    /**
+     * Returns whether anyone is subscribed, so that the board does not
+     * have to create events that nobody receives.
+     *
+     * @return True if there are subscribers.
+     */
+    public boolean hasSubscribers() {
+	return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Puts an event in the buffer of every subscriber. This only waits
+     * for subscribers with the BLOCK policy whose buffer is full.
+     *
+     * @param event The event.
+     */
+    public void publish(final BoardEvent event) {
+	for (EventSubscription subscription : subscriptions) {
+	    if (!subscription.offer(event)) {
+		subscriptions.remove(subscription);
+	    }
+	}
+    }
+
+    /**
+     * Completes every subscription once its buffered events have been
+     * delivered. Later subscribers are completed right away.
+     */
+    public synchronized void close() {
+	closed = true;
+	for (EventSubscription subscription : subscriptions) {
+	    subscription.complete();
+	}
+	subscriptions.clear();
+    }
+
+    /**
+     * Returns the number of events that were thrown away because the
+     * buffer of a subscriber was full.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedEvents() {
+	return droppedEvents.get();
+    }
+
+    /**
+     * The buffer and demand of one subscriber.
+     * <p>
+     *     At most one task delivers to the subscriber at a time, so the
+     *     subscriber is never called concurrently. The task delivers
+     *     events until the buffer is empty or the demand is used up.
+     * </p>
+     */
+    private class EventSubscription implements Flow.Subscription, Runnable {
+	private final Flow.Subscriber<? super BoardEvent> subscriber;
+	private final int capacity;
+	private final OverflowPolicy policy;
+	private final Executor executor;
+	private final ArrayDeque<BoardEvent> buffer;
+
+	private long demand = 0;
+	private boolean delivering = false;
+	private boolean cancelled = false;
+	private boolean completed = false;
+	private Throwable error = null;
+
+	private EventSubscription(final Flow.Subscriber<? super BoardEvent> subscriber, final int capacity,
+				  final OverflowPolicy policy, final Executor executor)
+	{
+	    this.subscriber = subscriber;
+	    this.capacity = capacity;
+	    this.policy = policy;
+	    this.executor = executor;
+	    this.buffer = new ArrayDeque<>(capacity);
+	}
+
+	/**
+	 * Buffers an event for the subscriber.
+	 *
+	 * @return False if the subscription has been cancelled.
+	 */
+	private boolean offer(final BoardEvent event) {
+	    synchronized (this) {
+		if (cancelled) {
+		    return false;
+		}
+		if (buffer.size() >= capacity) {
+		    if (policy == OverflowPolicy.DROP_NEWEST) {
+			droppedEvents.incrementAndGet();
+			return true;
+		    } else if (policy == OverflowPolicy.DROP_OLDEST) {
+			buffer.poll();
+			droppedEvents.incrementAndGet();
+		    } else {
+			while (buffer.size() >= capacity && !cancelled) {
+			    try {
+				wait();
+			    } catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				droppedEvents.incrementAndGet();
+				return true;
+			    }
+			}
+			if (cancelled) {
+			    return false;
+			}
+		    }
+		}
+		buffer.add(event);
+	    }
+	    startDelivering();
+	    return true;
+	}
+
+	@Override public void request(final long count) {
+	    synchronized (this) {
+		if (cancelled) {
+		    return;
+		}
+		if (count <= 0) {
+		    error = new IllegalArgumentException("Requested a non-positive number of events: " + count);
+		} else {
+		    // Saturate, a demand of Long.MAX_VALUE is unbounded
+		    demand = demand + count < 0 ? Long.MAX_VALUE : demand + count;
+		}
+	    }
+	    startDelivering();
+	}
+
+	@Override public void cancel() {
+	    synchronized (this) {
+		cancelled = true;
+		buffer.clear();
+		notifyAll();
+	    }
+	}
+
+	private void complete() {
+	    synchronized (this) {
+		completed = true;
+	    }
+	    startDelivering();
+	}
+
+	/**
+	 * Starts a delivery task if there is anything to deliver and no
+	 * task is running already.
+	 */
+	private void startDelivering() {
+	    synchronized (this) {
+		if (delivering || cancelled) {
+		    return;
+		}
+		if (error == null && (demand == 0 || buffer.isEmpty()) && !(completed && buffer.isEmpty())) {
+		    return;
+		}
+		delivering = true;
+	    }
+	    try {
+		executor.execute(this);
+	    } catch (RejectedExecutionException e) {
+		cancel();
+		subscriber.onError(e);
+	    }
+	}
+
+	@Override public void run() {
+	    while (true) {
+		BoardEvent event = null;
+		Throwable failure = null;
+		synchronized (this) {
+		    if (cancelled) {
+			delivering = false;
+			return;
+		    }
+		    if (error != null) {
+			failure = error;
+			cancelled = true;
+		    } else if (demand > 0 && !buffer.isEmpty()) {
+			event = buffer.poll();
+			demand -= 1;
+			notifyAll();
+		    } else if (completed && buffer.isEmpty()) {
+			cancelled = true;
+		    } else {
+			delivering = false;
+			return;
+		    }
+		}
+
+		if (failure != null) {
+		    subscriber.onError(failure);
+		} else if (event == null) {
+		    subscriber.onComplete();
+		} else {
+		    try {
+			subscriber.onNext(event);
+		    } catch (RuntimeException e) {
+			LOGGER.log(Level.WARNING, "Board event subscriber failed, cancelling it", e);
+			cancel();
+		    }
+		}
+	    }
+	}
+    }
+}
@@ -0,0 +1,17 @@
+package se.liu.kevma271.flappybird.events;
+
+/**
+ * Enum representing the kinds of events that a board publishes.
+ * <p>
+ *     PIPE_SPAWNED is a new pair of pipes entering the board, while
+ *     PIPE_RECYCLED is a pair that has left the board on the left being
+ *     reused on the right. GAME_STARTED is published when a board is
+ *     reset for a new game. ROLLED_BACK is published when frames have
+ *     been simulated again with an input that arrived late. The events
+ *     published since the tick it rolled back to no longer hold, and the
+ *     events of the frames simulated again follow right after it.
+ * </p>
+ */
+public enum BoardEventType {
+    PIPE_SPAWNED, PIPE_RECYCLED, SCORE_CHANGED, POWER_UP_STARTED, POWER_UP_ENDED, FLAP, GAME_OVER, GAME_STARTED, ROLLED_BACK
+}
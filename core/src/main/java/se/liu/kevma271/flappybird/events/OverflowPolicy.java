@@ -0,0 +1,16 @@
+package se.liu.kevma271.flappybird.events;
+
+/**
+ * Enum representing what a board does with an event for a subscriber
+ * whose buffer is full.
+ * <p>
+ *     DROP_NEWEST throws away the new event and DROP_OLDEST throws away
+ *     the oldest buffered one, so that the board never waits. BLOCK
+ *     makes the board wait until the subscriber has taken an event,
+ *     which is only meant for tools that must see every event and
+ *     would rather slow the game down than miss any.
+ * </p>
+ */
+public enum OverflowPolicy {
+    DROP_NEWEST, DROP_OLDEST, BLOCK
+}
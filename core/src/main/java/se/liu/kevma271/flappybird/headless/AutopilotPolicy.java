@@ -0,0 +1,49 @@
+package se.liu.kevma271.flappybird.headless;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.objects.Bird;
+import se.liu.kevma271.flappybird.objects.FixedPoint;
+import se.liu.kevma271.flappybird.objects.Pipe;
+
+/**
+ * A simple reference bot that flaps whenever the bird is about to fall
+ * below the gap of the next pipe.
+ * <p>
+ *     The bot is not perfect, but it plays a reasonable game and is
+ *     deterministic, which makes it useful for producing example games,
+ *     benchmarks and for comparing difficulty settings.
+ * </p>
+ */
+public class AutopilotPolicy implements FlapPolicy {
+    /**
+     * How far above the bottom pipe the bird tries to stay.
+     */
+    private final int safetyMargin;
+
+    public AutopilotPolicy(final int safetyMargin) {
+	this.safetyMargin = safetyMargin;
+    }
+
+    public AutopilotPolicy() {
+	this(20);
+    }
+
+    public boolean shouldFlap(final Board board) {
+	final Bird bird = board.getBird();
+	if (!board.isRunning()) {
+	    return true;
+	}
+
+	// Aim for the gap of the first pipe that the bird has not passed yet
+	int lowestSafeY = board.getFloorPosY() - safetyMargin;
+	for (Pipe pipe : board.getPipes()) {
+	    if (pipe.getPosX() + pipe.getWidth() >= bird.getPosX()) {
+		final int bottomPipeStart = pipe.getPosY() + pipe.getHeight() + pipe.getGap() - pipe.getMushroom();
+		// A low gap can start below the floor, which is still the limit then
+		lowestSafeY = Math.min(lowestSafeY, bottomPipeStart - safetyMargin);
+		break;
+	    }
+	}
+	return bird.getSpeed() >= 0 && FixedPoint.fromPixels(bird.getPosY()) + bird.getSpeed() > FixedPoint.fromPixels(lowestSafeY);
+    }
+}
@@ -0,0 +1,336 @@
+package se.liu.kevma271.flappybird.headless;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.GameSettings;
+import se.liu.kevma271.flappybird.course.GeneratedCourse;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Command-line tool that plays many headless games for every point of a
+ * grid of game settings and writes how they went to CSV files.
+ * <p>
+ *     Every point of the grid is played by each of the reference bots,
+ *     autopilots with different safety margins, on the same seeds.
+ *     Since all points see the same courses, the differences between
+ *     them come from the settings and not from luck. The points are
+ *     played in parallel, one task per point and bot, each with a board
+ *     of its own that is reset for every game. Grids with fast pipes
+ *     should be played with swept collisions, so that no pipe can pass
+ *     through a bird between two ticks.
+ * </p>
+ * <p>
+ *     The output directory gets three files:
+ * </p>
+ * <ul>
+ *     <li>{@code summary.csv} with the settings of every point and the
+ *     score and length of its games per bot.</li>
+ *     <li>{@code survival.csv} with the share of games still going at
+ *     every step of the survival curve.</li>
+ *     <li>{@code scores.csv} with the number of games per final score.</li>
+ * </ul>
+ */
+public class DifficultySweep {
+    private static final int DEFAULT_GAMES = 1000;
+    private static final long DEFAULT_MAX_TICKS = 60L * 60 * 5;
+    private static final int DEFAULT_SURVIVAL_STEP = 60;
+    private static final String DEFAULT_POLICIES = "5,20,40";
+
+    private final List<GameSettings> points;
+    private final int[] safetyMargins;
+    private final int games;
+    private final long maxTicks;
+    private final int survivalStep;
+
+    /**
+     * Creates a sweep.
+     *
+     * @param points        The settings to play.
+     * @param safetyMargins The safety margin of every reference bot.
+     * @param games         The number of games per point and bot.
+     * @param maxTicks      The longest a game is played, longer games
+     *                      are counted as survivors.
+     * @param survivalStep  The ticks between two points of the survival
+     *                      curves.
+     */
+    public DifficultySweep(final List<GameSettings> points, final int[] safetyMargins, final int games, final long maxTicks,
+			   final int survivalStep)
+    {
+	this.points = points;
+	this.safetyMargins = safetyMargins.clone();
+	this.games = games;
+	this.maxTicks = maxTicks;
+	this.survivalStep = survivalStep;
+    }
+
+    /**
+     * Returns every combination of the given parameter values. Settings
+     * that are not in the grid keep their default value.
+     *
+     * @param grid The values of every parameter to vary.
+     * @return The settings of every point of the grid.
+     */
+    public static List<GameSettings> expandGrid(final Map<SweepParameter, double[]> grid) {
+	List<GameSettings> points = List.of(GameSettings.DEFAULT);
+	for (Map.Entry<SweepParameter, double[]> entry : grid.entrySet()) {
+	    final List<GameSettings> expanded = new ArrayList<>(points.size() * entry.getValue().length);
+	    for (GameSettings point : points) {
+		for (double value : entry.getValue()) {
+		    expanded.add(entry.getKey().apply(point, value));
+		}
+	    }
+	    points = expanded;
+	}
+	return points;
+    }
+
+    /**
+     * Parses the values of a parameter, either listed as "1,2,3" or as a
+     * range "from:to:step" that includes both ends.
+     *
+     * @param values The values.
+     * @return The parsed values.
+     */
+    static double[] parseValues(final String values) {
+	final String[] range = values.split(":");
+	if (range.length == 3) {
+	    final double from = Double.parseDouble(range[0]);
+	    final double to = Double.parseDouble(range[1]);
+	    final double step = Double.parseDouble(range[2]);
+	    if (step <= 0 || to < from) {
+		throw new IllegalArgumentException("Empty range " + values);
+	    }
+	    // The small slack keeps the last value when the step does not add up exactly
+	    final int count = (int) Math.floor((to - from) / step + 1.0e-9) + 1;
+	    final double[] parsed = new double[count];
+	    for (int i = 0; i < count; i++) {
+		parsed[i] = from + i * step;
+	    }
+	    return parsed;
+	}
+	return Arrays.stream(values.split(",")).mapToDouble(Double::parseDouble).toArray();
+    }
+
+    /**
+     * Plays all points and writes the results as they become ready.
+     *
+     * @param directory The directory of the CSV files.
+     * @param workers   The threads to play on.
+     * @return The number of games played.
+     * @throws IOException If a file can not be written.
+     */
+    public long run(final Path directory, final ExecutorService workers)
+	    throws IOException, InterruptedException, ExecutionException
+    {
+	final List<Future<Result>> results = new ArrayList<>(points.size() * safetyMargins.length);
+	for (GameSettings point : points) {
+	    for (int margin : safetyMargins) {
+		results.add(workers.submit(() -> play(point, margin)));
+	    }
+	}
+
+	Files.createDirectories(directory);
+	long played = 0;
+	try (BufferedWriter summary = Files.newBufferedWriter(directory.resolve("summary.csv"), StandardCharsets.UTF_8);
+	     BufferedWriter survival = Files.newBufferedWriter(directory.resolve("survival.csv"), StandardCharsets.UTF_8);
+	     BufferedWriter scores = Files.newBufferedWriter(directory.resolve("scores.csv"), StandardCharsets.UTF_8)) {
+	    summary.write("point");
+	    for (SweepParameter parameter : SweepParameter.values()) {
+		summary.write("," + parameter.getName());
+	    }
+	    summary.write(",policy,games,mean_score,p50_score,p90_score,max_score,mean_ticks,survived\n");
+	    survival.write("point,policy,tick,alive\n");
+	    scores.write("point,policy,score,games\n");
+
+	    for (int i = 0; i < results.size(); i++) {
+		final int point = i / safetyMargins.length;
+		final Result result = results.get(i).get();
+		final String policy = "autopilot-" + result.safetyMargin;
+		summary.write(String.valueOf(point));
+		for (SweepParameter parameter : SweepParameter.values()) {
+		    summary.write("," + formatValue(parameter.read(points.get(point))));
+		}
+		summary.write(String.format(Locale.ROOT, ",%s,%d,%.3f,%d,%d,%d,%.1f,%.4f%n", policy, games,
+					    (double) result.totalScore / games, result.getScorePercentile(0.5), result.getScorePercentile(0.9),
+					    result.getMaxScore(), (double) result.totalTicks / games, (double) result.survivors / games));
+
+		long alive = games;
+		for (int step = 0; step < result.deathsPerStep.length; step++) {
+		    survival.write(String.format(Locale.ROOT, "%d,%s,%d,%.4f%n", point, policy, (long) step * survivalStep,
+						 (double) alive / games));
+		    alive -= result.deathsPerStep[step];
+		}
+		survival.write(String.format(Locale.ROOT, "%d,%s,%d,%.4f%n", point, policy, maxTicks, (double) alive / games));
+
+		for (int score = 0; score < result.scoreCounts.length; score++) {
+		    if (result.scoreCounts[score] > 0) {
+			scores.write(point + "," + policy + "," + score + "," + result.scoreCounts[score] + "\n");
+		    }
+		}
+		played += games;
+	    }
+	}
+	return played;
+    }
+
+    /**
+     * Writes whole values without decimals, so that the columns read as
+     * they were given on the command line.
+     */
+    private static String formatValue(final double value) {
+	return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    /**
+     * Plays all games of one point with one bot.
+     */
+    private Result play(final GameSettings settings, final int safetyMargin) {
+	final Result result = new Result(safetyMargin, (int) ((maxTicks + survivalStep - 1) / survivalStep));
+	final Board board = new Board(new Bird(), 0, new GeneratedCourse(0), settings);
+	final AutopilotPolicy policy = new AutopilotPolicy(safetyMargin);
+	for (int seed = 0; seed < games; seed++) {
+	    board.reset(seed);
+	    new HeadlessGame(board, policy).run(maxTicks);
+	    result.add(board.getScore(), board.getTickCount(), board.isGameOver());
+	}
+	return result;
+    }
+
+    /**
+     * The games of one point played by one bot.
+     */
+    private final class Result {
+	private final int safetyMargin;
+	private final long[] deathsPerStep;
+	private long[] scoreCounts = new long[64];
+	private long totalScore = 0;
+	private long totalTicks = 0;
+	private long survivors = 0;
+
+	private Result(final int safetyMargin, final int steps) {
+	    this.safetyMargin = safetyMargin;
+	    this.deathsPerStep = new long[steps];
+	}
+
+	private void add(final int score, final long ticks, final boolean over) {
+	    if (score >= scoreCounts.length) {
+		scoreCounts = Arrays.copyOf(scoreCounts, Math.max(score + 1, scoreCounts.length * 2));
+	    }
+	    scoreCounts[score] += 1;
+	    totalScore += score;
+	    totalTicks += ticks;
+	    if (over) {
+		deathsPerStep[(int) Math.min(ticks / survivalStep, deathsPerStep.length - 1)] += 1;
+	    } else {
+		survivors += 1;
+	    }
+	}
+
+	private int getScorePercentile(final double fraction) {
+	    final long rank = (long) Math.ceil(fraction * games);
+	    long seen = 0;
+	    for (int score = 0; score < scoreCounts.length; score++) {
+		seen += scoreCounts[score];
+		if (seen >= rank) {
+		    return score;
+		}
+	    }
+	    return scoreCounts.length - 1;
+	}
+
+	private int getMaxScore() {
+	    for (int score = scoreCounts.length - 1; score > 0; score--) {
+		if (scoreCounts[score] > 0) {
+		    return score;
+		}
+	    }
+	    return 0;
+	}
+    }
+
+    /**
+     * Runs a sweep from the command line, for example
+     * {@code -g gap=100:180:20 -g speed=3,4,5,6 -n 2000}.
+     *
+     * @param args Command-line arguments, see the help text.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+	final StringBuilder names = new StringBuilder();
+	for (SweepParameter parameter : SweepParameter.values()) {
+	    names.append(names.length() == 0 ? "" : ", ").append(parameter.getName());
+	}
+	final Options options = new Options();
+	options.addOption(Option.builder("g").longOpt("grid").hasArgs()
+			      .desc("values of a parameter such as gap=100:180:20 or speed=4,5,6, one of " + names).build());
+	options.addOption("p", "policies", true, "safety margins of the autopilot bots (default " + DEFAULT_POLICIES + ")");
+	options.addOption("n", "games", true, "games per point and bot (default " + DEFAULT_GAMES + ")");
+	options.addOption("m", "max-ticks", true, "longest game in ticks (default " + DEFAULT_MAX_TICKS + ")");
+	options.addOption("s", "step", true, "ticks between survival curve points (default " + DEFAULT_SURVIVAL_STEP + ")");
+	options.addOption("o", "output", true, "directory of the CSV files (default sweep)");
+	options.addOption("t", "threads", true, "threads to play on (default: one per core)");
+	options.addOption("w", "swept", false, "test collisions over the whole motion of a tick, for fast pipes");
+
+	final CommandLine line;
+	final Map<SweepParameter, double[]> grid = new EnumMap<>(SweepParameter.class);
+	final List<GameSettings> points;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	    if (line.hasOption("grid")) {
+		for (String values : line.getOptionValues("grid")) {
+		    final String[] parts = values.split("=", 2);
+		    if (parts.length != 2) {
+			throw new ParseException("Expected parameter=values, got " + values);
+		    }
+		    grid.put(SweepParameter.fromName(parts[0].trim()), parseValues(parts[1].trim()));
+		}
+	    }
+	    final boolean swept = line.hasOption("swept");
+	    points = expandGrid(grid).stream().map(point -> point.withSweptCollisions(swept)).toList();
+	} catch (ParseException | IllegalArgumentException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("DifficultySweep", options);
+	    return;
+	}
+	final int[] margins = Arrays.stream(line.getOptionValue("policies", DEFAULT_POLICIES).split(","))
+		.mapToInt(margin -> Integer.parseInt(margin.trim())).toArray();
+	final int games = Integer.parseInt(line.getOptionValue("games", String.valueOf(DEFAULT_GAMES)));
+	final long maxTicks = Long.parseLong(line.getOptionValue("max-ticks", String.valueOf(DEFAULT_MAX_TICKS)));
+	final int step = Integer.parseInt(line.getOptionValue("step", String.valueOf(DEFAULT_SURVIVAL_STEP)));
+	final Path directory = Paths.get(line.getOptionValue("output", "sweep"));
+	final int threads = Integer.parseInt(line.getOptionValue("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+	final ExecutorService workers = Executors.newFixedThreadPool(threads);
+	final long start = System.nanoTime();
+	final long played;
+	try {
+	    played = new DifficultySweep(points, margins, games, maxTicks, step).run(directory, workers);
+	} finally {
+	    workers.shutdownNow();
+	}
+	final double seconds = (System.nanoTime() - start) / 1.0e9;
+	System.out.printf("Played %,d games at %d points with %d bots in %.1f s (%,.0f games/s) on %d threads, written to %s%n", played,
+			  points.size(), margins.length, seconds, played / seconds, threads, directory);
+    }
+}
@@ -0,0 +1,18 @@
+package se.liu.kevma271.flappybird.headless;
+
+import se.liu.kevma271.flappybird.Board;
+
+/**
+ * Interface for everything that plays the game without a player, such
+ * as replays of recorded games and bots.
+ */
+public interface FlapPolicy {
+
+    /**
+     * Decides whether the bird should flap before the next tick.
+     *
+     * @param board The board in its current state.
+     * @return True if the bird should flap.
+     */
+    boolean shouldFlap(Board board);
+}
@@ -0,0 +1,68 @@
+package se.liu.kevma271.flappybird.headless;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.Direction;
+
+/**
+ * Plays a game on a board without any window, as fast as possible.
+ * <p>
+ *     Every frame the policy decides whether to flap, after which the
+ *     board is ticked in the same way as in the game loop.
+ * </p>
+ */
+public class HeadlessGame {
+    private final Board board;
+    private final FlapPolicy policy;
+    private long frames = 0;
+    private long flaps = 0;
+
+    public HeadlessGame(final Board board, final FlapPolicy policy) {
+	this.board = board;
+	this.policy = policy;
+    }
+
+    /**
+     * Plays one frame of the game.
+     *
+     * @return False if the game is over, otherwise true.
+     */
+    public boolean step() {
+	if (board.isGameOver()) {
+	    return false;
+	}
+	if (policy.shouldFlap(board)) {
+	    board.moveBird(Direction.UP);
+	    flaps += 1;
+	}
+	if (board.isRunning()) {
+	    board.tick();
+	}
+	frames += 1;
+	return !board.isGameOver();
+    }
+
+    /**
+     * Plays until the game is over or the given number of frames have
+     * been played, whichever comes first.
+     *
+     * @param maxFrames The maximum number of frames to play.
+     * @return The number of frames played.
+     */
+    public long run(final long maxFrames) {
+	final long start = frames;
+	while (frames - start < maxFrames && step()) {
+	    // Keep playing
+	}
+	return frames - start;
+    }
+
+    public Board getBoard() {
+	return board;
+    }
+    public long getFrames() {
+	return frames;
+    }
+    public long getFlaps() {
+	return flaps;
+    }
+}
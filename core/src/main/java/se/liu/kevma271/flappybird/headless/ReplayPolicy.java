@@ -0,0 +1,44 @@
+package se.liu.kevma271.flappybird.headless;
+
+import se.liu.kevma271.flappybird.Board;
+
+import java.util.Arrays;
+
+/**
+ * Replays a recorded game from the ticks on which the player flapped.
+ * <p>
+ *     A flap on tick t means that the bird flapped when the tick count
+ *     of the board was t, right before the board was ticked. Together
+ *     with the seed of the board this reproduces the game exactly.
+ * </p>
+ */
+public class ReplayPolicy implements FlapPolicy {
+    private final long[] flapTicks;
+    private int next = 0;
+
+    /**
+     * Creates a replay of the given flaps.
+     *
+     * @param flapTicks The ticks the player flapped on, in any order.
+     *                  Several flaps on the same tick count as one.
+     */
+    public ReplayPolicy(final long[] flapTicks) {
+	this.flapTicks = flapTicks.clone();
+	Arrays.sort(this.flapTicks);
+    }
+
+    public boolean shouldFlap(final Board board) {
+	final long tick = board.getTickCount();
+	while (next < flapTicks.length && flapTicks[next] < tick) {
+	    next += 1;
+	}
+	if (next < flapTicks.length && flapTicks[next] == tick) {
+	    // Skip duplicates of this tick as well
+	    while (next < flapTicks.length && flapTicks[next] == tick) {
+		next += 1;
+	    }
+	    return true;
+	}
+	return false;
+    }
+}
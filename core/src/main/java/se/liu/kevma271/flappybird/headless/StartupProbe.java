@@ -0,0 +1,73 @@
+package se.liu.kevma271.flappybird.headless;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The smallest useful run of a headless deployment, used to measure how
+ * fast it starts.
+ * <p>
+ *     The probe plays one game with the autopilot and exits, so that the
+ *     time of the whole process is almost only the time to start the
+ *     JVM and load the classes of the game. The startup report of the
+ *     build runs it on the full JDK and on the linked image and compares
+ *     them. Before exiting the probe prints how much memory the process
+ *     uses, where the operating system tells.
+ * </p>
+ * <p>
+ *     The game may last at most a minute of play. If the autopilot is
+ *     still alive by then, the probe reports a timeout and exits with an
+ *     error, so that a change to the game can not make the startup
+ *     report run for ever.
+ * </p>
+ */
+public final class StartupProbe {
+    private static final Path PROCESS_STATUS = Paths.get("/proc/self/status");
+
+    /**
+     * One minute of play at 60 ticks per second.
+     */
+    private static final long MAX_TICKS = 60L * 60;
+
+    private StartupProbe() {}
+
+    /**
+     * Returns the resident memory of this process, which is only known
+     * on Linux.
+     *
+     * @return The resident memory in kilobytes, or -1 if not known.
+     */
+    public static long getResidentKilobytes() {
+	try {
+	    for (String line : Files.readAllLines(PROCESS_STATUS)) {
+		if (line.startsWith("VmRSS:")) {
+		    return Long.parseLong(line.replaceAll("\\D", ""));
+		}
+	    }
+	} catch (IOException | NumberFormatException ignored) {
+	    // Not Linux, the memory is reported as unknown
+	}
+	return -1;
+    }
+
+    /**
+     * Plays one game and prints its score and the memory used.
+     *
+     * @param args Command-line arguments (unused).
+     */
+    public static void main(String[] args) {
+	final Board board = new Board(new Bird(), 1);
+	new HeadlessGame(board, new AutopilotPolicy()).run(MAX_TICKS);
+	if (!board.isGameOver()) {
+	    System.err.printf("Timed out: the game was still going after %d ticks%n", board.getTickCount());
+	    System.exit(1);
+	}
+	System.out.printf("Score %d after %d ticks, resident memory %d kB%n", board.getScore(), board.getTickCount(),
+			  getResidentKilobytes());
+    }
+}
@@ -0,0 +1,119 @@
+package se.liu.kevma271.flappybird.headless;
+
+import se.liu.kevma271.flappybird.GameSettings;
+import se.liu.kevma271.flappybird.objects.FixedPoint;
+
+/**
+ * A game setting that the difficulty sweep can vary.
+ * <p>
+ *     Values are given in the units a person thinks in, whole pixels
+ *     for distances, pixels per tick for speeds and positive numbers
+ *     for speeds that point left or up. The pipes move a whole number
+ *     of pixels every tick, so their speed is rounded.
+ * </p>
+ */
+public enum SweepParameter {
+    GAP("gap") {
+	GameSettings apply(final GameSettings settings, final double value) {
+	    return settings.withPipeGap((int) Math.round(value));
+	}
+
+	double read(final GameSettings settings) {
+	    return settings.getPipeGap();
+	}
+    },
+    MARGIN("margin") {
+	GameSettings apply(final GameSettings settings, final double value) {
+	    return settings.withPipeMargin((int) Math.round(value));
+	}
+
+	double read(final GameSettings settings) {
+	    return settings.getPipeMargin();
+	}
+    },
+    SPEED("speed") {
+	GameSettings apply(final GameSettings settings, final double value) {
+	    return settings.withPipeSpeed(-FixedPoint.fromPixels((int) Math.round(value)));
+	}
+
+	double read(final GameSettings settings) {
+	    return -FixedPoint.toDouble(settings.getPipeSpeed());
+	}
+    },
+    FLAP("flap") {
+	GameSettings apply(final GameSettings settings, final double value) {
+	    return settings.withFlapImpulse((int) -Math.round(value * FixedPoint.ONE));
+	}
+
+	double read(final GameSettings settings) {
+	    return -FixedPoint.toDouble(settings.getFlapImpulse());
+	}
+    },
+    GRAVITY("gravity") {
+	GameSettings apply(final GameSettings settings, final double value) {
+	    return settings.withGravity((int) Math.round(value * FixedPoint.ONE));
+	}
+
+	double read(final GameSettings settings) {
+	    return FixedPoint.toDouble(settings.getGravity());
+	}
+    },
+    BIRD_SUPER("bird-super") {
+	GameSettings apply(final GameSettings settings, final double value) {
+	    return settings.withBirdSuperOutcomes((int) Math.round(value));
+	}
+
+	double read(final GameSettings settings) {
+	    return settings.getBirdSuperOutcomes();
+	}
+    },
+    GRAVITY_SUPER("gravity-super") {
+	GameSettings apply(final GameSettings settings, final double value) {
+	    return settings.withGravitySuperOutcomes((int) Math.round(value));
+	}
+
+	double read(final GameSettings settings) {
+	    return settings.getGravitySuperOutcomes();
+	}
+    };
+
+    private final String name;
+
+    SweepParameter(final String name) {
+	this.name = name;
+    }
+
+    /**
+     * Returns the name of the parameter on the command line and in the
+     * CSV files.
+     */
+    public String getName() {
+	return name;
+    }
+
+    /**
+     * Returns a copy of the settings with this parameter changed.
+     */
+    abstract GameSettings apply(GameSettings settings, double value);
+
+    /**
+     * Returns the value of this parameter in the settings.
+     */
+    abstract double read(GameSettings settings);
+
+    /**
+     * Finds a parameter by its name.
+     *
+     * @param name The name, such as "gap".
+     * @return The parameter.
+     * @throws IllegalArgumentException If there is no such parameter.
+     */
+    public static SweepParameter fromName(final String name) {
+	for (SweepParameter parameter : values()) {
+	    if (parameter.name.equals(name)) {
+		return parameter;
+	    }
+	}
+	throw new IllegalArgumentException("Unknown parameter " + name);
+    }
+}
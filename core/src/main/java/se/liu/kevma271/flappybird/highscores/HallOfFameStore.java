@@ -0,0 +1,178 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The hall of fame file, shared by several games on the same machine.
+ * <p>
+ *     Games never write their own list over the file. Instead each
+ *     update takes an exclusive lock from the operating system, reads
+ *     the scores on disk, merges the new scores into them and writes the
+ *     result, so that no game loses the scores of another. The lock is
+ *     taken on a separate lock file next to the hall of fame, since the
+ *     hall of fame itself is replaced by an atomic move and a lock on
+ *     the replaced file would not stop anyone.
+ * </p>
+ * <p>
+ *     Because of the atomic move, the file always holds a whole list,
+ *     and reading it does not need the lock. The lock is only held while
+ *     the few entries are read, merged and written.
+ * </p>
+ */
+public class HallOfFameStore {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Highest score first. Sorting is stable, so of equal scores the one
+     * that was there first stays first.
+     */
+    private static final Comparator<Highscore> BEST_FIRST = Comparator.comparingInt(Highscore::getScore).reversed();
+
+    private final Path file;
+    private final Path lockFile;
+    private final int capacity;
+    private long lastWaitNanos = 0;
+    private long lastHoldNanos = 0;
+
+    /**
+     * Creates a store for the given file.
+     *
+     * @param file     The hall of fame file.
+     * @param capacity How many of the best scores are kept.
+     */
+    public HallOfFameStore(final Path file, final int capacity) {
+	if (capacity <= 0) {
+	    throw new IllegalArgumentException("Bad hall of fame capacity " + capacity);
+	}
+	this.file = file;
+	this.lockFile = file.resolveSibling(file.getFileName() + ".lock");
+	this.capacity = capacity;
+    }
+
+    /**
+     * Reads the scores in the file, best first.
+     *
+     * @return The scores, or an empty list if there is no file yet.
+     * @throws IOException If the file can not be read or is not a list of
+     * scores.
+     */
+    public List<Highscore> load() throws IOException {
+	final List<Highscore> scores = new ArrayList<>();
+	try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+	    final List<Highscore> read = GSON.fromJson(reader, new TypeToken<ArrayList<Highscore>>()
+	    {
+	    }.getType());
+	    if (read != null) {
+		for (Highscore highscore : read) {
+		    if (highscore != null) {
+			scores.add(highscore);
+		    }
+		}
+	    }
+	} catch (NoSuchFileException e) {
+	    return scores;
+	} catch (JsonParseException e) {
+	    throw new IOException("Not a hall of fame: " + file, e);
+	}
+	scores.sort(BEST_FIRST);
+	return scores;
+    }
+
+    /**
+     * Adds scores to the file, keeping the best ones, while holding the
+     * lock.
+     *
+     * @param added The new scores. Scores already in the file must not
+     *              be added again, since they would be kept twice.
+     * @return All scores in the file after the update, best first.
+     * @throws IOException If the file can not be locked, read or written.
+     */
+    public List<Highscore> update(Collection<Highscore> added) throws IOException {
+	Files.createDirectories(lockFile.toAbsolutePath().getParent());
+	final long start = System.nanoTime();
+	// File locks are held by the whole process, so the threads of one process take turns first
+	synchronized (HallOfFameStore.class) {
+	    try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		 FileLock ignored = channel.lock())
+	    {
+		final long locked = System.nanoTime();
+		lastWaitNanos = locked - start;
+		try {
+		    final List<Highscore> merged = load();
+		    merged.addAll(added);
+		    merged.sort(BEST_FIRST);
+		    while (merged.size() > capacity) {
+			merged.removeLast();
+		    }
+		    write(merged);
+		    return merged;
+		} finally {
+		    lastHoldNanos = System.nanoTime() - locked;
+		}
+	    }
+	}
+    }
+
+    /**
+     * Writes the scores to a temporary file, forces it to the disk and
+     * moves it over the hall of fame, so that readers and a crash either
+     * see the old list or the new one.
+     */
+    private void write(List<Highscore> scores) throws IOException {
+	// Only one thread of each process writes at a time, so the process id makes the name unique
+	final Path temporary = file.resolveSibling(file.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+	try {
+	    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+							StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+		final Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+		GSON.toJson(scores, writer);
+		writer.flush();
+		channel.force(true);
+	    }
+	    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	} finally {
+	    Files.deleteIfExists(temporary);
+	}
+    }
+
+    /**
+     * Returns how long the last update waited for the lock.
+     */
+    public long getLastWaitNanos() {
+	return lastWaitNanos;
+    }
+
+    /**
+     * Returns how long the last update held the lock.
+     */
+    public long getLastHoldNanos() {
+	return lastHoldNanos;
+    }
+
+    public Path getFile() {
+	return file;
+    }
+    public int getCapacity() {
+	return capacity;
+    }
+}
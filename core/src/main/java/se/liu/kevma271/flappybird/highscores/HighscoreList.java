@@ -0,0 +1,146 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The HighscoreList class manages and manipulates a list of high scores in the Flappy Bird game.
+ * It provides methods for adding new high scores, retrieving the current highest score,
+ * and saving and loading high scores to and from a JSON file.
+ */
+public class HighscoreList {
+    /**
+     * The hall of fame, which is shared by all games on the computer and
+     * holds the best score of them all.
+     */
+    private static final Path FILE_PATH = Paths.get("resources", "halloffame.json");
+    private static final int HALL_OF_FAME_SIZE = 1;
+
+    /**
+     * The file holding the scores of all games, for ranking.
+     */
+    private static final Path RANKS_FILE_PATH = Paths.get("resources", "scoreranks.bin");
+
+    private Highscore highscore = null;
+
+    private List<Highscore> highscores = new ArrayList<>();
+
+    /**
+     * The highscores added since the hall of fame was last saved, which
+     * are merged into the file when it is saved.
+     */
+    private final List<Highscore> unsavedHighscores = new ArrayList<>();
+
+    private final HallOfFameStore hallOfFame = new HallOfFameStore(FILE_PATH, HALL_OF_FAME_SIZE);
+
+    private ScoreRankIndex ranks = new ScoreRankIndex();
+
+    /**
+     * Checks if given highscore is addable to the highscore-list.
+     *
+     * @param highscore The given highscore to check.
+     * @return Returns true if it is the highest score, otherwise false.
+     */
+    public boolean isThereNewHighscore(Highscore highscore) {
+	if (highscores.isEmpty()) {
+	    return true;
+	} else if (highscores.getFirst().getScore() < highscore.getScore()) {
+	    return true;
+	}
+	this.highscore = highscores.getFirst();
+	return false;
+    }
+
+    /**
+     * Adds a new high score to the list.
+     * If the list is not empty than the first highscore is removed.
+     * Then the new highscore is added to the highscore-list.
+     *
+     * @param highscore The highscore to be added.
+     */
+    public void addHighscore(Highscore highscore) {
+	if (!highscores.isEmpty()) {
+	    highscores.remove(0);
+	}
+	this.highscore = highscore;
+	highscores.add(highscore);
+	unsavedHighscores.add(highscore);
+    }
+
+    /**
+     * Adds a score to the ranking of all games played. Scores above
+     * {@link ScoreRankIndex#MAX_SCORE} are ranked as that score.
+     *
+     * @param score The score of a finished game.
+     * @return The rank of the score among all games, 1 being the best.
+     */
+    public long addRankedScore(int score) {
+	final int rankedScore = Math.min(score, ScoreRankIndex.MAX_SCORE);
+	ranks.insert(rankedScore);
+	return ranks.rankOf(rankedScore);
+    }
+
+    public long getRankedScoreCount() {
+	return ranks.size();
+    }
+
+    public String getHighscore() {
+	return "HOF: " + highscore.getScore() + "       " + highscore.getUsername();
+    }
+
+    public void setHighscores(final List<Highscore> highscores) {
+	this.highscores = highscores;
+    }
+
+
+    /**
+     * Retrieves old high scores from the hall of fame.
+     *
+     * @return The list of old highscores, best first, which is empty
+     * before the first highscore is saved.
+     * @throws FileNotFoundException If the file can not be opened.
+     * @throws IOException           If an I/O error occurs.
+     */
+    public List<Highscore> getOldScores() throws FileNotFoundException, IOException {
+	return hallOfFame.load();
+    }
+
+    /**
+     * Loads the ranking of all games played, if there is one.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void loadRanks() throws IOException {
+	if (Files.exists(RANKS_FILE_PATH)) {
+	    ranks.load(RANKS_FILE_PATH);
+	}
+    }
+
+    /**
+     * Saves the ranking of all games played.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void saveRanks() throws IOException {
+	ranks.save(RANKS_FILE_PATH);
+    }
+
+    /**
+     * Merges the new highscores into the hall of fame JSON file, and
+     * takes over the highscores that other games have saved there.
+     *
+     * @throws IOException If an I/O error occurs.
+     */
+    public void saveScoresAsJson() throws IOException {
+	highscores = new ArrayList<>(hallOfFame.update(unsavedHighscores));
+	unsavedHighscores.clear();
+	if (!highscores.isEmpty()) {
+	    highscore = highscores.getFirst();
+	}
+    }
+}
@@ -0,0 +1,83 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The score history of one player, kept in constant memory.
+ * <p>
+ *     The number of games, the best score and the sum of all scores are
+ *     exact. Percentiles are estimated by a {@link TDigest}, so a
+ *     player's statistics take up the same space after a million games
+ *     as after ten.
+ * </p>
+ */
+public class PlayerStatistics {
+    private long gamesPlayed = 0;
+    private int bestScore = 0;
+    private long scoreSum = 0;
+    private TDigest scores = new TDigest();
+
+    /**
+     * Adds the score of a finished game.
+     *
+     * @param score The score of the game.
+     */
+    public void addScore(final int score) {
+	gamesPlayed += 1;
+	bestScore = Math.max(bestScore, score);
+	scoreSum += score;
+	scores.add(score);
+    }
+
+    /**
+     * Adds the games of other statistics of the same player, for
+     * example from another machine.
+     *
+     * @param other The statistics to merge in, which are left unchanged.
+     */
+    public void merge(final PlayerStatistics other) {
+	gamesPlayed += other.gamesPlayed;
+	bestScore = Math.max(bestScore, other.bestScore);
+	scoreSum += other.scoreSum;
+	scores.merge(other.scores);
+    }
+
+    public long getGamesPlayed() {
+	return gamesPlayed;
+    }
+    public int getBestScore() {
+	return bestScore;
+    }
+    public double getMeanScore() {
+	return gamesPlayed == 0 ? 0 : (double) scoreSum / gamesPlayed;
+    }
+
+    /**
+     * Estimates the score that the given fraction of the games did not
+     * beat.
+     *
+     * @param fraction The fraction between 0 and 1, such as 0.9 for p90.
+     * @return The estimated score, or 0 if no games have been played.
+     */
+    public int getPercentile(final double fraction) {
+	return gamesPlayed == 0 ? 0 : (int) Math.round(scores.quantile(fraction));
+    }
+
+    void write(final DataOutput out) throws IOException {
+	out.writeLong(gamesPlayed);
+	out.writeInt(bestScore);
+	out.writeLong(scoreSum);
+	scores.write(out);
+    }
+
+    static PlayerStatistics read(final DataInput in) throws IOException {
+	final PlayerStatistics statistics = new PlayerStatistics();
+	statistics.gamesPlayed = in.readLong();
+	statistics.bestScore = in.readInt();
+	statistics.scoreSum = in.readLong();
+	statistics.scores = TDigest.read(in);
+	return statistics;
+    }
+}
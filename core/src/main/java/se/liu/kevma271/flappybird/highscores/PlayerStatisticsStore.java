@@ -0,0 +1,137 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The statistics of every player, by username.
+ * <p>
+ *     Loading a saved store merges it into the current one instead of
+ *     replacing it, so the stores of several machines can be combined by
+ *     loading them one after the other and saving the result.
+ * </p>
+ */
+public class PlayerStatisticsStore {
+    /**
+     * The characters "FBPS" at the start of a saved store.
+     */
+    private static final int MAGIC = 0x46425053;
+    private static final int VERSION = 1;
+
+    private Map<String, PlayerStatistics> players = new TreeMap<>();
+
+    /**
+     * Adds the score of a finished game to a player's statistics.
+     *
+     * @param username The player.
+     * @param score    The score of the game.
+     * @return The updated statistics of the player.
+     */
+    public PlayerStatistics addScore(String username, int score) {
+	final PlayerStatistics statistics = players.computeIfAbsent(username, name -> new PlayerStatistics());
+	statistics.addScore(score);
+	return statistics;
+    }
+
+    /**
+     * Returns the statistics of a player, or null if the player has not
+     * played any games.
+     */
+    public PlayerStatistics getStatistics(String username) {
+	return players.get(username);
+    }
+
+    /**
+     * Adds all players of another store to this one.
+     *
+     * @param other The store to merge in, which is left unchanged.
+     */
+    public void merge(PlayerStatisticsStore other) {
+	for (Map.Entry<String, PlayerStatistics> entry : other.players.entrySet()) {
+	    players.computeIfAbsent(entry.getKey(), name -> new PlayerStatistics()).merge(entry.getValue());
+	}
+    }
+
+    public int getPlayerCount() {
+	return players.size();
+    }
+
+    /**
+     * Saves the store, replacing the file in one atomic move.
+     *
+     * @param file The file to save to.
+     * @throws IOException If the file could not be written.
+     */
+    public void save(Path file) throws IOException {
+	final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+	try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+	    out.writeInt(MAGIC);
+	    out.writeInt(VERSION);
+	    out.writeInt(players.size());
+	    for (Map.Entry<String, PlayerStatistics> entry : players.entrySet()) {
+		out.writeUTF(entry.getKey());
+		entry.getValue().write(out);
+	    }
+	}
+	Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Merges a saved store into this one.
+     *
+     * @param file The file to load.
+     * @throws IOException If the file could not be read.
+     */
+    public void load(Path file) throws IOException {
+	final PlayerStatisticsStore loaded = new PlayerStatisticsStore();
+	try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+	    if (in.readInt() != MAGIC) {
+		throw new IOException("Not a player statistics store: " + file);
+	    }
+	    final int version = in.readInt();
+	    if (version != VERSION) {
+		throw new IOException("Unsupported player statistics version " + version);
+	    }
+	    final int playerCount = in.readInt();
+	    for (int i = 0; i < playerCount; i++) {
+		final String username = in.readUTF();
+		loaded.players.put(username, PlayerStatistics.read(in));
+	    }
+	}
+	merge(loaded);
+    }
+
+    /**
+     * Merges the stores of several machines into one file.
+     *
+     * @param args The file to write followed by the files to merge.
+     */
+    public static void main(String[] args) throws IOException {
+	if (args.length < 2) {
+	    System.err.println("Usage: PlayerStatisticsStore <output> <input>...");
+	    return;
+	}
+	final PlayerStatisticsStore store = new PlayerStatisticsStore();
+	for (int i = 1; i < args.length; i++) {
+	    store.load(Paths.get(args[i]));
+	}
+	store.save(Paths.get(args[0]));
+
+	System.out.printf("%-20s %8s %6s %8s %6s %6s %6s%n", "player", "games", "best", "mean", "p50", "p90", "p99");
+	for (Map.Entry<String, PlayerStatistics> entry : store.players.entrySet()) {
+	    final PlayerStatistics statistics = entry.getValue();
+	    System.out.printf("%-20s %8d %6d %8.2f %6d %6d %6d%n", entry.getKey(), statistics.getGamesPlayed(), statistics.getBestScore(),
+			      statistics.getMeanScore(), statistics.getPercentile(0.5), statistics.getPercentile(0.9),
+			      statistics.getPercentile(0.99));
+	}
+    }
+}
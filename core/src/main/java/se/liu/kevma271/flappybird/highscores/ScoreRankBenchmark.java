@@ -0,0 +1,71 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import se.liu.kevma271.flappybird.GameRandom;
+
+/**
+ * Measures the score rank index on a leaderboard with millions of
+ * entries.
+ * <p>
+ *     Scores are drawn from a long-tailed distribution like the scores
+ *     of real games. Every operation is timed over many calls and the
+ *     results are summed so that the work can not be optimized away.
+ * </p>
+ */
+public final class ScoreRankBenchmark {
+    private static final int DEFAULT_ENTRIES = 3_000_000;
+    private static final int QUERIES = 10_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int ROUNDS = 3;
+
+    private ScoreRankBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The number of entries, optional.
+     */
+    public static void main(String[] args) {
+	final int entries = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ENTRIES;
+	final GameRandom random = new GameRandom(1);
+	final int[] scores = new int[entries];
+	for (int i = 0; i < entries; i++) {
+	    scores[i] = (int) (-Math.log(1 - random.nextDouble()) * 15);
+	}
+	final int[] queries = new int[QUERIES];
+	for (int i = 0; i < QUERIES; i++) {
+	    queries[i] = (int) (-Math.log(1 - random.nextDouble()) * 15);
+	}
+
+	for (int round = 1; round <= ROUNDS; round++) {
+	    final ScoreRankIndex index = new ScoreRankIndex();
+	    long start = System.nanoTime();
+	    for (int score : scores) {
+		index.insert(score);
+	    }
+	    final double insertNanos = (double) (System.nanoTime() - start) / entries;
+
+	    long checksum = 0;
+	    start = System.nanoTime();
+	    for (int score : queries) {
+		checksum += index.rankOf(score);
+	    }
+	    final double rankNanos = (double) (System.nanoTime() - start) / QUERIES;
+
+	    start = System.nanoTime();
+	    for (int i = 0; i < QUERIES; i++) {
+		checksum += index.scoreAt(1 + (queries[i] * 7919L + i) % entries);
+	    }
+	    final double scoreAtNanos = (double) (System.nanoTime() - start) / QUERIES;
+
+	    final int pages = QUERIES / PAGE_SIZE;
+	    start = System.nanoTime();
+	    for (int i = 0; i < pages; i++) {
+		checksum += index.getPage(1 + (queries[i] * 7919L + i) % entries, PAGE_SIZE).length;
+	    }
+	    final double pageNanos = (double) (System.nanoTime() - start) / pages;
+
+	    System.out.printf("Round %d, %d entries: insert %.1f ns, rankOf %.1f ns, scoreAt %.1f ns, page of %d %.1f ns (checksum %d)%n",
+			      round, index.size(), insertNanos, rankNanos, scoreAtNanos, PAGE_SIZE, pageNanos, checksum);
+	}
+    }
+}
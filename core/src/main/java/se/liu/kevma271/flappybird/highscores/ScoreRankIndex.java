@@ -0,0 +1,259 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Index over every score ever played that answers rank queries in
+ * logarithmic time.
+ * <p>
+ *     The index is a Fenwick tree with one bucket per score, so it stores
+ *     how many times each score has been reached rather than the
+ *     entries themselves. Inserting a score, finding the rank of a score
+ *     and finding the score at a rank are all O(log m), where m is the
+ *     highest score, no matter how many games are in the index. The
+ *     tree doubles in size when a score does not fit, up to
+ *     {@link #MAX_SCORE}. Higher scores are rejected, since a bucket
+ *     per score would not fit in memory.
+ * </p>
+ * <p>
+ *     Ranks start at 1 for the highest score. Equal scores share a
+ *     rank, one below the number of higher scores.
+ * </p>
+ */
+public class ScoreRankIndex {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The highest score that the index holds. The tree then takes 16 MB,
+     * far more than any game reaches.
+     */
+    public static final int MAX_SCORE = (1 << 20) - 1;
+
+    /**
+     * The characters "FBRK" at the start of a saved index.
+     */
+    private static final int MAGIC = 0x4642524B;
+
+    /**
+     * Number of entries per score.
+     */
+    private long[] counts;
+
+    /**
+     * Fenwick tree over counts, where tree[i] holds the sum of the
+     * counts of the scores from i - lowbit(i) up to i - 1.
+     */
+    private long[] tree;
+    private long size = 0;
+
+    public ScoreRankIndex() {
+	counts = new long[DEFAULT_CAPACITY];
+	tree = new long[DEFAULT_CAPACITY + 1];
+    }
+
+    /**
+     * Adds one entry with the given score.
+     *
+     * @param score The score, from zero up to {@link #MAX_SCORE}.
+     */
+    public void insert(final int score) {
+	add(score, 1);
+    }
+
+    private void add(final int score, final long count) {
+	if (score < 0 || score > MAX_SCORE) {
+	    throw new IllegalArgumentException("Score out of range 0 to " + MAX_SCORE + ": " + score);
+	}
+	if (score >= counts.length) {
+	    grow(score + 1);
+	}
+	counts[score] += count;
+	for (int i = score + 1; i < tree.length; i += i & -i) {
+	    tree[i] += count;
+	}
+	size += count;
+    }
+
+    /**
+     * Makes room for scores below the given capacity and rebuilds the
+     * tree in linear time.
+     */
+    private void grow(final int capacity) {
+	long newCapacity = counts.length;
+	while (newCapacity < capacity) {
+	    newCapacity *= 2;
+	}
+	newCapacity = Math.min(newCapacity, MAX_SCORE + 1L);
+	counts = Arrays.copyOf(counts, (int) newCapacity);
+	tree = new long[(int) newCapacity + 1];
+	for (int i = 1; i < tree.length; i++) {
+	    tree[i] += counts[i - 1];
+	    final int parent = i + (i & -i);
+	    if (parent < tree.length) {
+		tree[parent] += tree[i];
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of entries with a score below the given one.
+     */
+    private long countBelow(final int score) {
+	long count = 0;
+	for (int i = Math.min(score, counts.length); i > 0; i -= i & -i) {
+	    count += tree[i];
+	}
+	return count;
+    }
+
+    /**
+     * Returns the rank that the given score has, or would have, among
+     * the entries in the index.
+     *
+     * @param score The score to rank.
+     * @return 1 plus the number of entries with a higher score.
+     */
+    public long rankOf(final int score) {
+	if (score < 0) {
+	    return size + 1;
+	}
+	if (score >= counts.length) {
+	    // No entry is that high, and score + 1 could overflow
+	    return 1;
+	}
+	return size - countBelow(score + 1) + 1;
+    }
+
+    /**
+     * Returns the score of the entry at a position, counting the
+     * highest score as position 1.
+     *
+     * @param position The position, between 1 and the size.
+     * @return The score at the position.
+     */
+    public int scoreAt(final long position) {
+	if (position < 1 || position > size) {
+	    throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+	}
+	// Find the lowest score with at least this many entries at or below it
+	long remaining = size - position + 1;
+	int index = 0;
+	for (int step = Integer.highestOneBit(counts.length); step > 0; step >>= 1) {
+	    final int next = index + step;
+	    if (next < tree.length && tree[next] < remaining) {
+		index = next;
+		remaining -= tree[next];
+	    }
+	}
+	return index;
+    }
+
+    /**
+     * Returns one page of the leaderboard.
+     *
+     * @param firstPosition The position of the first entry, counting the
+     *                      highest score as position 1.
+     * @param pageSize      The largest number of entries to return.
+     * @return The scores on the page, highest first.
+     */
+    public int[] getPage(final long firstPosition, final int pageSize) {
+	final int length = (int) Math.max(0, Math.min(pageSize, size - firstPosition + 1));
+	final int[] page = new int[length];
+	if (length == 0) {
+	    return page;
+	}
+	// Search once per distinct score on the page, so that gaps between scores are skipped in O(log m)
+	long position = firstPosition;
+	int filled = 0;
+	while (filled < length) {
+	    final int score = scoreAt(position);
+	    final long lastPosition = size - countBelow(score);
+	    final int end = (int) Math.min(length, filled + lastPosition - position + 1);
+	    Arrays.fill(page, filled, end, score);
+	    position += end - filled;
+	    filled = end;
+	}
+	return page;
+    }
+
+    public long size() {
+	return size;
+    }
+
+    /**
+     * Saves the number of entries per score, replacing the file in one
+     * atomic move.
+     *
+     * @param file The file to save to.
+     * @throws IOException If the file could not be written.
+     */
+    public void save(final Path file) throws IOException {
+	final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+	try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+	    out.writeInt(MAGIC);
+	    int distinctScores = 0;
+	    for (long count : counts) {
+		if (count > 0) {
+		    distinctScores += 1;
+		}
+	    }
+	    out.writeInt(distinctScores);
+	    for (int score = 0; score < counts.length; score++) {
+		if (counts[score] > 0) {
+		    out.writeInt(score);
+		    out.writeLong(counts[score]);
+		}
+	    }
+	}
+	Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Adds the entries of a saved index to this one. The whole file is
+     * checked before anything is added, so a broken file leaves the index
+     * as it was.
+     *
+     * @param file The file to load.
+     * @throws IOException If the file could not be read, or holds scores
+     * out of range or counts that do not add up.
+     */
+    public void load(final Path file) throws IOException {
+	final int[] scores;
+	final long[] scoreCounts;
+	try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+	    if (in.readInt() != MAGIC) {
+		throw new IOException("Not a score rank index: " + file);
+	    }
+	    final int distinctScores = in.readInt();
+	    if (distinctScores < 0 || distinctScores > MAX_SCORE + 1) {
+		throw new IOException("Bad number of scores " + distinctScores + " in " + file);
+	    }
+	    scores = new int[distinctScores];
+	    scoreCounts = new long[distinctScores];
+	    long total = size;
+	    for (int i = 0; i < distinctScores; i++) {
+		scores[i] = in.readInt();
+		scoreCounts[i] = in.readLong();
+		if (scores[i] < 0 || scores[i] > MAX_SCORE || scoreCounts[i] <= 0) {
+		    throw new IOException("Bad count " + scoreCounts[i] + " of score " + scores[i] + " in " + file);
+		}
+		try {
+		    total = Math.addExact(total, scoreCounts[i]);
+		} catch (ArithmeticException e) {
+		    throw new IOException("Too many entries in " + file, e);
+		}
+	    }
+	}
+	for (int i = 0; i < scores.length; i++) {
+	    add(scores[i], scoreCounts[i]);
+	}
+    }
+}
@@ -0,0 +1,251 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch that summarizes any number of values in
+ * constant memory.
+ * <p>
+ *     This is the merging variant of Ted Dunning's t-digest. Values are
+ *     collected in a small buffer. When it is full, the buffer is sorted
+ *     and merged with the existing centroids, the weighted means that
+ *     make up the sketch. A centroid may only grow while it covers less
+ *     than one unit of the scale function k(q) = d / 2pi * asin(2q - 1),
+ *     so centroids stay small near the tails, where precision matters
+ *     most, and there are never more than about d of them.
+ * </p>
+ * <p>
+ *     Digests can be merged, which gives about the same result as one
+ *     digest that saw all the values.
+ * </p>
+ */
+public class TDigest {
+    private static final double DEFAULT_COMPRESSION = 100;
+
+    private final double compression;
+    private double[] means;
+    private double[] weights;
+    private double[] mergedMeans;
+    private double[] mergedWeights;
+    private int centroidCount = 0;
+    private double centroidWeight = 0;
+
+    /**
+     * Values added since the last merge, all with a weight of one.
+     */
+    private final double[] buffer;
+    private int bufferCount = 0;
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+	this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates an empty digest.
+     *
+     * @param compression Trades memory for precision, the number of
+     *                    centroids is at most about this number.
+     */
+    public TDigest(final double compression) {
+	this.compression = compression;
+	final int capacity = (int) Math.ceil(compression) + 4;
+	means = new double[capacity];
+	weights = new double[capacity];
+	mergedMeans = new double[capacity];
+	mergedWeights = new double[capacity];
+	buffer = new double[capacity * 4];
+    }
+
+    public void add(final double value) {
+	if (bufferCount == buffer.length) {
+	    compress();
+	}
+	buffer[bufferCount] = value;
+	bufferCount += 1;
+    }
+
+    /**
+     * Adds all values summarized by another digest to this one.
+     *
+     * @param other The digest to merge in, which is left unchanged.
+     */
+    public void merge(final TDigest other) {
+	other.compress();
+	compress();
+	if (other.centroidCount > 0) {
+	    min = Math.min(min, other.min);
+	    max = Math.max(max, other.max);
+	    mergeSorted(other.means, other.weights, other.centroidCount);
+	}
+    }
+
+    /**
+     * Merges the buffered values into the centroids.
+     */
+    private void compress() {
+	if (bufferCount == 0) {
+	    return;
+	}
+	Arrays.sort(buffer, 0, bufferCount);
+	min = Math.min(min, buffer[0]);
+	max = Math.max(max, buffer[bufferCount - 1]);
+	final int count = bufferCount;
+	bufferCount = 0;
+	mergeSorted(buffer, null, count);
+    }
+
+    /**
+     * Merges weighted points, sorted by their means, into the centroids.
+     *
+     * @param pointMeans   The means of the points.
+     * @param pointWeights The weights of the points, or null if they all
+     *                     weigh one.
+     * @param pointCount   The number of points.
+     */
+    private void mergeSorted(final double[] pointMeans, final double[] pointWeights, final int pointCount) {
+	if (pointWeights == null) {
+	    centroidWeight += pointCount;
+	} else {
+	    for (int i = 0; i < pointCount; i++) {
+		centroidWeight += pointWeights[i];
+	    }
+	}
+
+	// Walk the old centroids and the new points together in order of their means
+	int merged = 0;
+	double weightBefore = 0;
+	double weightLimit = weightLimit(0);
+	int centroid = 0;
+	int point = 0;
+	while (centroid < centroidCount || point < pointCount) {
+	    final double mean;
+	    final double weight;
+	    if (point == pointCount || (centroid < centroidCount && means[centroid] <= pointMeans[point])) {
+		mean = means[centroid];
+		weight = weights[centroid];
+		centroid += 1;
+	    } else {
+		mean = pointMeans[point];
+		weight = pointWeights == null ? 1 : pointWeights[point];
+		point += 1;
+	    }
+
+	    if (merged > 0 && weightBefore + mergedWeights[merged - 1] + weight <= weightLimit) {
+		// Grow the current centroid
+		final double grownWeight = mergedWeights[merged - 1] + weight;
+		mergedMeans[merged - 1] += (mean - mergedMeans[merged - 1]) * weight / grownWeight;
+		mergedWeights[merged - 1] = grownWeight;
+	    } else {
+		if (merged > 0) {
+		    weightBefore += mergedWeights[merged - 1];
+		    weightLimit = weightLimit(weightBefore);
+		}
+		mergedMeans[merged] = mean;
+		mergedWeights[merged] = weight;
+		merged += 1;
+	    }
+	}
+
+	final double[] oldMeans = means;
+	final double[] oldWeights = weights;
+	means = mergedMeans;
+	weights = mergedWeights;
+	mergedMeans = oldMeans;
+	mergedWeights = oldWeights;
+	centroidCount = merged;
+    }
+
+    /**
+     * Returns the largest total weight that a centroid starting after
+     * the given weight may reach, one unit of k further along.
+     */
+    private double weightLimit(final double weightBefore) {
+	final double k = compression / (2 * Math.PI) * Math.asin(Math.min(1, 2 * weightBefore / centroidWeight - 1));
+	final double nextK = Math.min(k + 1, compression / 4);
+	return centroidWeight * (Math.sin(nextK * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    /**
+     * Estimates the value below which the given fraction of all values
+     * lie.
+     *
+     * @param fraction The fraction between 0 and 1.
+     * @return The estimate, or NaN if the digest is empty.
+     */
+    public double quantile(final double fraction) {
+	compress();
+	if (centroidCount == 0) {
+	    return Double.NaN;
+	} else if (centroidCount == 1) {
+	    return means[0];
+	}
+
+	final double target = fraction * centroidWeight;
+	if (target < weights[0] / 2) {
+	    return min + (means[0] - min) * target / (weights[0] / 2);
+	}
+	// Interpolate between the centers of the two centroids around the target
+	double center = weights[0] / 2;
+	for (int i = 0; i < centroidCount - 1; i++) {
+	    final double nextCenter = center + (weights[i] + weights[i + 1]) / 2;
+	    if (target < nextCenter) {
+		return means[i] + (means[i + 1] - means[i]) * (target - center) / (nextCenter - center);
+	    }
+	    center = nextCenter;
+	}
+	final double lastHalf = weights[centroidCount - 1] / 2;
+	return means[centroidCount - 1] + (max - means[centroidCount - 1]) * Math.min(1, (target - center) / lastHalf);
+    }
+
+    public double getCount() {
+	return centroidWeight + bufferCount;
+    }
+
+    /**
+     * Writes the centroids of the digest.
+     *
+     * @param out The output to write to.
+     * @throws IOException If the digest could not be written.
+     */
+    public void write(final DataOutput out) throws IOException {
+	compress();
+	out.writeDouble(compression);
+	out.writeDouble(min);
+	out.writeDouble(max);
+	out.writeInt(centroidCount);
+	for (int i = 0; i < centroidCount; i++) {
+	    out.writeDouble(means[i]);
+	    out.writeDouble(weights[i]);
+	}
+    }
+
+    /**
+     * Reads a digest written by {@link #write(DataOutput)}.
+     *
+     * @param in The input to read from.
+     * @return The digest that was read.
+     * @throws IOException If the digest could not be read.
+     */
+    public static TDigest read(final DataInput in) throws IOException {
+	final TDigest digest = new TDigest(in.readDouble());
+	digest.min = in.readDouble();
+	digest.max = in.readDouble();
+	final int centroidCount = in.readInt();
+	if (centroidCount > digest.means.length) {
+	    throw new IOException("Digest has too many centroids: " + centroidCount);
+	}
+	for (int i = 0; i < centroidCount; i++) {
+	    digest.means[i] = in.readDouble();
+	    digest.weights[i] = in.readDouble();
+	    digest.centroidWeight += digest.weights[i];
+	}
+	digest.centroidCount = centroidCount;
+	return digest;
+    }
+}
@@ -0,0 +1,53 @@
+package se.liu.kevma271.flappybird.images;
+
+/**
+ * A decoded image as packed 0xAARRGGBB pixels, row by row, with the
+ * colors not premultiplied by the alpha.
+ * <p>
+ *     The pixels are shared with the caller and not copied, the image is
+ *     meant to be read once to make sprites from it.
+ * </p>
+ */
+public class ArgbImage {
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+
+    /**
+     * Creates an image of the given pixels.
+     *
+     * @param width  The width in pixels.
+     * @param height The height in pixels.
+     * @param pixels The pixels, {@code width * height} of them.
+     */
+    public ArgbImage(final int width, final int height, final int[] pixels) {
+	if (width <= 0 || height <= 0 || pixels.length != width * height) {
+	    throw new IllegalArgumentException(
+		    "Bad image size " + width + "x" + height + " for " + pixels.length + " pixels");
+	}
+	this.width = width;
+	this.height = height;
+	this.pixels = pixels;
+    }
+
+    /**
+     * Returns the pixel at the given position.
+     *
+     * @param x The column, from the left.
+     * @param y The row, from the top.
+     * @return The pixel as 0xAARRGGBB.
+     */
+    public int getPixel(int x, int y) {
+	return pixels[y * width + x];
+    }
+
+    public int getWidth() {
+	return width;
+    }
+    public int getHeight() {
+	return height;
+    }
+    public int[] getPixels() {
+	return pixels;
+    }
+}
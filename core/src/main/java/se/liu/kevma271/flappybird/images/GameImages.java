@@ -0,0 +1,87 @@
+package se.liu.kevma271.flappybird.images;
+
+import se.liu.kevma271.flappybird.PowerUp;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Enumeration representing different images used in the Flappy Bird game.
+ * <p>
+ *     The images are bundled with the core, so that frames can be drawn
+ *     both by the client and without the desktop modules, see
+ *     {@link PngDecoder}.
+ * </p>
+ */
+public enum GameImages {
+    BACKGROUND("images/flappybirdbg.png"),
+    FLOOR("images/flappybirdground.png"),
+    REGULAR_FLAPPY("images/flappybird.png"),
+    SUPER_FLAPPY("images/blueflappybird.png"),
+    GRAVITY_FLAPPY("images/redflappybird.png"),
+    TOP_PIPE("images/toppipe.png"),
+    BOTTOM_PIPE("images/bottompipe.png");
+
+    /**
+     * Where the ground is drawn on the board, and how large. The ground
+     * is drawn below the floor that the bird dies on.
+     */
+    public static final int GROUND_Y_POSITION = 575;
+    public static final int GROUND_WIDTH = 360;
+    public static final int GROUND_HEIGHT = 112;
+
+    private final String resource;
+
+    GameImages(final String resource) {
+	this.resource = resource;
+    }
+
+    /**
+     * Returns the path of the image within the resources.
+     *
+     * @return The resource path.
+     */
+    public String getResource() {
+	return resource;
+    }
+
+    /**
+     * Reads and decodes the image from the resources.
+     *
+     * @return The decoded image.
+     * @throws FileNotFoundException If the image is not found.
+     * @throws IOException If the image can not be read or decoded.
+     */
+    public ArgbImage decode() throws IOException {
+	try (InputStream in = GameImages.class.getClassLoader().getResourceAsStream(resource)) {
+	    if (in == null) {
+		throw new FileNotFoundException("Image resource not found: " + resource);
+	    }
+	    return PngDecoder.decode(in);
+	}
+    }
+
+    /**
+     * Returns the Flappy Bird image for the specified bird type. Before
+     * the first tick the bird has no type yet, then the super image is
+     * used to begin with.
+     *
+     * @param birdType The type of Flappy Bird ("regular," "super," or
+     *                 "gravity").
+     * @return The image to draw the bird with.
+     */
+    public static GameImages forBird(PowerUp birdType) {
+	if (birdType == null) {
+	    return SUPER_FLAPPY;
+	}
+	switch (birdType) {
+	    case REGULAR:
+		return REGULAR_FLAPPY;
+	    case GRAVITY:
+		return GRAVITY_FLAPPY;
+	    default:
+		return SUPER_FLAPPY;
+	}
+    }
+}
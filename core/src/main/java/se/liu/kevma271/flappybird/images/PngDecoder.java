@@ -0,0 +1,391 @@
+package se.liu.kevma271.flappybird.images;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes PNG images without the desktop modules, so that the core can
+ * read the images of the game where ImageIO is not linked in.
+ * <p>
+ *     All color types and bit depths of the PNG specification are
+ *     decoded, with transparency from tRNS chunks. Sixteen bit samples
+ *     are cut to their high eight bits. Interlaced images are not
+ *     supported since none of the images of the game are interlaced, and
+ *     the gamma and color space chunks are skipped like most decoders do.
+ * </p>
+ */
+public final class PngDecoder {
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private static final int GRAY = 0;
+    private static final int RGB = 2;
+    private static final int PALETTE = 3;
+    private static final int GRAY_ALPHA = 4;
+    private static final int RGB_ALPHA = 6;
+
+    /**
+     * The largest chunk that is read. Larger chunks are not valid images
+     * of the game and would only waste memory.
+     */
+    private static final int MAX_CHUNK_LENGTH = 1 << 28;
+
+    private PngDecoder() {}
+
+    /**
+     * Reads and decodes a PNG image. The stream is read up to the end of
+     * the image and not closed.
+     *
+     * @param in The stream to read the image from.
+     * @return The decoded image.
+     * @throws IOException If the stream can not be read, or does not hold
+     * a PNG image that can be decoded.
+     */
+    public static ArgbImage decode(InputStream in) throws IOException {
+	final DataInputStream data = new DataInputStream(in);
+	final byte[] signature = new byte[SIGNATURE.length];
+	data.readFully(signature);
+	for (int i = 0; i < SIGNATURE.length; i++) {
+	    if (signature[i] != SIGNATURE[i]) {
+		throw new IOException("Not a PNG image");
+	    }
+	}
+
+	Header header = null;
+	byte[] palette = null;
+	byte[] transparency = null;
+	final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+	final CRC32 crc = new CRC32();
+	while (true) {
+	    final int length = data.readInt();
+	    if (length < 0 || length > MAX_CHUNK_LENGTH) {
+		throw new IOException("Bad PNG chunk length " + Integer.toUnsignedString(length));
+	    }
+	    final byte[] type = new byte[4];
+	    data.readFully(type);
+	    final byte[] body = new byte[length];
+	    data.readFully(body);
+	    crc.reset();
+	    crc.update(type);
+	    crc.update(body);
+	    if ((int) crc.getValue() != data.readInt()) {
+		throw new IOException("Bad checksum of PNG chunk " + new String(type, StandardCharsets.US_ASCII));
+	    }
+
+	    final String name = new String(type, StandardCharsets.US_ASCII);
+	    if (header == null && !name.equals("IHDR")) {
+		throw new IOException("PNG image does not start with a header");
+	    }
+	    switch (name) {
+		case "IHDR":
+		    header = new Header(body);
+		    break;
+		case "PLTE":
+		    palette = body;
+		    break;
+		case "tRNS":
+		    transparency = body;
+		    break;
+		case "IDAT":
+		    compressed.write(body, 0, body.length);
+		    break;
+		case "IEND":
+		    return toImage(header, unfilter(header, inflate(header, compressed.toByteArray())), palette,
+				   transparency);
+		default:
+		    // Ancillary chunks are skipped, and there are no other critical chunks
+		    if ((type[0] & 0x20) == 0) {
+			throw new IOException("Unknown critical PNG chunk " + name);
+		    }
+	    }
+	}
+    }
+
+    /**
+     * The image header, and the sizes that follow from it.
+     */
+    private static final class Header {
+	private final int width;
+	private final int height;
+	private final int bitDepth;
+	private final int colorType;
+	private final int bitsPerPixel;
+	private final int rowBytes;
+
+	private Header(byte[] body) throws IOException {
+	    if (body.length != 13) {
+		throw new IOException("Bad PNG header length " + body.length);
+	    }
+	    width = readInt(body, 0);
+	    height = readInt(body, 4);
+	    bitDepth = body[8];
+	    colorType = body[9];
+	    if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE / 4) {
+		throw new IOException("Bad PNG image size " + width + "x" + height);
+	    }
+	    if (body[10] != 0 || body[11] != 0) {
+		throw new IOException("Unknown PNG compression or filter method");
+	    }
+	    if (body[12] != 0) {
+		throw new IOException("Interlaced PNG images are not supported");
+	    }
+
+	    final int samples;
+	    final boolean depthAllowed;
+	    switch (colorType) {
+		case GRAY:
+		    samples = 1;
+		    depthAllowed = bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8 || bitDepth == 16;
+		    break;
+		case PALETTE:
+		    samples = 1;
+		    depthAllowed = bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8;
+		    break;
+		case RGB:
+		    samples = 3;
+		    depthAllowed = bitDepth == 8 || bitDepth == 16;
+		    break;
+		case GRAY_ALPHA:
+		    samples = 2;
+		    depthAllowed = bitDepth == 8 || bitDepth == 16;
+		    break;
+		case RGB_ALPHA:
+		    samples = 4;
+		    depthAllowed = bitDepth == 8 || bitDepth == 16;
+		    break;
+		default:
+		    throw new IOException("Unknown PNG color type " + colorType);
+	    }
+	    if (!depthAllowed) {
+		throw new IOException("Bad PNG bit depth " + bitDepth + " for color type " + colorType);
+	    }
+	    bitsPerPixel = samples * bitDepth;
+	    rowBytes = (int) (((long) width * bitsPerPixel + 7) / 8);
+	}
+
+	/**
+	 * Returns how many bytes back the filters find the same sample of
+	 * the pixel before, which is at least one byte.
+	 */
+	private int getFilterDistance() {
+	    return Math.max(1, bitsPerPixel / 8);
+	}
+    }
+
+    private static byte[] inflate(Header header, byte[] compressed) throws IOException {
+	final byte[] raw = new byte[(int) Math.min(Integer.MAX_VALUE, (long) header.height * (header.rowBytes + 1))];
+	final Inflater inflater = new Inflater();
+	try {
+	    inflater.setInput(compressed);
+	    int filled = 0;
+	    while (filled < raw.length) {
+		final int count = inflater.inflate(raw, filled, raw.length - filled);
+		if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+		    throw new EOFException("PNG image data ends after " + filled + " of " + raw.length + " bytes");
+		}
+		filled += count;
+	    }
+	    return raw;
+	} catch (DataFormatException e) {
+	    throw new IOException("Bad PNG image data: " + e.getMessage(), e);
+	} finally {
+	    inflater.end();
+	}
+    }
+
+    /**
+     * Undoes the filters of all rows in place and returns the rows,
+     * each of them still after its filter type byte.
+     */
+    private static byte[] unfilter(Header header, byte[] raw) throws IOException {
+	final int stride = header.rowBytes + 1;
+	final int distance = header.getFilterDistance();
+	for (int y = 0; y < header.height; y++) {
+	    final int row = y * stride + 1;
+	    final int previous = row - stride;
+	    final int filter = raw[row - 1];
+	    switch (filter) {
+		case 0:
+		    break;
+		case 1:
+		    for (int i = distance; i < header.rowBytes; i++) {
+			raw[row + i] += raw[row + i - distance];
+		    }
+		    break;
+		case 2:
+		    if (y > 0) {
+			for (int i = 0; i < header.rowBytes; i++) {
+			    raw[row + i] += raw[previous + i];
+			}
+		    }
+		    break;
+		case 3:
+		    for (int i = 0; i < header.rowBytes; i++) {
+			final int left = i >= distance ? raw[row + i - distance] & 0xFF : 0;
+			final int up = y > 0 ? raw[previous + i] & 0xFF : 0;
+			raw[row + i] += (byte) ((left + up) >>> 1);
+		    }
+		    break;
+		case 4:
+		    for (int i = 0; i < header.rowBytes; i++) {
+			final int left = i >= distance ? raw[row + i - distance] & 0xFF : 0;
+			final int up = y > 0 ? raw[previous + i] & 0xFF : 0;
+			final int upLeft = i >= distance && y > 0 ? raw[previous + i - distance] & 0xFF : 0;
+			raw[row + i] += (byte) paeth(left, up, upLeft);
+		    }
+		    break;
+		default:
+		    throw new IOException("Unknown PNG filter type " + filter + " in row " + y);
+	    }
+	}
+	return raw;
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+	final int estimate = left + up - upLeft;
+	final int toLeft = Math.abs(estimate - left);
+	final int toUp = Math.abs(estimate - up);
+	final int toUpLeft = Math.abs(estimate - upLeft);
+	if (toLeft <= toUp && toLeft <= toUpLeft) {
+	    return left;
+	}
+	return toUp <= toUpLeft ? up : upLeft;
+    }
+
+    private static ArgbImage toImage(Header header, byte[] rows, byte[] palette, byte[] transparency)
+	    throws IOException
+    {
+	final int[] colors = header.colorType == PALETTE ? paletteColors(header, palette, transparency) : null;
+	final int[] key = transparentSamples(header, transparency);
+	final int stride = header.rowBytes + 1;
+	final int depth = header.bitDepth;
+	final int[] pixels = new int[header.width * header.height];
+
+	for (int y = 0; y < header.height; y++) {
+	    final int row = y * stride + 1;
+	    for (int x = 0; x < header.width; x++) {
+		final int argb;
+		switch (header.colorType) {
+		    case GRAY: {
+			final int sample = readSample(rows, row, x, depth);
+			final int gray = toByte(sample, depth);
+			argb = (key != null && sample == key[0] ? 0 : 0xFF000000) | gray << 16 | gray << 8 | gray;
+			break;
+		    }
+		    case PALETTE: {
+			final int index = readSample(rows, row, x, depth);
+			if (index >= colors.length) {
+			    throw new IOException("PNG palette index " + index + " out of " + colors.length);
+			}
+			argb = colors[index];
+			break;
+		    }
+		    case RGB: {
+			final int r = readSample(rows, row, 3 * x, depth);
+			final int g = readSample(rows, row, 3 * x + 1, depth);
+			final int b = readSample(rows, row, 3 * x + 2, depth);
+			final boolean transparent = key != null && r == key[0] && g == key[1] && b == key[2];
+			argb = (transparent ? 0 : 0xFF000000) | toByte(r, depth) << 16 | toByte(g, depth) << 8 |
+			       toByte(b, depth);
+			break;
+		    }
+		    case GRAY_ALPHA: {
+			final int gray = toByte(readSample(rows, row, 2 * x, depth), depth);
+			final int alpha = toByte(readSample(rows, row, 2 * x + 1, depth), depth);
+			argb = alpha << 24 | gray << 16 | gray << 8 | gray;
+			break;
+		    }
+		    default: {
+			final int r = toByte(readSample(rows, row, 4 * x, depth), depth);
+			final int g = toByte(readSample(rows, row, 4 * x + 1, depth), depth);
+			final int b = toByte(readSample(rows, row, 4 * x + 2, depth), depth);
+			final int alpha = toByte(readSample(rows, row, 4 * x + 3, depth), depth);
+			argb = alpha << 24 | r << 16 | g << 8 | b;
+			break;
+		    }
+		}
+		pixels[y * header.width + x] = argb;
+	    }
+	}
+	return new ArgbImage(header.width, header.height, pixels);
+    }
+
+    private static int[] paletteColors(Header header, byte[] palette, byte[] transparency) throws IOException {
+	if (palette == null || palette.length % 3 != 0 || palette.length / 3 > 1 << header.bitDepth) {
+	    throw new IOException("Missing or bad palette in PNG image with color type 3");
+	}
+	final int[] colors = new int[palette.length / 3];
+	for (int i = 0; i < colors.length; i++) {
+	    final int alpha = transparency != null && i < transparency.length ? transparency[i] & 0xFF : 0xFF;
+	    colors[i] = alpha << 24 | (palette[3 * i] & 0xFF) << 16 | (palette[3 * i + 1] & 0xFF) << 8 |
+			(palette[3 * i + 2] & 0xFF);
+	}
+	return colors;
+    }
+
+    /**
+     * Returns the samples of the one gray or RGB color that is
+     * transparent, or null if no such color is given.
+     */
+    private static int[] transparentSamples(Header header, byte[] transparency) throws IOException {
+	if (transparency == null || header.colorType == PALETTE) {
+	    return null;
+	}
+	if (header.colorType == GRAY && transparency.length == 2) {
+	    return new int[] { readShort(transparency, 0) };
+	}
+	if (header.colorType == RGB && transparency.length == 6) {
+	    return new int[] { readShort(transparency, 0), readShort(transparency, 2), readShort(transparency, 4) };
+	}
+	throw new IOException("Bad tRNS chunk for PNG color type " + header.colorType);
+    }
+
+    /**
+     * Reads the sample with the given index in a row, of any bit depth.
+     */
+    private static int readSample(byte[] rows, int row, int index, int depth) {
+	switch (depth) {
+	    case 8:
+		return rows[row + index] & 0xFF;
+	    case 16:
+		return readShort(rows, row + 2 * index);
+	    default:
+		final int bit = index * depth;
+		final int shift = 8 - depth - (bit & 7);
+		return ((rows[row + (bit >>> 3)] & 0xFF) >>> shift) & ((1 << depth) - 1);
+	}
+    }
+
+    /**
+     * Scales a sample of the given bit depth to eight bits.
+     */
+    private static int toByte(int sample, int depth) {
+	switch (depth) {
+	    case 1:
+		return sample * 0xFF;
+	    case 2:
+		return sample * 0x55;
+	    case 4:
+		return sample * 0x11;
+	    case 16:
+		return sample >>> 8;
+	    default:
+		return sample;
+	}
+    }
+
+    private static int readShort(byte[] bytes, int offset) {
+	return (bytes[offset] & 0xFF) << 8 | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+	return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8 |
+	       (bytes[offset + 3] & 0xFF);
+    }
+}
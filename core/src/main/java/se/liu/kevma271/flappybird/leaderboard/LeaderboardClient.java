@@ -0,0 +1,466 @@
+package se.liu.kevma271.flappybird.leaderboard;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Client of a shared leaderboard server.
+ * <p>
+ *     Submitting a score never waits for the network. The entry is
+ *     appended to a queue file on disk and sent later by a background
+ *     thread, together with the other entries submitted since, in one
+ *     request. Entries stay in the queue file until the server has
+ *     accepted them, so scores played while the server can not be
+ *     reached, or before the game was closed, are sent once it can be
+ *     reached again. Failed sends are retried with a growing delay.
+ * </p>
+ * <p>
+ *     The server answers for every entry of a batch, so only the entries
+ *     it rejects are dropped, and entries it already has because an
+ *     earlier answer was lost are not counted twice. When the server
+ *     rejects a whole batch, the batch is split until the entry it will
+ *     not take is found and dropped on its own.
+ * </p>
+ * <p>
+ *     The best scores are read asynchronously and cached for a while,
+ *     so that showing the leaderboard after every game does not need a
+ *     request each time.
+ * </p>
+ */
+public class LeaderboardClient implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(LeaderboardClient.class.getName());
+
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_CACHE_TTL = Duration.ofSeconds(30);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(5);
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Type ENTRY_LIST = new TypeToken<List<LeaderboardEntry>>() {}.getType();
+
+    private final URI serverUri;
+    private final Path queueFile;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long cacheTtlNanos;
+    private final HttpClient http;
+    private final Gson gson = new Gson();
+    private final ScheduledExecutorService sender;
+
+    /**
+     * Entries that the server has not accepted yet, oldest first. The
+     * queue file always holds the same entries. New entries are only
+     * added at the end, and only the sending thread removes entries,
+     * from the start.
+     */
+    private final List<LeaderboardEntry> pending = new ArrayList<>();
+
+    /**
+     * When the sending thread may try again after a failure, and how
+     * long it waited the last time. Only used by the sending thread.
+     */
+    private long nextAttemptMillis = 0;
+    private long retryDelayMillis = 0;
+
+    /**
+     * The number of entries in the next request, smaller than the batch
+     * size while a batch that the server rejected is split. Only used by
+     * the sending thread.
+     */
+    private int sendSize;
+
+    private final AtomicLong sentEntries = new AtomicLong();
+    private volatile TopScores cache = null;
+    private CompletableFuture<List<LeaderboardEntry>> refresh = null;
+    private int refreshLimit = 0;
+
+    /**
+     * Creates a client with the default batch size, flush interval and
+     * cache time. Entries left in the queue file by an earlier run are
+     * sent as well.
+     *
+     * @param serverUri The address of the server, for example
+     *                  {@code http://localhost:8642/}.
+     * @param queueFile The file to keep unsent entries in.
+     * @throws IOException If the queue file exists but can not be read.
+     */
+    public LeaderboardClient(final URI serverUri, final Path queueFile) throws IOException {
+	this(serverUri, queueFile, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL, DEFAULT_CACHE_TTL);
+    }
+
+    /**
+     * Creates a client.
+     *
+     * @param serverUri     The address of the server.
+     * @param queueFile     The file to keep unsent entries in.
+     * @param batchSize     The largest number of entries sent in one
+     *                      request. A full batch is sent right away.
+     * @param flushInterval How long an entry may wait for a batch to
+     *                      fill up.
+     * @param cacheTtl      How long the best scores are cached.
+     * @throws IOException If the queue file exists but can not be read.
+     */
+    public LeaderboardClient(final URI serverUri, final Path queueFile, final int batchSize, final Duration flushInterval,
+			     final Duration cacheTtl) throws IOException
+    {
+	if (batchSize < 1) {
+	    throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+	}
+	this.serverUri = serverUri;
+	this.queueFile = queueFile;
+	this.batchSize = batchSize;
+	this.sendSize = batchSize;
+	this.flushIntervalMillis = flushInterval.toMillis();
+	this.cacheTtlNanos = cacheTtl.toNanos();
+	this.http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+	pending.addAll(readQueueFile());
+
+	this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+	    final Thread thread = new Thread(runnable, "leaderboard-sender");
+	    thread.setDaemon(true);
+	    return thread;
+	});
+	sender.scheduleWithFixedDelay(this::flushIfDue, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues an entry for the server. This only appends a line to the
+     * queue file, the entry is sent by a background thread.
+     *
+     * @param entry The entry to submit.
+     */
+    public void submit(final LeaderboardEntry entry) {
+	synchronized (pending) {
+	    pending.add(entry);
+	    try (BufferedWriter writer = Files.newBufferedWriter(queueFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+								 StandardOpenOption.APPEND)) {
+		writer.write(gson.toJson(entry));
+		writer.newLine();
+	    } catch (IOException e) {
+		LOGGER.log(Level.WARNING, "Could not write leaderboard entry to " + queueFile + ", it is only kept in memory", e);
+	    }
+	    if (pending.size() >= batchSize) {
+		sender.execute(this::flushIfDue);
+	    }
+	}
+    }
+
+    /**
+     * Sends the queued entries unless the last attempt failed too
+     * recently. Runs on the sending thread.
+     */
+    private void flushIfDue() {
+	try {
+	    while (System.currentTimeMillis() >= nextAttemptMillis && sendBatch()) {
+		// Keep sending while more entries are waiting
+	    }
+	} catch (RuntimeException e) {
+	    // An exception would stop the scheduled flushes for good
+	    LOGGER.log(Level.WARNING, "Sending leaderboard entries failed", e);
+	}
+    }
+
+    /**
+     * Sends the oldest queued entries in one request.
+     *
+     * @return True if the batch was sent and more entries are waiting.
+     */
+    private boolean sendBatch() {
+	final List<LeaderboardEntry> batch;
+	synchronized (pending) {
+	    if (pending.isEmpty()) {
+		return false;
+	    }
+	    batch = new ArrayList<>(pending.subList(0, Math.min(sendSize, pending.size())));
+	}
+
+	final HttpRequest request = HttpRequest.newBuilder(serverUri.resolve("scores")).timeout(REQUEST_TIMEOUT)
+		.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(gson.toJson(batch))).build();
+	final HttpResponse<String> response;
+	try {
+	    response = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+	} catch (IOException e) {
+	    retryLater("Leaderboard server not reachable: " + e);
+	    return false;
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    return false;
+	}
+
+	final int status = response.statusCode();
+	if (isRefusal(status) && batch.size() > 1) {
+	    // Some entry of the batch is refused, send halves until it is found
+	    sendSize = batch.size() / 2;
+	    return true;
+	} else if (isRefusal(status)) {
+	    // The server will never take this entry, so it is not sent again
+	    LOGGER.warning("Leaderboard server rejected an entry with status " + status + ": " + gson.toJson(batch.get(0)));
+	} else if (status >= 300) {
+	    // A wrong address, missing rights, rate limits and server failures may all be fixed later
+	    retryLater("Leaderboard server answered with status " + status);
+	    return false;
+	} else {
+	    addAccepted(batch, response.body());
+	}
+	sendSize = batchSize;
+	retryDelayMillis = 0;
+	synchronized (pending) {
+	    pending.subList(0, batch.size()).clear();
+	    try {
+		writeQueueFile();
+	    } catch (IOException e) {
+		LOGGER.log(Level.WARNING, "Could not update leaderboard queue " + queueFile, e);
+	    }
+	    return !pending.isEmpty();
+	}
+    }
+
+    /**
+     * Returns whether a status means that the server will never take the
+     * entries that were sent, whenever they are sent again.
+     */
+    private static boolean isRefusal(final int status) {
+	return status == 400 || status == 413 || status == 422;
+    }
+
+    /**
+     * Counts and caches the entries of a batch that the server took,
+     * leaving out the ones it rejected or already had.
+     */
+    private void addAccepted(final List<LeaderboardEntry> batch, final String body) {
+	SubmitResult result = null;
+	try {
+	    result = gson.fromJson(body, SubmitResult.class);
+	} catch (JsonParseException e) {
+	    LOGGER.info("Leaderboard server answered without the result of every entry: " + body);
+	}
+	final boolean[] skipped = new boolean[batch.size()];
+	if (result != null) {
+	    for (int index : result.rejected) {
+		if (index >= 0 && index < skipped.length) {
+		    skipped[index] = true;
+		    LOGGER.warning("Leaderboard server rejected an entry: " + gson.toJson(batch.get(index)));
+		}
+	    }
+	    for (int index : result.duplicates) {
+		if (index >= 0 && index < skipped.length) {
+		    skipped[index] = true;
+		}
+	    }
+	}
+	final List<LeaderboardEntry> accepted = new ArrayList<>();
+	for (int i = 0; i < batch.size(); i++) {
+	    if (!skipped[i]) {
+		accepted.add(batch.get(i));
+	    }
+	}
+	sentEntries.addAndGet(accepted.size());
+	addToCache(accepted);
+    }
+
+    /**
+     * Waits longer before the next attempt, up to a minute.
+     */
+    private void retryLater(final String reason) {
+	retryDelayMillis = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(flushIntervalMillis, retryDelayMillis * 2));
+	nextAttemptMillis = System.currentTimeMillis() + retryDelayMillis;
+	LOGGER.info(reason + ", retrying in " + retryDelayMillis + " ms");
+    }
+
+    /**
+     * Returns the best scores on the server, from the cache if it is
+     * fresh enough.
+     *
+     * @param limit The largest number of entries to return.
+     * @return The best entries, best first, once they are known.
+     */
+    public CompletableFuture<List<LeaderboardEntry>> getTopScores(final int limit) {
+	final TopScores cached = cache;
+	if (cached != null && cached.isFresh(limit)) {
+	    return CompletableFuture.completedFuture(cached.getTop(limit));
+	}
+	return refresh(limit).thenApply(entries -> entries.subList(0, Math.min(limit, entries.size())));
+    }
+
+    /**
+     * Returns the best scores that are known right now, without waiting.
+     * Queued entries that the server has not accepted yet are included,
+     * so that a player sees their own score right after a game. If the
+     * cache is old, it is refreshed in the background.
+     *
+     * @param limit The largest number of entries to return.
+     * @return The best known entries, best first. Empty if the server
+     * has not answered yet and nothing is queued.
+     */
+    public List<LeaderboardEntry> getCachedTopScores(final int limit) {
+	final TopScores cached = cache;
+	if (cached == null || !cached.isFresh(limit)) {
+	    refresh(limit);
+	}
+	final List<LeaderboardEntry> top = new ArrayList<>();
+	if (cached != null) {
+	    top.addAll(cached.getTop(limit));
+	}
+	synchronized (pending) {
+	    top.addAll(pending);
+	}
+	top.sort(LeaderboardEntry.BEST_FIRST);
+	return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Fetches the best scores, unless a fetch of at least as many scores
+     * is already on its way. A fetch of fewer scores is left to finish,
+     * but does not replace the cache of a fetch of more scores that was
+     * started after it.
+     */
+    private synchronized CompletableFuture<List<LeaderboardEntry>> refresh(final int limit) {
+	if (refresh != null && !refresh.isDone() && refreshLimit >= limit) {
+	    return refresh;
+	}
+	final HttpRequest request = HttpRequest.newBuilder(serverUri.resolve("top?limit=" + limit)).timeout(REQUEST_TIMEOUT).GET().build();
+	final long start = System.nanoTime();
+	refresh = http.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)).thenApply(response -> {
+	    if (response.statusCode() != 200) {
+		throw new IllegalStateException("Leaderboard server failed with status " + response.statusCode());
+	    }
+	    final List<LeaderboardEntry> entries = gson.fromJson(response.body(), ENTRY_LIST);
+	    final List<LeaderboardEntry> top = entries != null ? entries : new ArrayList<>();
+	    final TopScores cached = cache;
+	    if (cached == null || limit >= cached.limit || start > cached.fetchedNanos) {
+		cache = new TopScores(top, limit, start);
+	    }
+	    return top;
+	});
+	refreshLimit = limit;
+	refresh.exceptionally(e -> {
+	    LOGGER.info("Could not fetch the leaderboard: " + e);
+	    return null;
+	});
+	return refresh;
+    }
+
+    /**
+     * Adds entries that the server has accepted to the cached scores, so
+     * that they are shown before the cache is refreshed.
+     */
+    private void addToCache(final List<LeaderboardEntry> accepted) {
+	final TopScores cached = cache;
+	if (cached != null) {
+	    final List<LeaderboardEntry> merged = new ArrayList<>(cached.entries);
+	    merged.addAll(accepted);
+	    merged.sort(LeaderboardEntry.BEST_FIRST);
+	    cache = new TopScores(merged.subList(0, Math.min(cached.limit, merged.size())), cached.limit, cached.fetchedNanos);
+	}
+    }
+
+    public int getPendingCount() {
+	synchronized (pending) {
+	    return pending.size();
+	}
+    }
+
+    /**
+     * Returns the number of entries that the server has accepted since
+     * the client was created.
+     *
+     * @return The number of sent entries.
+     */
+    public long getSentCount() {
+	return sentEntries.get();
+    }
+
+    /**
+     * Stops sending. Entries that have not been sent are left in the
+     * queue file for the next client.
+     */
+    @Override public void close() {
+	sender.shutdownNow();
+    }
+
+    private List<LeaderboardEntry> readQueueFile() throws IOException {
+	final List<LeaderboardEntry> entries = new ArrayList<>();
+	if (!Files.exists(queueFile)) {
+	    return entries;
+	}
+	for (String line : Files.readAllLines(queueFile, StandardCharsets.UTF_8)) {
+	    if (line.isBlank()) {
+		continue;
+	    }
+	    try {
+		final LeaderboardEntry entry = gson.fromJson(line, LeaderboardEntry.class);
+		if (entry != null && entry.isValid()) {
+		    entries.add(entry);
+		}
+	    } catch (JsonParseException e) {
+		// A line cut short when the game was killed while writing it
+		LOGGER.warning("Skipping malformed leaderboard queue entry: " + line);
+	    }
+	}
+	return entries;
+    }
+
+    /**
+     * Replaces the queue file with the pending entries. The new file is
+     * written next to the old one and moved over it, so a crash leaves
+     * either the old or the new queue.
+     */
+    private void writeQueueFile() throws IOException {
+	final Path temporary = queueFile.resolveSibling(queueFile.getFileName() + ".tmp");
+	try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+	    for (LeaderboardEntry entry : pending) {
+		writer.write(gson.toJson(entry));
+		writer.newLine();
+	    }
+	}
+	Files.move(temporary, queueFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * The best scores as fetched at one point in time.
+     */
+    private class TopScores {
+	private final List<LeaderboardEntry> entries;
+	private final int limit;
+	private final long fetchedNanos;
+
+	private TopScores(final List<LeaderboardEntry> entries, final int limit, final long fetchedNanos) {
+	    this.entries = entries;
+	    this.limit = limit;
+	    this.fetchedNanos = fetchedNanos;
+	}
+
+	private boolean isFresh(final int wantedLimit) {
+	    return wantedLimit <= limit && System.nanoTime() - fetchedNanos < cacheTtlNanos;
+	}
+
+	private List<LeaderboardEntry> getTop(final int wantedLimit) {
+	    return entries.subList(0, Math.min(wantedLimit, entries.size()));
+	}
+    }
+}
@@ -0,0 +1,74 @@
+package se.liu.kevma271.flappybird.leaderboard;
+
+import java.util.Comparator;
+
+/**
+ * A score on the shared leaderboard.
+ * <p>
+ *     Entries are sent to and from the leaderboard server as JSON, so
+ *     the field names are part of the protocol.
+ * </p>
+ */
+public class LeaderboardEntry {
+    /**
+     * Orders entries from the best to the worst. Of two equal scores,
+     * the one that was played first is better.
+     */
+    public static final Comparator<LeaderboardEntry> BEST_FIRST =
+	    Comparator.comparingInt(LeaderboardEntry::getScore).reversed().thenComparingLong(LeaderboardEntry::getTime);
+
+    private final String player;
+    private final int score;
+    private final String site;
+    private final long time;
+
+    /**
+     * Creates an entry.
+     *
+     * @param player The name of the player.
+     * @param score  The score of the game.
+     * @param site   The arcade site the game was played at.
+     * @param time   When the game ended, in milliseconds since the
+     *               epoch.
+     */
+    public LeaderboardEntry(final String player, final int score, final String site, final long time) {
+	this.player = player;
+	this.score = score;
+	this.site = site;
+	this.time = time;
+    }
+
+    public String getPlayer() {
+	return player;
+    }
+    public int getScore() {
+	return score;
+    }
+    public String getSite() {
+	return site;
+    }
+    public long getTime() {
+	return time;
+    }
+
+    /**
+     * Returns what tells this entry apart from every other entry: the
+     * site, the time the game ended and the player. An entry that is
+     * sent twice has the same id both times.
+     *
+     * @return The id of the entry.
+     */
+    public String getId() {
+	return site + '/' + time + '/' + player;
+    }
+
+    /**
+     * Checks that the entry can be put on the leaderboard. Entries read
+     * from JSON may be missing fields.
+     *
+     * @return True if the entry is complete.
+     */
+    public boolean isValid() {
+	return player != null && !player.isEmpty() && site != null && score >= 0;
+    }
+}
@@ -0,0 +1,259 @@
+package se.liu.kevma271.flappybird.leaderboard;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * A small leaderboard server, used as a local stand-in for the real one.
+ * <p>
+ *     The server keeps the best scores in memory and speaks the same
+ *     protocol as the {@link LeaderboardClient}:
+ * </p>
+ * <ul>
+ *     <li>{@code POST /scores} takes a JSON array of entries and
+ *     answers with the number of entries that were accepted, and the
+ *     indices of the entries that were rejected or that the server
+ *     already had, see {@link SubmitResult}. Entries are told apart by
+ *     {@link LeaderboardEntry#getId()}, so an entry that is sent again
+ *     is only counted once.</li>
+ *     <li>{@code GET /top?limit=N} answers with a JSON array of the N
+ *     best entries, best first.</li>
+ * </ul>
+ */
+public class LeaderboardServer {
+    private static final Logger LOGGER = Logger.getLogger(LeaderboardServer.class.getName());
+
+    /**
+     * How many of the best entries the server keeps.
+     */
+    public static final int DEFAULT_CAPACITY = 1000;
+    public static final int DEFAULT_PORT = 8642;
+    private static final int DEFAULT_LIMIT = 10;
+
+    /**
+     * The largest request body accepted, so that a broken client can
+     * not make the server run out of memory.
+     */
+    private static final int MAX_BODY_BYTES = 1 << 20;
+
+    private static final Type ENTRY_LIST = new TypeToken<List<LeaderboardEntry>>() {}.getType();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final int capacity;
+    private final Gson gson = new Gson();
+
+    /**
+     * The best entries, best first.
+     */
+    private final List<LeaderboardEntry> entries = new ArrayList<>();
+
+    /**
+     * The ids of the best entries. An entry that is not among them was
+     * either never sent or is not good enough to be kept, and would not
+     * be kept if it were sent again either.
+     */
+    private final Set<String> ids = new HashSet<>();
+    private final AtomicLong submissions = new AtomicLong();
+
+    /**
+     * Creates a server on the given port. The server is not started.
+     *
+     * @param port     The port, or 0 for any free port.
+     * @param capacity How many of the best entries to keep.
+     * @throws IOException If the port can not be bound.
+     */
+    public LeaderboardServer(final int port, final int capacity) throws IOException {
+	this.capacity = capacity;
+	this.server = HttpServer.create(new InetSocketAddress(port), 0);
+	this.executor = Executors.newFixedThreadPool(2);
+	server.setExecutor(executor);
+	server.createContext("/scores", this::handleScores);
+	server.createContext("/top", this::handleTop);
+    }
+
+    public LeaderboardServer(final int port) throws IOException {
+	this(port, DEFAULT_CAPACITY);
+    }
+
+    public void start() {
+	server.start();
+	LOGGER.info("Leaderboard server listening on port " + getPort());
+    }
+
+    /**
+     * Stops the server, answering the requests that are being handled
+     * first.
+     */
+    public void stop() {
+	server.stop(0);
+	executor.shutdown();
+    }
+
+    public int getPort() {
+	return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of entries that have been accepted since the
+     * server was created.
+     *
+     * @return The number of accepted entries.
+     */
+    public long getSubmissionCount() {
+	return submissions.get();
+    }
+
+    /**
+     * Returns the best entries.
+     *
+     * @param limit The largest number of entries to return.
+     * @return The best entries, best first.
+     */
+    public List<LeaderboardEntry> getTop(final int limit) {
+	synchronized (entries) {
+	    return new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+	}
+    }
+
+    /**
+     * Puts an entry in its place among the best entries, and forgets the
+     * worst entry if there are too many.
+     *
+     * @return False if the server already has the entry.
+     */
+    private boolean add(final LeaderboardEntry entry) {
+	synchronized (entries) {
+	    if (ids.contains(entry.getId())) {
+		return false;
+	    }
+	    final int search = Collections.binarySearch(entries, entry, LeaderboardEntry.BEST_FIRST);
+	    final int index = search >= 0 ? search + 1 : -search - 1;
+	    if (index < capacity) {
+		entries.add(index, entry);
+		ids.add(entry.getId());
+		if (entries.size() > capacity) {
+		    ids.remove(entries.removeLast().getId());
+		}
+	    }
+	}
+	submissions.incrementAndGet();
+	return true;
+    }
+
+    private void handleScores(final HttpExchange exchange) throws IOException {
+	try (exchange) {
+	    if (!exchange.getRequestMethod().equals("POST")) {
+		respond(exchange, 405, "{\"error\":\"use POST\"}");
+		return;
+	    }
+	    final List<LeaderboardEntry> submitted;
+	    try (InputStream body = exchange.getRequestBody()) {
+		final byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+		if (bytes.length > MAX_BODY_BYTES) {
+		    respond(exchange, 413, "{\"error\":\"too many entries\"}");
+		    return;
+		}
+		submitted = gson.fromJson(new String(bytes, StandardCharsets.UTF_8), ENTRY_LIST);
+	    } catch (JsonParseException e) {
+		respond(exchange, 400, "{\"error\":\"malformed entries\"}");
+		return;
+	    }
+	    if (submitted == null) {
+		respond(exchange, 400, "{\"error\":\"no entries\"}");
+		return;
+	    }
+	    final SubmitResult result = new SubmitResult();
+	    for (int i = 0; i < submitted.size(); i++) {
+		final LeaderboardEntry entry = submitted.get(i);
+		if (entry == null || !entry.isValid()) {
+		    result.rejected.add(i);
+		} else if (add(entry)) {
+		    result.accepted += 1;
+		} else {
+		    result.duplicates.add(i);
+		}
+	    }
+	    respond(exchange, 200, gson.toJson(result));
+	}
+    }
+
+    private void handleTop(final HttpExchange exchange) throws IOException {
+	try (exchange) {
+	    if (!exchange.getRequestMethod().equals("GET")) {
+		respond(exchange, 405, "{\"error\":\"use GET\"}");
+		return;
+	    }
+	    int limit = DEFAULT_LIMIT;
+	    final String query = exchange.getRequestURI().getQuery();
+	    if (query != null) {
+		for (String parameter : query.split("&")) {
+		    if (parameter.startsWith("limit=")) {
+			try {
+			    limit = Integer.parseInt(parameter.substring("limit=".length()));
+			} catch (NumberFormatException e) {
+			    respond(exchange, 400, "{\"error\":\"malformed limit\"}");
+			    return;
+			}
+		    }
+		}
+	    }
+	    respond(exchange, 200, gson.toJson(getTop(Math.max(0, Math.min(limit, capacity)))));
+	}
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final String json) throws IOException {
+	final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+	exchange.getResponseHeaders().set("Content-Type", "application/json");
+	exchange.sendResponseHeaders(status, bytes.length);
+	try (OutputStream body = exchange.getResponseBody()) {
+	    body.write(bytes);
+	}
+    }
+
+    /**
+     * Runs a stand-in server until the process is killed.
+     *
+     * @param args Command-line arguments, see the help text.
+     */
+    public static void main(String[] args) throws IOException {
+	final Options options = new Options();
+	options.addOption("p", "port", true, "port to listen on (default " + DEFAULT_PORT + ")");
+	options.addOption("c", "capacity", true, "number of best scores to keep (default " + DEFAULT_CAPACITY + ")");
+	final CommandLine line;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	} catch (ParseException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("LeaderboardServer", options);
+	    return;
+	}
+	final int port = Integer.parseInt(line.getOptionValue("port", String.valueOf(DEFAULT_PORT)));
+	final int capacity = Integer.parseInt(line.getOptionValue("capacity", String.valueOf(DEFAULT_CAPACITY)));
+	new LeaderboardServer(port, capacity).start();
+    }
+}
@@ -0,0 +1,32 @@
+package se.liu.kevma271.flappybird.leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The answer of the leaderboard server to a batch of entries.
+ * <p>
+ *     The server answers for every entry on its own, by its index in the
+ *     batch, so that the client only drops the entries that the server
+ *     will never take and does not send again the ones it already has.
+ *     The field names are part of the protocol.
+ * </p>
+ */
+class SubmitResult {
+    /**
+     * The number of entries that were new to the server.
+     */
+    int accepted = 0;
+
+    /**
+     * The indices of the entries that the server will never take, for
+     * example because a field is missing.
+     */
+    List<Integer> rejected = new ArrayList<>();
+
+    /**
+     * The indices of the entries that the server already had, sent again
+     * after an answer was lost.
+     */
+    List<Integer> duplicates = new ArrayList<>();
+}
@@ -22,13 +22,10 @@ public class Bird extends Handler {
     public void setType(PowerUp type) {
 	this.type = type;
     }
-    public void setPosX(final int posX) {
-	this.posX = posX;
-    }
     public void updatePosY(final int posY) {
         this.posY += posY;
     }
-    public void updateSpeed(final double velocityChange) {
+    public void updateSpeed(final int velocityChange) {
         this.speed += velocityChange;
     }
 }
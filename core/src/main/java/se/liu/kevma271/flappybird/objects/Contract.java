@@ -9,5 +9,5 @@ public interface Contract {
     public int getHeight();
     public int getPosX();
     public int getPosY();
-    public double getSpeed();
+    public int getSpeed();
 }
@@ -0,0 +1,60 @@
+package se.liu.kevma271.flappybird.objects;
+
+/**
+ * Conversions for the fixed-point numbers used by the physics of the game.
+ * <p>
+ *     Speeds and accelerations are kept as integers counting 1/256 of a
+ *     pixel, so that every tick is computed with integer arithmetic only.
+ *     The same inputs then give exactly the same game on every platform
+ *     and JVM, which replays, rollback and score verification rely on.
+ *     Positions are still whole pixels. A speed is turned into a whole
+ *     number of pixels by rounding towards zero, like the cast from a
+ *     floating-point speed that the game used before.
+ * </p>
+ */
+public final class FixedPoint {
+    /**
+     * The number of fraction bits.
+     */
+    public static final int FRACTION_BITS = 8;
+
+    /**
+     * One pixel in fixed-point units.
+     */
+    public static final int ONE = 1 << FRACTION_BITS;
+
+    private FixedPoint() {}
+
+    /**
+     * Converts a whole number of pixels to fixed-point units.
+     *
+     * @param pixels The number of pixels.
+     * @return The same distance in fixed-point units.
+     */
+    public static int fromPixels(final int pixels) {
+	return pixels << FRACTION_BITS;
+    }
+
+    /**
+     * Converts a fixed-point value to whole pixels, rounding towards
+     * zero. Unlike an arithmetic shift, this rounds negative values up,
+     * so that -1.5 pixels becomes -1 and not -2.
+     *
+     * @param value The value in fixed-point units.
+     * @return The whole number of pixels.
+     */
+    public static int toPixels(final int value) {
+	return value / ONE;
+    }
+
+    /**
+     * Converts a fixed-point value to pixels as a floating-point number,
+     * for code that only reads the value.
+     *
+     * @param value The value in fixed-point units.
+     * @return The value in pixels.
+     */
+    public static double toDouble(final int value) {
+	return (double) value / ONE;
+    }
+}
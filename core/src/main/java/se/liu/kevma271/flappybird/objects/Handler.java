@@ -0,0 +1,75 @@
+package se.liu.kevma271.flappybird.objects;
+
+/**
+ * Abstract class providing common functionality for handling game objects of
+ * the Flappy Bird game. Classes extending this abstract class should implement
+// * the methods defined in the {@link se.liu.kevma271.flappybird.objects.Contract} interface.
+ */
+public abstract class Handler implements Contract {
+    protected int width;
+    protected int height;
+    protected int posX;
+    /**
+     * Speed in fixed-point units per tick, see {@link FixedPoint}.
+     */
+    protected int speed = 0;
+    protected int posY = 0;
+
+    /**
+     * Position at the last collision check, used to test the motion
+     * in between two checks.
+     */
+    protected int lastPosX = 0;
+    protected int lastPosY = 0;
+
+    protected Handler(final int width, final int height) {
+	this.width = width;
+	this.height = height;
+    }
+
+    public int getPosX() {
+	return posX;
+    }
+    public int getWidth() {
+	return width;
+    }
+    public int getHeight() {
+	return height;
+    }
+    public int getSpeed() {
+	return speed;
+    }
+    public int getPosY() {
+	return posY;
+    }
+
+    public int getLastPosX() {
+	return lastPosX;
+    }
+    public int getLastPosY() {
+	return lastPosY;
+    }
+
+    /**
+     * Remembers the current position as the position at the last
+     * collision check.
+     */
+    public void rememberPosition() {
+	lastPosX = posX;
+	lastPosY = posY;
+    }
+    public void setLastPosition(final int lastPosX, final int lastPosY) {
+	this.lastPosX = lastPosX;
+	this.lastPosY = lastPosY;
+    }
+
+    public void setPosX(final int posX) {
+	this.posX = posX;
+    }
+    public void setPosY(final int posY) {
+	this.posY = posY;
+    }
+    public void setSpeed(final int speed) {
+	this.speed = speed;
+    }
+}
@@ -1,5 +1,7 @@
 package se.liu.kevma271.flappybird.objects;
 
+import se.liu.kevma271.flappybird.GameSettings;
+
 /**
  * The Pipe class represents an obstacle in the Flappy Bird
  * game that the bird must navigate through.
@@ -7,26 +9,24 @@ package se.liu.kevma271.flappybird.objects;
 public class Pipe extends Handler {
     private static final int WIDTH = 64;
     private static final int HEIGHT = 464;
-    /**
-     * Margin between every couple of pipes.
-     */
-    private static final int MARGIN = 90;
 
     /**
-     * The gap between the lower- and upperpipe.
+     * The upper part of the lowerpipe that looks like a mushroom.
      */
-    private static final int GAP = 140;
-
-    private static final int DEFAULT_SPEED = -5;
-    private static final int INTANGIBILITY_SPEED = -30;
+    private static final  int MUSHROOM = 29;
 
     /**
-     * The upper part of the lowerpipe that looks like a mushroom.
+     * The settings with the gap, margin and speeds of the pipe.
      */
-    private static final  int MUSHROOM = 29;
+    private final GameSettings settings;
 
-    public Pipe() {
+    public Pipe(final GameSettings settings) {
         super(WIDTH, HEIGHT);
+        this.settings = settings;
+    }
+
+    public Pipe() {
+        this(GameSettings.DEFAULT);
     }
 
     /**
@@ -34,24 +34,32 @@ public class Pipe extends Handler {
      * If the starting point is less than -335 - which is the minimum
      * height for the upper pipe, than the default height is used.
      *
+     * @param random A uniformly distributed random number between 0.0
+     *               and 1.0.
      * @return Y-position of where upper pipe shall be drawed.
      */
-    public int getRandomHeight() {
-        int randomHeight = (int) -(HEIGHT * Math.random());
+    public int getRandomHeight(final double random) {
+        int randomHeight = (int) -(HEIGHT * random);
         return randomHeight > -335 ? randomHeight : -HEIGHT;
     }
 
     public int getDefaultSpeed() {
-        return DEFAULT_SPEED;
+        return settings.getPipeSpeed();
     }
     public int getIntangibilitySpeed() {
-        return INTANGIBILITY_SPEED;
+        return settings.getIntangibilityPipeSpeed();
     }
+    /**
+     * Returns the gap between the lower- and upperpipe.
+     */
     public int getGap() {
-        return GAP;
+        return settings.getPipeGap();
     }
+    /**
+     * Returns the margin between every couple of pipes.
+     */
     public int getMargin() {
-        return MARGIN;
+        return settings.getPipeMargin();
     }
     public int getMushroom() {
         return MUSHROOM;
@@ -60,7 +68,4 @@ public class Pipe extends Handler {
     public void updatePosX(final int posX) {
         this.posX += posX;
     }
-    public void setSpeed(final double speed) {
-        this.speed = speed;
-    }
 }
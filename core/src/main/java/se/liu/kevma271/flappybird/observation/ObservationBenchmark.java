@@ -0,0 +1,221 @@
+package se.liu.kevma271.flappybird.observation;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.RenderSnapshot;
+import se.liu.kevma271.flappybird.headless.AutopilotPolicy;
+import se.liu.kevma271.flappybird.headless.HeadlessGame;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures how many observations the {@link ObservationRenderer} draws
+ * per second, on one thread and on several threads sharing a renderer.
+ * <p>
+ *     Every thread plays games with the autopilot and draws every frame
+ *     into its own array. Only the drawing is timed, and the bytes that
+ *     the drawing threads allocate are reported where the JVM can tell.
+ *     One observation can be written as a PGM or PPM image to look at.
+ * </p>
+ */
+public final class ObservationBenchmark {
+    private static final int ROUNDS = 3;
+    private static final int PREVIEW_TICK = 150;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private ObservationBenchmark() {}
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Command-line arguments, see {@code --help}.
+     * @throws IOException If the images or the preview can not be read or
+     * written.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+	final Options options = new Options();
+	options.addOption("W", "width", true, "observation width in pixels (default 84)");
+	options.addOption("H", "height", true, "observation height in pixels (default 84)");
+	options.addOption("c", "color", false, "draw ARGB pixels instead of gray levels");
+	options.addOption("n", "frames", true, "frames to draw per thread and round (default 1000000)");
+	options.addOption("t", "threads", true, "threads of the parallel rounds (default all processors)");
+	options.addOption("o", "preview", true, "write one observation to this PGM or PPM file");
+	options.addOption("h", "help", false, "print this help");
+
+	final CommandLine line;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	} catch (ParseException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("ObservationBenchmark", options);
+	    System.exit(2);
+	    return;
+	}
+	if (line.hasOption("h")) {
+	    new HelpFormatter().printHelp("ObservationBenchmark", options);
+	    return;
+	}
+
+	final int width = Integer.parseInt(line.getOptionValue("W", "84"));
+	final int height = Integer.parseInt(line.getOptionValue("H", "84"));
+	final boolean color = line.hasOption("c");
+	final long frames = Long.parseLong(line.getOptionValue("n", "1000000"));
+	final int threads = Integer.parseInt(
+		line.getOptionValue("t", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+	long start = System.nanoTime();
+	final ObservationRenderer renderer = new ObservationRenderer(new Board(new Bird(), 1), width, height);
+	System.out.printf("Decoded and scaled the images to %dx%d in %d ms%n", width, height,
+			  (System.nanoTime() - start) / 1_000_000);
+
+	if (line.hasOption("o")) {
+	    writePreview(renderer, color, line.getOptionValue("o"));
+	}
+
+	for (int round = 1; round <= ROUNDS; round++) {
+	    final Result single = draw(renderer, color, frames, 1L);
+	    System.out.printf("Round %d, 1 thread: %.0f frames/s, %.1f bytes allocated per frame (checksum %d)%n", round,
+			      single.framesPerSecond(), single.bytesPerFrame(), single.checksum);
+	}
+
+	final ExecutorService executor = Executors.newFixedThreadPool(threads);
+	try {
+	    for (int round = 1; round <= ROUNDS; round++) {
+		final List<Future<Result>> futures = new ArrayList<>();
+		start = System.nanoTime();
+		for (int i = 0; i < threads; i++) {
+		    final long seed = i + 1;
+		    futures.add(executor.submit(() -> draw(renderer, color, frames, seed)));
+		}
+		long checksum = 0;
+		for (Future<Result> future : futures) {
+		    checksum += future.get().checksum;
+		}
+		final double seconds = (System.nanoTime() - start) / 1.0e9;
+		System.out.printf("Round %d, %d threads: %.0f frames/s in total, including the game ticks (checksum %d)%n",
+				  round, threads, threads * frames / seconds, checksum);
+	    }
+	} finally {
+	    executor.shutdown();
+	}
+    }
+
+    /**
+     * What one thread measured.
+     */
+    private static final class Result {
+	private final long frames;
+	private final long nanos;
+	private final long bytes;
+	private final long checksum;
+
+	private Result(long frames, long nanos, long bytes, long checksum) {
+	    this.frames = frames;
+	    this.nanos = nanos;
+	    this.bytes = bytes;
+	    this.checksum = checksum;
+	}
+
+	private double framesPerSecond() {
+	    return frames / (nanos / 1.0e9);
+	}
+
+	private double bytesPerFrame() {
+	    return bytes < 0 ? Double.NaN : (double) bytes / frames;
+	}
+    }
+
+    /**
+     * Plays games and draws every frame of them, starting a new game
+     * whenever one ends, until the given number of frames are drawn.
+     */
+    private static Result draw(ObservationRenderer renderer, boolean color, long frames, long seed) {
+	final Board board = new Board(new Bird(), seed);
+	HeadlessGame game = new HeadlessGame(board, new AutopilotPolicy());
+	final RenderSnapshot snapshot = new RenderSnapshot();
+	final int[] argb = new int[renderer.getWidth() * renderer.getHeight()];
+	final byte[] gray = new byte[renderer.getWidth() * renderer.getHeight()];
+
+	long nanos = 0;
+	long bytes = 0;
+	long checksum = 0;
+	for (long frame = 0; frame < frames; frame++) {
+	    if (!game.step()) {
+		board.reset(seed + frame);
+		game = new HeadlessGame(board, new AutopilotPolicy());
+	    }
+	    board.saveRenderSnapshot(snapshot);
+
+	    final long allocatedBefore = allocatedBytes();
+	    final long start = System.nanoTime();
+	    if (color) {
+		renderer.render(snapshot, argb);
+		checksum += argb[(int) (frame % argb.length)];
+	    } else {
+		renderer.render(snapshot, gray);
+		checksum += gray[(int) (frame % gray.length)];
+	    }
+	    nanos += System.nanoTime() - start;
+	    final long allocatedAfter = allocatedBytes();
+	    bytes = allocatedBefore < 0 || bytes < 0 ? -1 : bytes + allocatedAfter - allocatedBefore;
+	}
+	return new Result(frames, nanos, bytes, checksum);
+    }
+
+    /**
+     * Returns the bytes allocated by the current thread so far, or -1 if
+     * the JVM does not tell.
+     */
+    private static long allocatedBytes() {
+	if (THREADS instanceof com.sun.management.ThreadMXBean) {
+	    return ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+	}
+	return -1;
+    }
+
+    private static void writePreview(ObservationRenderer renderer, boolean color, String file) throws IOException {
+	final Board board = new Board(new Bird(), 1);
+	new HeadlessGame(board, new AutopilotPolicy()).run(PREVIEW_TICK);
+	final RenderSnapshot snapshot = new RenderSnapshot();
+	board.saveRenderSnapshot(snapshot);
+
+	final int count = renderer.getWidth() * renderer.getHeight();
+	final byte[] samples;
+	if (color) {
+	    final int[] argb = new int[count];
+	    renderer.render(snapshot, argb);
+	    samples = new byte[3 * count];
+	    for (int i = 0; i < count; i++) {
+		samples[3 * i] = (byte) (argb[i] >> 16);
+		samples[3 * i + 1] = (byte) (argb[i] >> 8);
+		samples[3 * i + 2] = (byte) argb[i];
+	    }
+	} else {
+	    samples = new byte[count];
+	    renderer.render(snapshot, samples);
+	}
+	try (OutputStream out = Files.newOutputStream(Paths.get(file))) {
+	    final String header = (color ? "P6" : "P5") + "\n" + renderer.getWidth() + " " + renderer.getHeight() + "\n255\n";
+	    out.write(header.getBytes(StandardCharsets.US_ASCII));
+	    out.write(samples);
+	}
+	System.out.println("Wrote the observation after " + board.getTickCount() + " ticks to " + file);
+    }
+}
@@ -0,0 +1,309 @@
+package se.liu.kevma271.flappybird.observation;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.RenderSnapshot;
+import se.liu.kevma271.flappybird.images.ArgbImage;
+import se.liu.kevma271.flappybird.images.GameImages;
+import se.liu.kevma271.flappybird.objects.Bird;
+import se.liu.kevma271.flappybird.objects.Pipe;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Draws render snapshots into pixel arrays without the desktop modules,
+ * to be used as observations by agents that learn from the screen.
+ * <p>
+ *     The board is drawn like on the game screen, with the background,
+ *     the pipes, the ground and the bird image of the current power up,
+ *     but scaled to a size of choice, for example 84 by 84. The score is
+ *     not drawn since drawing text needs the desktop modules.
+ * </p>
+ * <p>
+ *     Every image is scaled to its drawn size once, when the renderer is
+ *     created, with a box filter that averages all image pixels under
+ *     each observation pixel. Pixels that are at least half opaque are
+ *     drawn and the others are not, and the drawn pixels of every row are
+ *     kept as runs, so that drawing a frame is only copying runs of
+ *     pixels into the caller's array. Drawing allocates nothing.
+ * </p>
+ * <p>
+ *     The renderer is never changed after it is created, so one renderer
+ *     can be used by any number of threads at once as long as each
+ *     thread draws into its own array.
+ * </p>
+ */
+public class ObservationRenderer {
+    private static final int OPAQUE = 0xFF000000;
+    private static final int HALF_OPAQUE = 128;
+
+    private final int boardWidth;
+    private final int boardHeight;
+    private final int width;
+    private final int height;
+    private final Map<GameImages, Sprite> sprites = new EnumMap<>(GameImages.class);
+
+    /**
+     * Creates a renderer for boards of the same size, and with the same
+     * bird and pipe sizes, as the given board, and decodes and scales all
+     * images.
+     *
+     * @param board  A board like the ones that will be drawn.
+     * @param width  The width of the observations in pixels.
+     * @param height The height of the observations in pixels.
+     * @throws IOException If an image can not be read.
+     */
+    public ObservationRenderer(final Board board, final int width, final int height) throws IOException {
+	if (width <= 0 || height <= 0) {
+	    throw new IllegalArgumentException("Bad observation size " + width + "x" + height);
+	}
+	this.boardWidth = board.getWidth();
+	this.boardHeight = board.getHeight();
+	this.width = width;
+	this.height = height;
+
+	final Bird bird = board.getBird();
+	final Pipe pipe = new Pipe(board.getSettings());
+	for (GameImages image : GameImages.values()) {
+	    final int drawnWidth;
+	    final int drawnHeight;
+	    switch (image) {
+		case BACKGROUND:
+		    drawnWidth = boardWidth;
+		    drawnHeight = boardHeight;
+		    break;
+		case FLOOR:
+		    drawnWidth = GameImages.GROUND_WIDTH;
+		    drawnHeight = GameImages.GROUND_HEIGHT;
+		    break;
+		case TOP_PIPE:
+		case BOTTOM_PIPE:
+		    drawnWidth = pipe.getWidth();
+		    drawnHeight = pipe.getHeight();
+		    break;
+		default:
+		    drawnWidth = bird.getWidth();
+		    drawnHeight = bird.getHeight();
+		    break;
+	    }
+	    sprites.put(image, new Sprite(image.decode(), scaleX(drawnWidth), scaleY(drawnHeight)));
+	}
+    }
+
+    /**
+     * Draws a snapshot as opaque 0xAARRGGBB pixels, row by row.
+     *
+     * @param snapshot The state of the board to draw.
+     * @param pixels   The array to draw into, at least as long as the
+     *                 number of observation pixels.
+     */
+    public void render(RenderSnapshot snapshot, int[] pixels) {
+	checkSize(snapshot, pixels.length);
+	sprites.get(GameImages.BACKGROUND).draw(pixels, 0, 0, width, height);
+	final int pipeHeight = snapshot.getPipeHeight();
+	for (int i = 0; i < snapshot.getPipeCount(); i++) {
+	    final int pipeX = snapshot.getPipePosX(i);
+	    final int pipeY = snapshot.getPipePosY(i);
+	    sprites.get(GameImages.TOP_PIPE).draw(pixels, scaleX(pipeX), scaleY(pipeY), width, height);
+	    sprites.get(GameImages.BOTTOM_PIPE)
+		    .draw(pixels, scaleX(pipeX), scaleY(pipeY + pipeHeight + snapshot.getPipeGap()), width, height);
+	}
+	sprites.get(GameImages.FLOOR).draw(pixels, 0, scaleY(GameImages.GROUND_Y_POSITION), width, height);
+	sprites.get(GameImages.forBird(snapshot.getBirdType()))
+		.draw(pixels, scaleX(snapshot.getBirdPosX()), scaleY(snapshot.getBirdPosY()), width, height);
+    }
+
+    /**
+     * Draws a snapshot as gray levels from 0 to 255, one unsigned byte
+     * per pixel, row by row.
+     *
+     * @param snapshot The state of the board to draw.
+     * @param pixels   The array to draw into, at least as long as the
+     *                 number of observation pixels.
+     */
+    public void render(RenderSnapshot snapshot, byte[] pixels) {
+	checkSize(snapshot, pixels.length);
+	sprites.get(GameImages.BACKGROUND).draw(pixels, 0, 0, width, height);
+	final int pipeHeight = snapshot.getPipeHeight();
+	for (int i = 0; i < snapshot.getPipeCount(); i++) {
+	    final int pipeX = snapshot.getPipePosX(i);
+	    final int pipeY = snapshot.getPipePosY(i);
+	    sprites.get(GameImages.TOP_PIPE).draw(pixels, scaleX(pipeX), scaleY(pipeY), width, height);
+	    sprites.get(GameImages.BOTTOM_PIPE)
+		    .draw(pixels, scaleX(pipeX), scaleY(pipeY + pipeHeight + snapshot.getPipeGap()), width, height);
+	}
+	sprites.get(GameImages.FLOOR).draw(pixels, 0, scaleY(GameImages.GROUND_Y_POSITION), width, height);
+	sprites.get(GameImages.forBird(snapshot.getBirdType()))
+		.draw(pixels, scaleX(snapshot.getBirdPosX()), scaleY(snapshot.getBirdPosY()), width, height);
+    }
+
+    private void checkSize(RenderSnapshot snapshot, int length) {
+	if (snapshot.getBoardWidth() != boardWidth || snapshot.getBoardHeight() != boardHeight) {
+	    throw new IllegalArgumentException(
+		    "Snapshot of a " + snapshot.getBoardWidth() + "x" + snapshot.getBoardHeight() +
+		    " board given to a renderer for " + boardWidth + "x" + boardHeight + " boards");
+	}
+	if (length < width * height) {
+	    throw new IllegalArgumentException(
+		    "Array of " + length + " pixels is too small for " + width + "x" + height + " observations");
+	}
+    }
+
+    /**
+     * Scales a position or length on the board to observation pixels,
+     * rounding down also for positions left of or above the board.
+     */
+    private int scaleX(int x) {
+	return Math.floorDiv(x * width, boardWidth);
+    }
+
+    private int scaleY(int y) {
+	return Math.floorDiv(y * height, boardHeight);
+    }
+
+    public int getWidth() {
+	return width;
+    }
+    public int getHeight() {
+	return height;
+    }
+
+    /**
+     * An image scaled to the size it is drawn at, in both pixel formats,
+     * with the runs of drawn pixels of every row.
+     */
+    private static final class Sprite {
+	private final int width;
+	private final int height;
+	private final int[] argb;
+	private final byte[] gray;
+
+	/**
+	 * Where the runs of every row start in {@link #runs}, and one past
+	 * the last row where they end.
+	 */
+	private final int[] rowRuns;
+
+	/**
+	 * The first and one past the last column of every run.
+	 */
+	private final int[] runs;
+
+	private Sprite(ArgbImage image, int width, int height) {
+	    this.width = Math.max(1, width);
+	    this.height = Math.max(1, height);
+	    this.argb = new int[this.width * this.height];
+	    this.gray = new byte[this.width * this.height];
+	    this.rowRuns = new int[this.height + 1];
+
+	    final boolean[] drawn = new boolean[argb.length];
+	    int runCount = 0;
+	    for (int y = 0; y < this.height; y++) {
+		final int sourceTop = (int) ((long) y * image.getHeight() / this.height);
+		final int sourceBottom = Math.max(sourceTop + 1, (int) ((long) (y + 1) * image.getHeight() / this.height));
+		boolean previousDrawn = false;
+		for (int x = 0; x < this.width; x++) {
+		    final int sourceLeft = (int) ((long) x * image.getWidth() / this.width);
+		    final int sourceRight = Math.max(sourceLeft + 1, (int) ((long) (x + 1) * image.getWidth() / this.width));
+		    final int pixel = average(image, sourceLeft, sourceTop, sourceRight, sourceBottom);
+		    final int index = y * this.width + x;
+		    argb[index] = pixel | OPAQUE;
+		    gray[index] = (byte) toGray(pixel);
+		    drawn[index] = pixel >>> 24 >= HALF_OPAQUE;
+		    if (drawn[index] && !previousDrawn) {
+			runCount += 1;
+		    }
+		    previousDrawn = drawn[index];
+		}
+	    }
+
+	    this.runs = new int[2 * runCount];
+	    int run = 0;
+	    for (int y = 0; y < this.height; y++) {
+		rowRuns[y] = run;
+		int x = 0;
+		while (x < this.width) {
+		    if (!drawn[y * this.width + x]) {
+			x += 1;
+			continue;
+		    }
+		    runs[2 * run] = x;
+		    while (x < this.width && drawn[y * this.width + x]) {
+			x += 1;
+		    }
+		    runs[2 * run + 1] = x;
+		    run += 1;
+		}
+	    }
+	    rowRuns[this.height] = run;
+	}
+
+	/**
+	 * Averages the pixels of a rectangle of the image, weighting the
+	 * colors by their alpha so that transparent pixels do not darken
+	 * the edges.
+	 */
+	private static int average(ArgbImage image, int left, int top, int right, int bottom) {
+	    long alpha = 0;
+	    long red = 0;
+	    long green = 0;
+	    long blue = 0;
+	    for (int y = top; y < bottom; y++) {
+		for (int x = left; x < right; x++) {
+		    final int pixel = image.getPixel(x, y);
+		    final int a = pixel >>> 24;
+		    alpha += a;
+		    red += a * ((pixel >> 16) & 0xFF);
+		    green += a * ((pixel >> 8) & 0xFF);
+		    blue += a * (pixel & 0xFF);
+		}
+	    }
+	    if (alpha == 0) {
+		return 0;
+	    }
+	    final long count = (long) (right - left) * (bottom - top);
+	    return (int) ((alpha + count / 2) / count) << 24 | (int) ((red + alpha / 2) / alpha) << 16 |
+		   (int) ((green + alpha / 2) / alpha) << 8 | (int) ((blue + alpha / 2) / alpha);
+	}
+
+	/**
+	 * Returns the luma of a color with the weights of ITU-R BT.601.
+	 */
+	private static int toGray(int pixel) {
+	    return (299 * ((pixel >> 16) & 0xFF) + 587 * ((pixel >> 8) & 0xFF) + 114 * (pixel & 0xFF) + 500) / 1000;
+	}
+
+	private void draw(int[] target, int left, int top, int targetWidth, int targetHeight) {
+	    final int firstRow = Math.max(0, -top);
+	    final int lastRow = Math.min(height, targetHeight - top);
+	    for (int y = firstRow; y < lastRow; y++) {
+		final int source = y * width;
+		final int destination = (top + y) * targetWidth + left;
+		for (int run = rowRuns[y]; run < rowRuns[y + 1]; run++) {
+		    final int start = Math.max(runs[2 * run], -left);
+		    final int end = Math.min(runs[2 * run + 1], targetWidth - left);
+		    if (start < end) {
+			System.arraycopy(argb, source + start, target, destination + start, end - start);
+		    }
+		}
+	    }
+	}
+
+	private void draw(byte[] target, int left, int top, int targetWidth, int targetHeight) {
+	    final int firstRow = Math.max(0, -top);
+	    final int lastRow = Math.min(height, targetHeight - top);
+	    for (int y = firstRow; y < lastRow; y++) {
+		final int source = y * width;
+		final int destination = (top + y) * targetWidth + left;
+		for (int run = rowRuns[y]; run < rowRuns[y + 1]; run++) {
+		    final int start = Math.max(runs[2 * run], -left);
+		    final int end = Math.min(runs[2 * run + 1], targetWidth - left);
+		    if (start < end) {
+			System.arraycopy(gray, source + start, target, destination + start, end - start);
+		    }
+		}
+	    }
+	}
+    }
+}
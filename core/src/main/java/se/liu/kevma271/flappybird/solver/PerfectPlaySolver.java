@@ -0,0 +1,304 @@
+package se.liu.kevma271.flappybird.solver;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.BoardSnapshot;
+import se.liu.kevma271.flappybird.Direction;
+import se.liu.kevma271.flappybird.GameSettings;
+import se.liu.kevma271.flappybird.course.CourseFile;
+import se.liu.kevma271.flappybird.course.CourseSource;
+import se.liu.kevma271.flappybird.course.GeneratedCourse;
+import se.liu.kevma271.flappybird.headless.AutopilotPolicy;
+import se.liu.kevma271.flappybird.headless.FlapPolicy;
+import se.liu.kevma271.flappybird.headless.HeadlessGame;
+import se.liu.kevma271.flappybird.headless.ReplayPolicy;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Finds out whether a course can be survived up to a tick limit, and a
+ * flap sequence that does it, by searching over the states of a board.
+ * <p>
+ *     On every tick the bird either flaps or does not, and the search
+ *     goes depth first over these choices, saving the board into a
+ *     {@link BoardSnapshot} on every level and restoring it to try the
+ *     other choice. The choice of the autopilot is tried first, so on
+ *     most courses the search goes almost straight to the limit.
+ * </p>
+ * <p>
+ *     Everything on the board except the bird depends only on the tick:
+ *     the pipes come from the course, and the power-ups are drawn from
+ *     the random numbers on ticks that were scheduled before. So two
+ *     states on the same tick with the same bird position and speed have
+ *     the same future, and the tick, position and speed are the whole
+ *     key of the transposition table. No quantizing is needed, so
+ *     pruning a state that is known to die never loses a solution. Every
+ *     state whose choices have all died is added to the table.
+ * </p>
+ * <p>
+ *     A solver reuses its table and snapshots between courses, and is
+ *     therefore not thread safe. Use one solver per thread.
+ * </p>
+ */
+public class PerfectPlaySolver {
+    /**
+     * The size of the transposition table as a power of two, 4M states
+     * or 32 MB.
+     */
+    public static final int DEFAULT_TABLE_BITS = 22;
+
+    private static final int DEFAULT_SAFETY_MARGIN = 20;
+
+    private final TranspositionTable table;
+    private final FlapPolicy ordering = new AutopilotPolicy(DEFAULT_SAFETY_MARGIN);
+
+    /**
+     * The state on every level of the current search path, with its
+     * key, the choice that is tried first there, and how many choices
+     * there are and have been tried.
+     */
+    private BoardSnapshot[] snapshots = new BoardSnapshot[0];
+    private long[] keys = new long[0];
+    private boolean[] flapFirst = new boolean[0];
+    private byte[] choices = new byte[0];
+    private byte[] tried = new byte[0];
+
+    public PerfectPlaySolver(final int tableBits) {
+	this.table = new TranspositionTable(tableBits);
+    }
+
+    public PerfectPlaySolver() {
+	this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Searches for a flap sequence that survives from the current state
+     * of the board up to the given tick. If the game has not started,
+     * it is started with a flap like a player has to.
+     * <p>
+     *     The board is played on by the search and is left in whatever
+     *     state the search ended in.
+     * </p>
+     *
+     * @param board    The board to solve, which must not be over.
+     * @param maxTicks The tick count to survive up to.
+     * @param maxNodes The most ticks to simulate before giving up.
+     * @return What was found out, with the flap ticks of the whole game
+     * if it can be survived.
+     */
+    public SolverResult solve(Board board, long maxTicks, long maxNodes) {
+	if (board.isGameOver()) {
+	    throw new IllegalArgumentException("The game on the board is already over");
+	}
+	final long start = System.nanoTime();
+	table.clear();
+	final long startTick = board.getTickCount();
+	if (startTick >= maxTicks) {
+	    return result(Solvability.BEATABLE, board.getFlapTicks(), startTick, 0, start);
+	}
+	if (maxTicks - startTick >= Integer.MAX_VALUE) {
+	    throw new IllegalArgumentException("Can not search " + (maxTicks - startTick) + " ticks deep");
+	}
+
+	int depth = 0;
+	enter(board, depth, TranspositionTable.key(startTick, board.getBird().getPosY(), board.getBird().getSpeed()));
+	long nodes = 0;
+	long deepestTick = startTick;
+	while (depth >= 0) {
+	    if (tried[depth] == choices[depth]) {
+		// Every choice died, so this state dies as well
+		table.add(keys[depth]);
+		depth -= 1;
+		continue;
+	    }
+	    if (nodes >= maxNodes) {
+		return result(Solvability.UNKNOWN, null, deepestTick, nodes, start);
+	    }
+	    if (tried[depth] > 0) {
+		board.restoreSnapshot(snapshots[depth]);
+	    }
+
+	    final boolean flap = tried[depth] == 0 ? flapFirst[depth] : !flapFirst[depth];
+	    tried[depth] += 1;
+	    if (flap) {
+		board.moveBird(Direction.UP);
+	    }
+	    board.tick();
+	    nodes += 1;
+	    if (board.isGameOver()) {
+		continue;
+	    }
+
+	    final long tick = board.getTickCount();
+	    deepestTick = Math.max(deepestTick, tick);
+	    if (tick >= maxTicks) {
+		return result(Solvability.BEATABLE, board.getFlapTicks(), deepestTick, nodes, start);
+	    }
+	    final long key = TranspositionTable.key(tick, board.getBird().getPosY(), board.getBird().getSpeed());
+	    if (!table.contains(key)) {
+		depth += 1;
+		enter(board, depth, key);
+	    }
+	}
+	return result(Solvability.UNBEATABLE, null, deepestTick, nodes, start);
+    }
+
+    /**
+     * Saves the current state of the board as the given level of the
+     * search path, and decides which choice to try first.
+     */
+    private void enter(Board board, int depth, long key) {
+	if (depth == snapshots.length) {
+	    final int capacity = Math.max(64, depth * 2);
+	    snapshots = Arrays.copyOf(snapshots, capacity);
+	    keys = Arrays.copyOf(keys, capacity);
+	    flapFirst = Arrays.copyOf(flapFirst, capacity);
+	    choices = Arrays.copyOf(choices, capacity);
+	    tried = Arrays.copyOf(tried, capacity);
+	}
+	if (snapshots[depth] == null) {
+	    snapshots[depth] = new BoardSnapshot();
+	}
+	board.saveSnapshot(snapshots[depth]);
+	keys[depth] = key;
+	// Before the first flap the board does not tick, so flapping is the only choice
+	choices[depth] = (byte) (board.isRunning() ? 2 : 1);
+	flapFirst[depth] = !board.isRunning() || ordering.shouldFlap(board);
+	tried[depth] = 0;
+    }
+
+    private SolverResult result(Solvability solvability, long[] flapTicks, long deepestTick, long nodes, long start) {
+	return new SolverResult(solvability, flapTicks, deepestTick, nodes, table.getProbes(), table.getHits(),
+				table.getEvictions(), System.nanoTime() - start);
+    }
+
+    private static Board newBoard(long seed, LongFunction<CourseSource> courses, GameSettings settings) {
+	return new Board(new Bird(), seed, courses.apply(seed), settings);
+    }
+
+    /**
+     * Solves a range of generated courses, checks every solution by
+     * playing it again, and compares the courses with how long the
+     * autopilot survives on them. A course file or a daily challenge
+     * can be solved instead, and the first beatable course can be
+     * written to a course file.
+     *
+     * @param args Command-line arguments, see the help text.
+     */
+    public static void main(String[] args) {
+	final Options options = new Options();
+	options.addOption("s", "seeds", true, "number of courses to solve (default 20)");
+	options.addOption("f", "first", true, "seed of the first course (default 1)");
+	options.addOption("m", "ticks", true, "ticks to survive (default 5000)");
+	options.addOption("n", "nodes", true, "most ticks to simulate per course (default 50000000)");
+	options.addOption("g", "gap", true, "gap between the pipes (default " + GameSettings.DEFAULT.getPipeGap() + ")");
+	options.addOption("b", "bits", true, "transposition table size as a power of two (default " + DEFAULT_TABLE_BITS + ")");
+	options.addOption("c", "course", true, "solve the course in this file on every seed");
+	options.addOption("d", "daily", true, "solve the daily challenge of this date (yyyy-mm-dd) on every seed");
+	options.addOption("o", "save", true, "write the first beatable course to this file");
+	final CommandLine line;
+	LocalDate daily = null;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	    if (line.hasOption("course") && line.hasOption("daily")) {
+		throw new ParseException("Give either a course file or a daily challenge, not both");
+	    }
+	    if (line.hasOption("daily")) {
+		daily = LocalDate.parse(line.getOptionValue("daily"));
+	    }
+	} catch (ParseException | DateTimeParseException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("PerfectPlaySolver", options);
+	    return;
+	}
+	final int seeds = Integer.parseInt(line.getOptionValue("seeds", "20"));
+	final long firstSeed = Long.parseLong(line.getOptionValue("first", "1"));
+	final long maxTicks = Long.parseLong(line.getOptionValue("ticks", "5000"));
+	final long maxNodes = Long.parseLong(line.getOptionValue("nodes", "50000000"));
+	final GameSettings settings = GameSettings.DEFAULT.withPipeGap(
+		Integer.parseInt(line.getOptionValue("gap", String.valueOf(GameSettings.DEFAULT.getPipeGap()))));
+	final int bits = Integer.parseInt(line.getOptionValue("bits", String.valueOf(DEFAULT_TABLE_BITS)));
+	final Path save = line.hasOption("save") ? Paths.get(line.getOptionValue("save")) : null;
+
+	if (line.hasOption("course")) {
+	    try (CourseFile course = CourseFile.open(Paths.get(line.getOptionValue("course")))) {
+		solveAll(seed -> course, settings, firstSeed, seeds, maxTicks, maxNodes, bits, save);
+	    } catch (IOException e) {
+		System.err.println("Could not read course file: " + e.getMessage());
+	    }
+	} else if (daily != null) {
+	    final LocalDate date = daily;
+	    solveAll(seed -> GeneratedCourse.daily(date), settings, firstSeed, seeds, maxTicks, maxNodes, bits, save);
+	} else {
+	    solveAll(GeneratedCourse::new, settings, firstSeed, seeds, maxTicks, maxNodes, bits, save);
+	}
+    }
+
+    /**
+     * Solves the courses of a range of seeds and prints how it went.
+     *
+     * @param courses The course to play on each seed.
+     * @param save    The file to write the first beatable course to, or
+     *                null to write none.
+     */
+    private static void solveAll(final LongFunction<CourseSource> courses, final GameSettings settings, final long firstSeed,
+				 final int seeds, final long maxTicks, final long maxNodes, final int bits, final Path save)
+    {
+	final PerfectPlaySolver solver = new PerfectPlaySolver(bits);
+	System.out.printf("%8s %-11s %8s %6s %10s %12s %12s %8s %9s%n", "seed", "result", "deepest", "flaps", "autopilot",
+			  "nodes", "nodes/s", "hits", "ms");
+	long totalNodes = 0;
+	long totalNanos = 0;
+	int beatable = 0;
+	for (long seed = firstSeed; seed < firstSeed + seeds; seed++) {
+	    final SolverResult result = solver.solve(newBoard(seed, courses, settings), maxTicks, maxNodes);
+	    totalNodes += result.getNodes();
+	    totalNanos += result.getNanos();
+
+	    final Board autopilot = newBoard(seed, courses, settings);
+	    new HeadlessGame(autopilot, new AutopilotPolicy()).run(maxTicks);
+
+	    String flaps = "-";
+	    if (result.isBeatable()) {
+		beatable += 1;
+		flaps = String.valueOf(result.getFlapTicks().length);
+		final Board replay = newBoard(seed, courses, settings);
+		new HeadlessGame(replay, new ReplayPolicy(result.getFlapTicks())).run(maxTicks);
+		if (replay.isGameOver() || replay.getTickCount() < maxTicks) {
+		    throw new IllegalStateException("The solution of seed " + seed + " died on tick " + replay.getTickCount());
+		}
+		if (save != null && beatable == 1) {
+		    saveCourse(save, replay);
+		}
+	    }
+	    System.out.printf("%8d %-11s %8d %6s %10d %,12d %,12.0f %7.1f%% %9.1f%n", seed, result.getSolvability(),
+			      result.getDeepestTick(), flaps, autopilot.getTickCount(), result.getNodes(),
+			      result.getNodesPerSecond(), 100 * result.getCacheHitRate(), result.getNanos() / 1.0e6);
+	}
+	System.out.printf("%d of %d courses beatable up to tick %d, %,.0f nodes/s over all courses%n", beatable, seeds,
+			  maxTicks, totalNodes / (totalNanos / 1.0e9));
+    }
+
+    /**
+     * Writes the pipes a solved game has used to a course file.
+     */
+    private static void saveCourse(final Path path, final Board board) {
+	try {
+	    CourseFile.write(path, board.getCourse(), board.getPipeCount());
+	    System.out.printf("Wrote %d pipes of seed %d to %s%n", board.getPipeCount(), board.getSeed(), path);
+	} catch (IOException e) {
+	    System.err.println("Could not write course file: " + e.getMessage());
+	}
+    }
+}
@@ -0,0 +1,13 @@
+package se.liu.kevma271.flappybird.solver;
+
+/**
+ * Enum representing what the solver found out about a course.
+ * <p>
+ *     BEATABLE means that a flap sequence survives up to the tick limit
+ *     and UNBEATABLE that every flap sequence dies before it. UNKNOWN
+ *     means the solver ran out of nodes before it knew either way.
+ * </p>
+ */
+public enum Solvability {
+    BEATABLE, UNBEATABLE, UNKNOWN
+}
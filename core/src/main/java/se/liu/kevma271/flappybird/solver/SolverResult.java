@@ -0,0 +1,91 @@
+package se.liu.kevma271.flappybird.solver;
+
+/**
+ * The outcome of solving one course, and what the search cost.
+ */
+public class SolverResult {
+    private final Solvability solvability;
+    private final long[] flapTicks;
+    private final long deepestTick;
+    private final long nodes;
+    private final long cacheProbes;
+    private final long cacheHits;
+    private final long cacheEvictions;
+    private final long nanos;
+
+    /**
+     * Creates a result.
+     *
+     * @param solvability    What was found out about the course.
+     * @param flapTicks      The ticks to flap on to survive, or null if
+     *                       the course was not found to be beatable.
+     * @param deepestTick    The latest tick that any searched flap
+     *                       sequence survived to.
+     * @param nodes          The number of ticks that were simulated.
+     * @param cacheProbes    The number of states looked up in the
+     *                       transposition table.
+     * @param cacheHits      The number of them that were known to die.
+     * @param cacheEvictions The number of known states that were
+     *                       dropped to make room for others.
+     * @param nanos          The time the search took.
+     */
+    public SolverResult(final Solvability solvability, final long[] flapTicks, final long deepestTick, final long nodes,
+			final long cacheProbes, final long cacheHits, final long cacheEvictions, final long nanos)
+    {
+	this.solvability = solvability;
+	this.flapTicks = flapTicks;
+	this.deepestTick = deepestTick;
+	this.nodes = nodes;
+	this.cacheProbes = cacheProbes;
+	this.cacheHits = cacheHits;
+	this.cacheEvictions = cacheEvictions;
+	this.nanos = nanos;
+    }
+
+    /**
+     * Returns how many ticks were simulated per second of search.
+     *
+     * @return The nodes per second.
+     */
+    public double getNodesPerSecond() {
+	return nanos == 0 ? 0 : nodes / (nanos / 1.0e9);
+    }
+
+    /**
+     * Returns the share of the states looked up in the transposition
+     * table that were pruned because they were known to die.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    public double getCacheHitRate() {
+	return cacheProbes == 0 ? 0 : (double) cacheHits / cacheProbes;
+    }
+
+    public Solvability getSolvability() {
+	return solvability;
+    }
+    public boolean isBeatable() {
+	return solvability == Solvability.BEATABLE;
+    }
+    public long[] getFlapTicks() {
+	return flapTicks == null ? null : flapTicks.clone();
+    }
+    public long getDeepestTick() {
+	return deepestTick;
+    }
+    public long getNodes() {
+	return nodes;
+    }
+    public long getCacheProbes() {
+	return cacheProbes;
+    }
+    public long getCacheHits() {
+	return cacheHits;
+    }
+    public long getCacheEvictions() {
+	return cacheEvictions;
+    }
+    public long getNanos() {
+	return nanos;
+    }
+}
@@ -0,0 +1,138 @@
+package se.liu.kevma271.flappybird.solver;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size hash set of the search states that are known to die
+ * before the tick limit.
+ * <p>
+ *     A state is packed into a single long, see {@link #key(long, int,
+ *     int)}, so the table is one array of longs and looking a state up
+ *     never allocates. The table is split into buckets of four slots.
+ *     When a bucket is full, the state with the earliest tick is evicted,
+ *     since the search backtracks mostly over the last few ticks and
+ *     rarely comes back to early states.
+ * </p>
+ */
+class TranspositionTable {
+    /**
+     * Returned by {@link #key(long, int, int)} for states that can not
+     * be packed, which are never stored.
+     */
+    static final long NO_KEY = 0;
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int FIELD_OFFSET = 1 << 15;
+    private static final int FIELD_MASK = 0xFFFF;
+
+    private final long[] keys;
+    private final int shift;
+    private long probes = 0;
+    private long hits = 0;
+    private long evictions = 0;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param bits The table holds 2 to the power of bits states.
+     */
+    TranspositionTable(final int bits) {
+	if (bits < 2 || bits > 30) {
+	    throw new IllegalArgumentException("Bad table size 2^" + bits);
+	}
+	this.keys = new long[1 << bits];
+	this.shift = 64 - bits;
+    }
+
+    /**
+     * Packs a state into a key. The tick takes the upper 32 bits, and
+     * the position and speed 16 bits each.
+     *
+     * @param tick  The tick count of the board.
+     * @param posY  The y-position of the bird.
+     * @param speed The speed of the bird in fixed-point units.
+     * @return The key, or {@link #NO_KEY} if a value does not fit.
+     */
+    static long key(long tick, int posY, int speed) {
+	if (tick < 0 || tick > Integer.MAX_VALUE || posY < -FIELD_OFFSET || posY >= FIELD_OFFSET ||
+	    speed < -FIELD_OFFSET || speed >= FIELD_OFFSET) {
+	    return NO_KEY;
+	}
+	// The offset position is never zero, so neither is the key
+	return tick << 32 | (long) (posY + FIELD_OFFSET) << 16 | (speed + FIELD_OFFSET) & FIELD_MASK;
+    }
+
+    /**
+     * Returns whether the state is known to die.
+     *
+     * @param key The packed state.
+     * @return True if the state is in the table.
+     */
+    boolean contains(long key) {
+	if (key == NO_KEY) {
+	    return false;
+	}
+	probes += 1;
+	final int bucket = bucketOf(key);
+	for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+	    if (keys[i] == key) {
+		hits += 1;
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Remembers that the state dies, evicting the state with the
+     * earliest tick in its bucket if the bucket is full.
+     *
+     * @param key The packed state.
+     */
+    void add(long key) {
+	if (key == NO_KEY) {
+	    return;
+	}
+	final int bucket = bucketOf(key);
+	int earliest = bucket;
+	for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+	    if (keys[i] == key) {
+		return;
+	    }
+	    if (keys[i] == NO_KEY) {
+		keys[i] = key;
+		return;
+	    }
+	    if (keys[i] >>> 32 < keys[earliest] >>> 32) {
+		earliest = i;
+	    }
+	}
+	keys[earliest] = key;
+	evictions += 1;
+    }
+
+    /**
+     * Forgets all states and resets the counters, which has to be done
+     * before another course is solved.
+     */
+    void clear() {
+	Arrays.fill(keys, NO_KEY);
+	probes = 0;
+	hits = 0;
+	evictions = 0;
+    }
+
+    private int bucketOf(long key) {
+	return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift) & -BUCKET_SIZE;
+    }
+
+    long getProbes() {
+	return probes;
+    }
+    long getHits() {
+	return hits;
+    }
+    long getEvictions() {
+	return evictions;
+    }
+}
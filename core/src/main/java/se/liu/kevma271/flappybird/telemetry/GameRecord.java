@@ -0,0 +1,111 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.DeathCause;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The telemetry record of one finished game.
+ * <p>
+ *     Records are stored in a fixed size binary layout so that telemetry
+ *     files can be read at any record without parsing the ones before
+ *     it.
+ * </p>
+ */
+public class GameRecord {
+    /**
+     * The number of bytes a record takes up in a telemetry file.
+     */
+    public static final int SIZE = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES * 3 + Byte.BYTES;
+
+    private final long seed;
+    private final int score;
+    private final long ticks;
+    private final int flaps;
+    private final int superPowerUps;
+    private final int gravityPowerUps;
+    private final DeathCause deathCause;
+
+    public GameRecord(final long seed, final int score, final long ticks, final int flaps, final int superPowerUps,
+		      final int gravityPowerUps, final DeathCause deathCause)
+    {
+	this.seed = seed;
+	this.score = score;
+	this.ticks = ticks;
+	this.flaps = flaps;
+	this.superPowerUps = superPowerUps;
+	this.gravityPowerUps = gravityPowerUps;
+	this.deathCause = deathCause;
+    }
+
+    /**
+     * Creates the record of the game played on a board.
+     *
+     * @param board The board, usually after the game is over.
+     * @return The record of the game.
+     */
+    public static GameRecord of(final Board board) {
+	return new GameRecord(board.getSeed(), board.getScore(), board.getTickCount(), board.getFlapCount(),
+			      board.getSuperPowerCount(), board.getGravityPowerCount(), board.getDeathCause());
+    }
+
+    /**
+     * Writes the record at the position of the buffer.
+     *
+     * @param buffer A buffer with at least SIZE bytes remaining.
+     */
+    public void writeTo(final ByteBuffer buffer) {
+	buffer.putLong(seed);
+	buffer.putInt(score);
+	buffer.putLong(ticks);
+	buffer.putInt(flaps);
+	buffer.putInt(superPowerUps);
+	buffer.putInt(gravityPowerUps);
+	buffer.put(deathCause == null ? -1 : (byte) deathCause.ordinal());
+    }
+
+    /**
+     * Reads a record from the position of the buffer.
+     *
+     * @param buffer A buffer with at least SIZE bytes remaining.
+     * @return The record that was read.
+     */
+    public static GameRecord readFrom(final ByteBuffer buffer) {
+	final long seed = buffer.getLong();
+	final int score = buffer.getInt();
+	final long ticks = buffer.getLong();
+	final int flaps = buffer.getInt();
+	final int superPowerUps = buffer.getInt();
+	final int gravityPowerUps = buffer.getInt();
+	final byte cause = buffer.get();
+	return new GameRecord(seed, score, ticks, flaps, superPowerUps, gravityPowerUps,
+			      cause < 0 ? null : DeathCause.values()[cause]);
+    }
+
+    public long getSeed() {
+	return seed;
+    }
+    public int getScore() {
+	return score;
+    }
+    public long getTicks() {
+	return ticks;
+    }
+    public int getFlaps() {
+	return flaps;
+    }
+    public int getSuperPowerUps() {
+	return superPowerUps;
+    }
+    public int getGravityPowerUps() {
+	return gravityPowerUps;
+    }
+    /**
+     * Returns what ended the game, or null if the game was not over
+     * when it was recorded.
+     */
+    public DeathCause getDeathCause() {
+	return deathCause;
+    }
+}
@@ -0,0 +1,98 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of game records with any number of producing
+ * threads and a single consuming thread.
+ * <p>
+ *     Every slot has a sequence number that tells whether the slot is
+ *     free for the producer at a position or holds a record for the
+ *     consumer. Producers claim a position with a single compare and
+ *     set and never wait: when the ring is full the record is refused
+ *     instead.
+ * </p>
+ */
+class RecordRing {
+    private final GameRecord[] records;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    /**
+     * Next position to write, shared by all producers.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to read, only touched by the consumer.
+     */
+    private long head = 0;
+
+    /**
+     * Creates a ring.
+     *
+     * @param capacity The number of records that fit, rounded up to a
+     *                 power of two.
+     */
+    RecordRing(final int capacity) {
+	final int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+	records = new GameRecord[size];
+	sequences = new AtomicLongArray(size);
+	for (int i = 0; i < size; i++) {
+	    sequences.set(i, i);
+	}
+	mask = size - 1;
+    }
+
+    /**
+     * Adds a record without blocking.
+     *
+     * @param record The record to add.
+     * @return False if the ring was full and the record was not added.
+     */
+    boolean offer(final GameRecord record) {
+	long position = tail.get();
+	while (true) {
+	    final int index = (int) position & mask;
+	    final long difference = sequences.get(index) - position;
+	    if (difference == 0) {
+		if (tail.compareAndSet(position, position + 1)) {
+		    records[index] = record;
+		    // Publishes the record to the consumer
+		    sequences.set(index, position + 1);
+		    return true;
+		}
+		position = tail.get();
+	    } else if (difference < 0) {
+		return false;
+	    } else {
+		// Another producer took this position
+		position = tail.get();
+	    }
+	}
+    }
+
+    /**
+     * Removes the oldest record. Must only be called by the consuming
+     * thread.
+     *
+     * @return The oldest record, or null if the ring is empty.
+     */
+    GameRecord poll() {
+	final int index = (int) head & mask;
+	if (sequences.get(index) != head + 1) {
+	    return null;
+	}
+	final GameRecord record = records[index];
+	records[index] = null;
+	// Frees the slot for the producers one lap later
+	sequences.set(index, head + records.length);
+	head += 1;
+	return record;
+    }
+
+    int capacity() {
+	return records.length;
+    }
+}
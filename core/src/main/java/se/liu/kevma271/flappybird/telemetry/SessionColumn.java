@@ -0,0 +1,37 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+/**
+ * Enum representing the columns of a {@link SessionTable}.
+ * <p>
+ *     Every column is stored in its own file as fixed width
+ *     little-endian values, so a query only reads the columns it uses.
+ *     Power-up counts saturate at the largest short and the death
+ *     cause is stored as its ordinal, or -1 if the game was not over.
+ * </p>
+ */
+public enum SessionColumn {
+    SCORE("score", Integer.BYTES),
+    TICKS("ticks", Integer.BYTES),
+    FLAPS("flaps", Integer.BYTES),
+    SUPER("super", Short.BYTES),
+    GRAVITY("gravity", Short.BYTES),
+    CAUSE("cause", Byte.BYTES);
+
+    private final String fileName;
+    private final int width;
+
+    SessionColumn(final String fileName, final int width) {
+	this.fileName = fileName;
+	this.width = width;
+    }
+
+    public String getFileName() {
+	return fileName + ".col";
+    }
+    /**
+     * Returns the number of bytes one value of the column takes up.
+     */
+    public int getWidth() {
+	return width;
+    }
+}
@@ -0,0 +1,435 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import se.liu.kevma271.flappybird.DeathCause;
+import se.liu.kevma271.flappybird.GameRandom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Command-line tool that imports game sessions into a
+ * {@link SessionTable} and runs filters and aggregations over it.
+ * <p>
+ *     A query keeps the rows that pass every filter, groups them by the
+ *     value of one column and reports the count, mean and percentiles
+ *     of another column per group, for example the score percentiles by
+ *     number of super power-ups. The table is split into ranges of rows
+ *     that are scanned in parallel straight from the mapped column
+ *     files, each into its own histograms of a fixed size, which are
+ *     merged at the end.
+ * </p>
+ */
+public class SessionQuery {
+    private static final int TASK_ROWS = 1 << 22;
+
+    /**
+     * Group values from zero up to this number get their own group,
+     * larger values share the last one.
+     */
+    private static final int MAX_GROUP_VALUE = 254;
+    private static final Pattern FILTER_PATTERN = Pattern.compile("(\\w+)\\s*(<=|>=|!=|=|<|>)\\s*(-?\\w+)");
+
+    private final SessionTable table;
+    private final List<Filter> filters = new ArrayList<>();
+    private SessionColumn groupColumn = null;
+    private SessionColumn aggregateColumn = SessionColumn.SCORE;
+
+    public SessionQuery(final SessionTable table) {
+	this.table = table;
+    }
+
+    /**
+     * Adds a filter such as "score>=10" or "cause=FLOOR". Rows have to
+     * pass all filters.
+     *
+     * @param expression A column name, a comparison and a value.
+     */
+    public void addFilter(final String expression) {
+	final Matcher matcher = FILTER_PATTERN.matcher(expression.trim());
+	if (!matcher.matches()) {
+	    throw new IllegalArgumentException("Not a filter: " + expression);
+	}
+	final SessionColumn column = findColumn(matcher.group(1));
+	filters.add(new Filter(column, matcher.group(2), parseValue(column, matcher.group(3))));
+    }
+
+    public void setGroupColumn(final SessionColumn groupColumn) {
+	this.groupColumn = groupColumn;
+    }
+    public void setAggregateColumn(final SessionColumn aggregateColumn) {
+	this.aggregateColumn = aggregateColumn;
+    }
+
+    /**
+     * Runs the query over the whole table.
+     *
+     * @param pool The threads to scan with.
+     * @return The histograms of the aggregated column per group.
+     */
+    public Histograms run(final ForkJoinPool pool) throws InterruptedException, ExecutionException {
+	final List<long[]> ranges = new ArrayList<>();
+	for (int segment = 0; segment < table.getSegmentCount(); segment++) {
+	    final int rows = table.getSegment(segment).getRowCount();
+	    for (int start = 0; start < rows; start += TASK_ROWS) {
+		ranges.add(new long[] { segment, start, Math.min(rows, start + TASK_ROWS) });
+	    }
+	}
+	return pool.submit(() -> ranges.parallelStream()
+		.map(range -> scan(table.getSegment((int) range[0]), (int) range[1], (int) range[2]))
+		.reduce(Histograms::merge)
+		.orElseGet(Histograms::new)).get();
+    }
+
+    private Histograms scan(final SessionTable.Segment segment, final int start, final int end) {
+	final Histograms histograms = new Histograms();
+	final Filter[] scanFilters = filters.toArray(new Filter[0]);
+	for (int row = start; row < end; row++) {
+	    boolean keep = true;
+	    for (Filter filter : scanFilters) {
+		if (!filter.test(segment.get(filter.column, row))) {
+		    keep = false;
+		    break;
+		}
+	    }
+	    if (keep) {
+		final int group = groupColumn == null ? 0 : Math.min(segment.get(groupColumn, row) + 1, MAX_GROUP_VALUE + 1);
+		histograms.add(Math.max(group, 0), segment.get(aggregateColumn, row));
+	    }
+	}
+	return histograms;
+    }
+
+    /**
+     * Returns the name of a group as it is printed.
+     */
+    private String getGroupName(final int group) {
+	if (groupColumn == null) {
+	    return "all";
+	} else if (group == 0) {
+	    return groupColumn == SessionColumn.CAUSE ? "none" : "<0";
+	} else if (groupColumn == SessionColumn.CAUSE) {
+	    return DeathCause.values()[group - 1].name();
+	} else if (group == MAX_GROUP_VALUE + 1) {
+	    return MAX_GROUP_VALUE + "+";
+	}
+	return String.valueOf(group - 1);
+    }
+
+    private static SessionColumn findColumn(final String name) {
+	for (SessionColumn column : SessionColumn.values()) {
+	    if (column.name().equalsIgnoreCase(name)) {
+		return column;
+	    }
+	}
+	throw new IllegalArgumentException("No such column: " + name);
+    }
+
+    private static int parseValue(final SessionColumn column, final String value) {
+	if (column == SessionColumn.CAUSE) {
+	    return value.equalsIgnoreCase("none") ? -1 : DeathCause.valueOf(value.toUpperCase()).ordinal();
+	}
+	return Integer.parseInt(value);
+    }
+
+    /**
+     * A comparison of a column against a constant.
+     */
+    private static class Filter {
+	private final SessionColumn column;
+	private final String operator;
+	private final int value;
+
+	private Filter(final SessionColumn column, final String operator, final int value) {
+	    this.column = column;
+	    this.operator = operator;
+	    this.value = value;
+	}
+
+	private boolean test(final int columnValue) {
+	    switch (operator) {
+		case "<":
+		    return columnValue < value;
+		case "<=":
+		    return columnValue <= value;
+		case ">":
+		    return columnValue > value;
+		case ">=":
+		    return columnValue >= value;
+		case "!=":
+		    return columnValue != value;
+		default:
+		    return columnValue == value;
+	    }
+	}
+    }
+
+    /**
+     * Histograms of the aggregated column, one per group. Values below
+     * zero are counted as zero.
+     * <p>
+     *     Small values each have a bucket of their own, and every larger
+     *     power of two is split into the same number of buckets, so a
+     *     group takes the same small array whatever its values are, and
+     *     histograms of different ranges of rows merge by adding up the
+     *     buckets. Percentiles below {@link #EXACT_VALUES} are exact and
+     *     larger ones are within 1/{@value #SUB_BUCKETS} of the true
+     *     value. The count, mean and maximum are always exact.
+     * </p>
+     */
+    public static class Histograms {
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int EXACT_VALUES = 2 * SUB_BUCKETS;
+	private static final int EXACT_BITS = SUB_BUCKET_BITS + 1;
+	private static final int BUCKETS = EXACT_VALUES + (Integer.SIZE - 1 - EXACT_BITS) * SUB_BUCKETS;
+
+	private final long[][] counts = new long[MAX_GROUP_VALUE + 2][];
+	private final long[] totals = new long[MAX_GROUP_VALUE + 2];
+	private final long[] sums = new long[MAX_GROUP_VALUE + 2];
+	private final int[] maxima = new int[MAX_GROUP_VALUE + 2];
+
+	private void add(final int group, final int value) {
+	    final int clamped = Math.max(value, 0);
+	    if (counts[group] == null) {
+		counts[group] = new long[BUCKETS];
+	    }
+	    counts[group][bucketOf(clamped)] += 1;
+	    totals[group] += 1;
+	    sums[group] += clamped;
+	    maxima[group] = Math.max(maxima[group], clamped);
+	}
+
+	/**
+	 * Returns the bucket of a value that is not negative.
+	 */
+	private static int bucketOf(final int value) {
+	    if (value < EXACT_VALUES) {
+		return value;
+	    }
+	    final int exponent = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value);
+	    final int subBucket = (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+	    return EXACT_VALUES + (exponent - EXACT_BITS) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Returns the largest value that falls in a bucket.
+	 */
+	private static int highestValueOf(final int bucket) {
+	    if (bucket < EXACT_VALUES) {
+		return bucket;
+	    }
+	    final int shift = (bucket - EXACT_VALUES) / SUB_BUCKETS + 1;
+	    final int subBucket = (bucket - EXACT_VALUES) % SUB_BUCKETS;
+	    return ((SUB_BUCKETS + subBucket) << shift) + ((1 << shift) - 1);
+	}
+
+	private Histograms merge(final Histograms other) {
+	    for (int group = 0; group < counts.length; group++) {
+		final long[] histogram = other.counts[group];
+		if (histogram != null) {
+		    if (counts[group] == null) {
+			counts[group] = new long[BUCKETS];
+		    }
+		    for (int i = 0; i < BUCKETS; i++) {
+			counts[group][i] += histogram[i];
+		    }
+		    totals[group] += other.totals[group];
+		    sums[group] += other.sums[group];
+		    maxima[group] = Math.max(maxima[group], other.maxima[group]);
+		}
+	    }
+	    return this;
+	}
+
+	public boolean hasGroup(final int group) {
+	    return counts[group] != null;
+	}
+
+	public long getCount(final int group) {
+	    return totals[group];
+	}
+
+	public double getMean(final int group) {
+	    return (double) sums[group] / totals[group];
+	}
+
+	/**
+	 * Returns the smallest value that at least the given fraction of
+	 * the group is less than or equal to, rounded up to the largest
+	 * value of its bucket but never above the largest value seen.
+	 *
+	 * @param group    The group.
+	 * @param fraction The fraction between 0 and 1.
+	 */
+	public int getPercentile(final int group, final double fraction) {
+	    final long[] histogram = counts[group];
+	    final long target = Math.max(1, (long) Math.ceil(fraction * totals[group]));
+	    long seen = 0;
+	    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+		seen += histogram[bucket];
+		if (seen >= target) {
+		    return Math.min(highestValueOf(bucket), maxima[group]);
+		}
+	    }
+	    return maxima[group];
+	}
+    }
+
+    /**
+     * Imports telemetry files, or all telemetry files in a directory,
+     * into a table.
+     *
+     * @return The number of imported sessions.
+     */
+    private static long importTelemetry(final SessionTableWriter writer, final Path path) throws IOException {
+	if (Files.isDirectory(path)) {
+	    long imported = 0;
+	    try (Stream<Path> files = Files.list(path)) {
+		for (Path file : (Iterable<Path>) files.filter(file -> file.toString().endsWith(".bin")).sorted()::iterator) {
+		    imported += importTelemetry(writer, file);
+		}
+	    }
+	    return imported;
+	}
+
+	final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+	if (buffer.remaining() < TelemetryWriter.HEADER_SIZE || buffer.getInt() != TelemetryWriter.MAGIC) {
+	    throw new IOException("Not a telemetry file: " + path);
+	}
+	final short version = buffer.getShort();
+	final short recordSize = buffer.getShort();
+	if (version != TelemetryWriter.VERSION || recordSize != GameRecord.SIZE) {
+	    throw new IOException("Unsupported telemetry version " + version + " in " + path);
+	}
+	long imported = 0;
+	while (buffer.remaining() >= GameRecord.SIZE) {
+	    writer.append(GameRecord.readFrom(buffer));
+	    imported += 1;
+	}
+	return imported;
+    }
+
+    /**
+     * Appends made up sessions with roughly the shape of real games, for
+     * trying out and benchmarking queries on large tables.
+     */
+    private static void generateSessions(final SessionTableWriter writer, final long count, final long seed) throws IOException {
+	final GameRandom random = new GameRandom(seed);
+	final DeathCause[] causes = DeathCause.values();
+	final double[] causeOdds = { 0.25, 0.01, 0.04, 0.70 };
+
+	for (long i = 0; i < count; i++) {
+	    final long ticks = 60 + (long) (-Math.log(1 - random.nextDouble()) * 600);
+	    final int powerUps = (int) (ticks * random.nextDouble() / 250);
+	    int superPowerUps = 0;
+	    for (int powerUp = 0; powerUp < powerUps; powerUp++) {
+		if (random.nextDouble() < 0.2) {
+		    superPowerUps += 1;
+		}
+	    }
+	    final int score = (int) (ticks / 56) + 3 * superPowerUps;
+	    final int flaps = (int) (ticks / 20 + ticks * random.nextDouble() / 40);
+
+	    double pick = random.nextDouble();
+	    int cause = 0;
+	    while (cause < causes.length - 1 && pick >= causeOdds[cause]) {
+		pick -= causeOdds[cause];
+		cause += 1;
+	    }
+	    writer.append(score, ticks, flaps, superPowerUps, powerUps - superPowerUps, causes[cause]);
+	}
+    }
+
+    /**
+     * Imports sessions and runs a query from the command line.
+     *
+     * @param args Command-line arguments, run without any for help.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+	final Options options = new Options();
+	options.addOption(Option.builder("d").longOpt("table").hasArg().required().desc("directory of the session table").build());
+	options.addOption(Option.builder("i").longOpt("import").hasArgs().desc("telemetry files or directories to append").build());
+	options.addOption("n", "generate", true, "append this many made up sessions");
+	options.addOption("s", "seed", true, "seed of the made up sessions (default 1)");
+	options.addOption(Option.builder("w").longOpt("where").hasArgs().desc("filters such as score>=10 or cause=FLOOR").build());
+	options.addOption("g", "group-by", true, "column to group by");
+	options.addOption("a", "aggregate", true, "column to aggregate (default score)");
+	options.addOption("t", "threads", true, "threads to scan with (default: one per core)");
+
+	final CommandLine line;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	} catch (ParseException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("SessionQuery", options);
+	    return;
+	}
+	final Path directory = Paths.get(line.getOptionValue("table"));
+
+	if (line.hasOption("import") || line.hasOption("generate")) {
+	    final long start = System.nanoTime();
+	    try (SessionTableWriter writer = new SessionTableWriter(directory)) {
+		final long before = writer.getRowCount();
+		if (line.hasOption("import")) {
+		    for (String path : line.getOptionValues("import")) {
+			importTelemetry(writer, Paths.get(path));
+		    }
+		}
+		if (line.hasOption("generate")) {
+		    generateSessions(writer, Long.parseLong(line.getOptionValue("generate")), Long.parseLong(line.getOptionValue("seed", "1")));
+		}
+		System.out.printf("Appended %d sessions in %.1f s, the table has %d%n", writer.getRowCount() - before,
+				  (System.nanoTime() - start) / 1.0e9, writer.getRowCount());
+	    }
+	}
+
+	final SessionQuery query = new SessionQuery(new SessionTable(directory));
+	if (line.hasOption("where")) {
+	    for (String filter : line.getOptionValues("where")) {
+		query.addFilter(filter);
+	    }
+	}
+	if (line.hasOption("group-by")) {
+	    query.setGroupColumn(findColumn(line.getOptionValue("group-by")));
+	}
+	if (line.hasOption("aggregate")) {
+	    query.setAggregateColumn(findColumn(line.getOptionValue("aggregate")));
+	}
+
+	final int threads = Integer.parseInt(line.getOptionValue("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+	final ForkJoinPool pool = new ForkJoinPool(threads);
+	final long start = System.nanoTime();
+	final Histograms result = query.run(pool);
+	final double seconds = (System.nanoTime() - start) / 1.0e9;
+	pool.shutdown();
+
+	System.out.printf("%-12s %12s %10s %8s %8s %8s %8s%n", query.groupColumn == null ? "" : query.groupColumn.name().toLowerCase(),
+			  "rows", "mean", "p50", "p90", "p99", "max");
+	for (int group = 0; group <= MAX_GROUP_VALUE + 1; group++) {
+	    if (result.hasGroup(group)) {
+		System.out.printf("%-12s %12d %10.2f %8d %8d %8d %8d%n", query.getGroupName(group), result.getCount(group),
+				  result.getMean(group), result.getPercentile(group, 0.5), result.getPercentile(group, 0.9),
+				  result.getPercentile(group, 0.99), result.getPercentile(group, 1));
+	    }
+	}
+	final long rows = query.table.getRowCount();
+	System.out.printf("Scanned %d rows in %.2f s (%.0f million rows/s) on %d threads%n", rows, seconds, rows / seconds / 1.0e6,
+			  threads);
+    }
+}
@@ -0,0 +1,141 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only columnar table of game sessions on disk.
+ * <p>
+ *     A table is a directory with one file per {@link SessionColumn}
+ *     and a small meta file holding the number of rows. The column files
+ *     are memory mapped in segments of a fixed number of rows, so a scan
+ *     only pages in the columns it reads and the data never has to fit
+ *     on the heap. Segments can be scanned from several threads at the
+ *     same time.
+ * </p>
+ */
+public class SessionTable {
+    static final String META_FILE = "table.meta";
+
+    /**
+     * The characters "FBCS" at the start of the meta file.
+     */
+    private static final int MAGIC = 0x46424353;
+    private static final int VERSION = 1;
+
+    /**
+     * Number of rows in every mapped segment but the last. Keeps the
+     * widest column well below the 2 GB limit of a single mapping.
+     */
+    public static final int SEGMENT_ROWS = 1 << 24;
+
+    private final long rowCount;
+    private final Segment[] segments;
+
+    /**
+     * Opens a table and maps its columns.
+     *
+     * @param directory The directory of the table.
+     * @throws IOException If the table could not be opened.
+     */
+    public SessionTable(final Path directory) throws IOException {
+	rowCount = readRowCount(directory);
+	final int segmentCount = (int) ((rowCount + SEGMENT_ROWS - 1) / SEGMENT_ROWS);
+	segments = new Segment[segmentCount];
+
+	final ByteBuffer[][] columns = new ByteBuffer[segmentCount][SessionColumn.values().length];
+	for (SessionColumn column : SessionColumn.values()) {
+	    try (FileChannel channel = FileChannel.open(directory.resolve(column.getFileName()), StandardOpenOption.READ)) {
+		if (channel.size() < rowCount * column.getWidth()) {
+		    throw new IOException("Column " + column.getFileName() + " is shorter than the table");
+		}
+		for (int i = 0; i < segmentCount; i++) {
+		    final long firstRow = (long) i * SEGMENT_ROWS;
+		    final long rows = Math.min(SEGMENT_ROWS, rowCount - firstRow);
+		    // The mapping stays valid after the channel is closed
+		    columns[i][column.ordinal()] = channel.map(FileChannel.MapMode.READ_ONLY, firstRow * column.getWidth(),
+							       rows * column.getWidth()).order(ByteOrder.LITTLE_ENDIAN);
+		}
+	    }
+	}
+	for (int i = 0; i < segmentCount; i++) {
+	    segments[i] = new Segment((int) Math.min(SEGMENT_ROWS, rowCount - (long) i * SEGMENT_ROWS), columns[i]);
+	}
+    }
+
+    static long readRowCount(final Path directory) throws IOException {
+	final ByteBuffer meta = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(META_FILE)));
+	if (meta.remaining() < Integer.BYTES * 2 + Long.BYTES || meta.getInt() != MAGIC) {
+	    throw new IOException("Not a session table: " + directory);
+	}
+	final int version = meta.getInt();
+	if (version != VERSION) {
+	    throw new IOException("Unsupported session table version " + version);
+	}
+	return meta.getLong();
+    }
+
+    /**
+     * Replaces the meta file in one atomic move, so readers see either
+     * the old or the new number of rows.
+     */
+    static void writeRowCount(final Path directory, final long rowCount) throws IOException {
+	final ByteBuffer meta = ByteBuffer.allocate(Integer.BYTES * 2 + Long.BYTES);
+	meta.putInt(MAGIC).putInt(VERSION).putLong(rowCount);
+	final Path temporary = directory.resolve(META_FILE + ".tmp");
+	Files.write(temporary, meta.array());
+	Files.move(temporary, directory.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public long getRowCount() {
+	return rowCount;
+    }
+    public int getSegmentCount() {
+	return segments.length;
+    }
+    public Segment getSegment(final int index) {
+	return segments[index];
+    }
+
+    /**
+     * A run of consecutive rows of the table, mapped column by column.
+     */
+    public static class Segment {
+	private final int rowCount;
+	private final ByteBuffer[] columns;
+
+	private Segment(final int rowCount, final ByteBuffer[] columns) {
+	    this.rowCount = rowCount;
+	    this.columns = columns;
+	}
+
+	public int getRowCount() {
+	    return rowCount;
+	}
+
+	/**
+	 * Returns the value of a column in a row of the segment.
+	 *
+	 * @param column The column to read.
+	 * @param row    The row within this segment.
+	 * @return The value, widened to an int.
+	 */
+	public int get(final SessionColumn column, final int row) {
+	    final ByteBuffer values = columns[column.ordinal()];
+	    switch (column.getWidth()) {
+		case Integer.BYTES:
+		    return values.getInt(row * Integer.BYTES);
+		case Short.BYTES:
+		    return values.getShort(row * Short.BYTES);
+		default:
+		    return values.get(row);
+	    }
+	}
+    }
+}
@@ -0,0 +1,119 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+import se.liu.kevma271.flappybird.DeathCause;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends game sessions to a columnar {@link SessionTable}.
+ * <p>
+ *     Every column is buffered and written to its own file. The number
+ *     of rows in the table is only updated when the writer is closed,
+ *     so a table that was being written when the program stopped still
+ *     opens with the rows of the last completed write.
+ * </p>
+ */
+public class SessionTableWriter implements Closeable {
+    private static final int BUFFERED_ROWS = 8192;
+
+    private final Path directory;
+    private final FileChannel[] channels = new FileChannel[SessionColumn.values().length];
+    private final ByteBuffer[] buffers = new ByteBuffer[SessionColumn.values().length];
+    private long rowCount;
+
+    /**
+     * Opens a table for appending, creating it if it does not exist.
+     *
+     * @param directory The directory of the table.
+     * @throws IOException If the table could not be opened.
+     */
+    public SessionTableWriter(final Path directory) throws IOException {
+	this.directory = directory;
+	Files.createDirectories(directory);
+	rowCount = Files.exists(directory.resolve(SessionTable.META_FILE)) ? SessionTable.readRowCount(directory) : 0;
+
+	for (SessionColumn column : SessionColumn.values()) {
+	    final FileChannel channel = FileChannel.open(directory.resolve(column.getFileName()), StandardOpenOption.CREATE,
+							 StandardOpenOption.WRITE);
+	    // Throw away rows that were written after the last completed write
+	    final long size = rowCount * column.getWidth();
+	    channel.truncate(size);
+	    channel.position(size);
+	    channels[column.ordinal()] = channel;
+	    buffers[column.ordinal()] = ByteBuffer.allocateDirect(BUFFERED_ROWS * column.getWidth()).order(ByteOrder.LITTLE_ENDIAN);
+	}
+    }
+
+    /**
+     * Appends the session of a game record.
+     *
+     * @param record The record to append.
+     * @throws IOException If the buffered rows could not be written.
+     */
+    public void append(final GameRecord record) throws IOException {
+	append(record.getScore(), record.getTicks(), record.getFlaps(), record.getSuperPowerUps(), record.getGravityPowerUps(),
+	       record.getDeathCause());
+    }
+
+    /**
+     * Appends a session.
+     *
+     * @throws IOException If the buffered rows could not be written.
+     */
+    public void append(final int score, final long ticks, final int flaps, final int superPowerUps, final int gravityPowerUps,
+		       final DeathCause deathCause) throws IOException
+    {
+	buffers[SessionColumn.SCORE.ordinal()].putInt(score);
+	buffers[SessionColumn.TICKS.ordinal()].putInt((int) Math.min(ticks, Integer.MAX_VALUE));
+	buffers[SessionColumn.FLAPS.ordinal()].putInt(flaps);
+	buffers[SessionColumn.SUPER.ordinal()].putShort((short) Math.min(superPowerUps, Short.MAX_VALUE));
+	buffers[SessionColumn.GRAVITY.ordinal()].putShort((short) Math.min(gravityPowerUps, Short.MAX_VALUE));
+	buffers[SessionColumn.CAUSE.ordinal()].put(deathCause == null ? -1 : (byte) deathCause.ordinal());
+	rowCount += 1;
+
+	if (!buffers[SessionColumn.CAUSE.ordinal()].hasRemaining()) {
+	    flush();
+	}
+    }
+
+    private void flush() throws IOException {
+	for (int i = 0; i < channels.length; i++) {
+	    final ByteBuffer buffer = buffers[i];
+	    buffer.flip();
+	    while (buffer.hasRemaining()) {
+		channels[i].write(buffer);
+	    }
+	    buffer.clear();
+	}
+    }
+
+    public long getRowCount() {
+	return rowCount;
+    }
+
+    /**
+     * Writes the remaining rows and makes them part of the table.
+     *
+     * @throws IOException If the rows could not be written.
+     */
+    @Override public void close() throws IOException {
+	try {
+	    flush();
+	    for (FileChannel channel : channels) {
+		channel.force(false);
+	    }
+	    SessionTable.writeRowCount(directory, rowCount);
+	} finally {
+	    for (FileChannel channel : channels) {
+		channel.close();
+	    }
+	}
+    }
+}
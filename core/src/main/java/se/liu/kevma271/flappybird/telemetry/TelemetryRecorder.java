@@ -0,0 +1,35 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.BoardListener;
+
+/**
+ * Board listener that records the game on a board once it is over.
+ * <p>
+ *     The listener is called on the thread that ticks the board, which
+ *     only has to hand the record over to the telemetry writer. When
+ *     the board is reset, the next game is recorded as well.
+ * </p>
+ */
+public class TelemetryRecorder implements BoardListener {
+    private final Board board;
+    private final TelemetryWriter writer;
+    private boolean recorded = false;
+
+    public TelemetryRecorder(final Board board, final TelemetryWriter writer) {
+	this.board = board;
+	this.writer = writer;
+    }
+
+    public void boardChanged() {
+	if (!board.isGameOver()) {
+	    recorded = false;
+	} else if (!recorded) {
+	    recorded = true;
+	    writer.record(GameRecord.of(board));
+	}
+    }
+
+    public void birdChanged() {
+    }
+}
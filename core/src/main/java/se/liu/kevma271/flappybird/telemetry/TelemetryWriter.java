@@ -0,0 +1,214 @@
+package se.liu.kevma271.flappybird.telemetry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes game records to compact binary telemetry files on a background
+ * thread.
+ * <p>
+ *     Games hand their records over through a lock-free ring, so the
+ *     thread running a game never waits for the disk. If the writer
+ *     falls so far behind that the ring is full, records are dropped and
+ *     counted instead. The writer thread batches the records it finds
+ *     into one write and starts a new file once the current one would
+ *     grow past the size limit.
+ * </p>
+ * <p>
+ *     Every file starts with a header of the magic number, the format
+ *     version and the record size, followed by records in the layout of
+ *     {@link GameRecord}, all big-endian.
+ * </p>
+ */
+public class TelemetryWriter implements Closeable {
+    /**
+     * The characters "FBTL" at the start of every telemetry file.
+     */
+    public static final int MAGIC = 0x4642544C;
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Short.BYTES;
+
+    private static final Logger LOGGER = Logger.getLogger(TelemetryWriter.class.getName());
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final long DEFAULT_MAX_FILE_SIZE = 4L * 1024 * 1024;
+    private static final int RECORDS_PER_WRITE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path directory;
+    private final long maxFileSize;
+    private final RecordRing ring;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(GameRecord.SIZE * RECORDS_PER_WRITE);
+    private int bufferedRecords = 0;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private FileChannel channel = null;
+    private long fileSize = 0;
+    private int fileNumber = 0;
+
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private volatile long writtenRecords = 0;
+
+    /**
+     * Creates a writer with a default ring capacity and file size limit.
+     *
+     * @param directory The directory to write the telemetry files to.
+     */
+    public TelemetryWriter(final Path directory) {
+	this(directory, DEFAULT_CAPACITY, DEFAULT_MAX_FILE_SIZE);
+    }
+
+    /**
+     * Creates a writer. The background thread starts writing right away.
+     *
+     * @param directory   The directory to write the telemetry files to.
+     * @param capacity    The number of records that may wait to be
+     *                    written before new ones are dropped.
+     * @param maxFileSize The size in bytes after which a new file is
+     *                    started.
+     */
+    public TelemetryWriter(final Path directory, final int capacity, final long maxFileSize) {
+	if (maxFileSize < HEADER_SIZE + GameRecord.SIZE) {
+	    throw new IllegalArgumentException("A telemetry file must fit at least one record");
+	}
+	this.directory = directory;
+	this.maxFileSize = maxFileSize;
+	this.ring = new RecordRing(capacity);
+	this.thread = new Thread(this::run, "telemetry-writer");
+	thread.setDaemon(true);
+	thread.start();
+    }
+
+    /**
+     * Hands a record over to the writer thread. Never blocks.
+     *
+     * @param record The record to write.
+     * @return False if the record was dropped because the writer has
+     *         fallen behind or is closed.
+     */
+    public boolean record(final GameRecord record) {
+	if (!running || !ring.offer(record)) {
+	    droppedRecords.incrementAndGet();
+	    return false;
+	}
+	LockSupport.unpark(thread);
+	return true;
+    }
+
+    private void run() {
+	while (running) {
+	    if (!writeWaitingRecords()) {
+		LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+	    }
+	}
+	// Write what was handed over before closing
+	while (writeWaitingRecords()) {
+	    // Keep writing
+	}
+	closeFile();
+    }
+
+    /**
+     * Writes the records that are waiting in the ring, up to one batch.
+     * Records only count as written once they are in a file, and the
+     * records that could not be written are counted as dropped.
+     *
+     * @return False if there was nothing to write.
+     */
+    private boolean writeWaitingRecords() {
+	GameRecord record = ring.poll();
+	if (record == null) {
+	    return false;
+	}
+	try {
+	    while (record != null) {
+		if (channel == null || fileSize + buffer.position() + GameRecord.SIZE > maxFileSize) {
+		    flush();
+		    openNextFile();
+		}
+		record.writeTo(buffer);
+		bufferedRecords += 1;
+		record = buffer.hasRemaining() ? ring.poll() : null;
+	    }
+	    flush();
+	} catch (IOException e) {
+	    // The buffered records are lost, and so is a record taken from the ring that was not buffered yet
+	    final int lost = bufferedRecords + (record != null ? 1 : 0);
+	    LOGGER.log(Level.WARNING, "Could not write telemetry, dropping " + lost + " records", e);
+	    droppedRecords.addAndGet(lost);
+	    bufferedRecords = 0;
+	    buffer.clear();
+	    closeFile();
+	}
+	return true;
+    }
+
+    private void flush() throws IOException {
+	buffer.flip();
+	while (buffer.hasRemaining()) {
+	    fileSize += channel.write(buffer);
+	}
+	buffer.clear();
+	writtenRecords += bufferedRecords;
+	bufferedRecords = 0;
+    }
+
+    private void openNextFile() throws IOException {
+	closeFile();
+	Files.createDirectories(directory);
+	Path file;
+	do {
+	    file = directory.resolve(String.format("telemetry-%d-%04d.bin", System.currentTimeMillis(), fileNumber));
+	    fileNumber += 1;
+	} while (Files.exists(file));
+
+	channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+	final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+	header.putInt(MAGIC).putShort(VERSION).putShort((short) GameRecord.SIZE).flip();
+	fileSize = 0;
+	while (header.hasRemaining()) {
+	    fileSize += channel.write(header);
+	}
+    }
+
+    private void closeFile() {
+	if (channel != null) {
+	    try {
+		channel.close();
+	    } catch (IOException e) {
+		LOGGER.log(Level.WARNING, "Could not close telemetry file", e);
+	    }
+	    channel = null;
+	}
+    }
+
+    /**
+     * Writes the records handed over so far and stops the writer thread.
+     */
+    @Override public void close() {
+	running = false;
+	LockSupport.unpark(thread);
+	try {
+	    thread.join();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+    }
+
+    public long getDroppedRecords() {
+	return droppedRecords.get();
+    }
+    public long getWrittenRecords() {
+	return writtenRecords;
+    }
+}
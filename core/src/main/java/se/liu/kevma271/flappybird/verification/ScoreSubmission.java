@@ -0,0 +1,48 @@
+package se.liu.kevma271.flappybird.verification;
+
+import se.liu.kevma271.flappybird.Board;
+
+/**
+ * A claimed score together with everything needed to play the game again.
+ * <p>
+ *     A game is completely determined by the seed of the board and the
+ *     ticks the bird flapped on, see {@link Board#getFlapTicks()}. A flap
+ *     on tick t was made when the tick count of the board was t, before
+ *     the board was ticked. Several flaps can share a tick when the
+ *     player pressed more than once between two ticks.
+ * </p>
+ */
+public class ScoreSubmission {
+    private final long seed;
+    private final long[] flapTicks;
+    private final int claimedScore;
+
+    public ScoreSubmission(final long seed, final long[] flapTicks, final int claimedScore) {
+	this.seed = seed;
+	this.flapTicks = flapTicks.clone();
+	this.claimedScore = claimedScore;
+    }
+
+    /**
+     * Creates the submission of the game played on a board.
+     *
+     * @param board The board, usually after the game is over.
+     * @return The submission of the game and its score.
+     */
+    public static ScoreSubmission of(final Board board) {
+	return new ScoreSubmission(board.getSeed(), board.getFlapTicks(), board.getScore());
+    }
+
+    public long getSeed() {
+	return seed;
+    }
+    public int getFlapCount() {
+	return flapTicks.length;
+    }
+    public long getFlapTick(final int index) {
+	return flapTicks[index];
+    }
+    public int getClaimedScore() {
+	return claimedScore;
+    }
+}
@@ -0,0 +1,378 @@
+package se.liu.kevma271.flappybird.verification;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.Direction;
+import se.liu.kevma271.flappybird.GameSettings;
+import se.liu.kevma271.flappybird.course.CourseFile;
+import se.liu.kevma271.flappybird.course.CourseSource;
+import se.liu.kevma271.flappybird.course.GeneratedCourse;
+import se.liu.kevma271.flappybird.headless.AutopilotPolicy;
+import se.liu.kevma271.flappybird.headless.HeadlessGame;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Verifies claimed scores by playing the submitted games again.
+ * <p>
+ *     Submissions are first checked for things the game can never
+ *     produce, such as flaps out of order, flapping on every tick or
+ *     games longer than allowed. Those are rejected right away without
+ *     taking up a worker. The rest wait in a bounded queue for a pool
+ *     of workers that play the games on a board of their own, as fast
+ *     as possible. A submission that is submitted while the queue is
+ *     full is turned away as busy instead of waiting.
+ * </p>
+ * <p>
+ *     Every game may use a fixed number of ticks and a fixed amount of
+ *     CPU time, so a submission can never keep a worker busy for long.
+ *     The CPU time is only looked at every few thousand ticks, since
+ *     reading it costs about as much as a tick.
+ * </p>
+ * <p>
+ *     Games are played with the settings given to the verifier, which
+ *     must be the ones the submitted games were played with, and on the
+ *     course generated from the seed of each submission or on one course
+ *     shared by all of them, such as a daily challenge. Verifiers
+ *     for games at low tick rates should use swept collisions, see
+ *     {@link GameSettings#withSweptCollisions(boolean)}.
+ * </p>
+ */
+public class ScoreVerifier {
+    /**
+     * One hour of play at 60 ticks per second.
+     */
+    public static final long DEFAULT_MAX_TICKS = 60L * 60 * 60;
+    public static final long DEFAULT_CPU_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /**
+     * A player can not flap on more ticks in a row than this, or more
+     * times between two ticks.
+     */
+    private static final int MAX_FLAP_RUN = 8;
+    private static final int MAX_FLAPS_PER_TICK = 4;
+    private static final int CPU_CHECK_INTERVAL = 4096;
+
+    private final long maxTicks;
+    private final long cpuBudgetNanos;
+    private final CourseSource course;
+    private final ThreadPoolExecutor workers;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicLongArray verdicts = new AtomicLongArray(Verdict.values().length);
+
+    /**
+     * Board of each worker, reset for every game instead of created.
+     */
+    private final ThreadLocal<Board> boards;
+
+    /**
+     * Creates a verifier.
+     *
+     * @param workerCount    The number of worker threads.
+     * @param queueCapacity  How many submissions may wait for a worker.
+     * @param maxTicks       The longest game that is played, in ticks.
+     * @param cpuBudgetNanos The CPU time a game may take to play.
+     * @param settings       The settings the games were played with.
+     * @param course         The course all games were played on, or null
+     *                       if each game was played on the course of its
+     *                       seed. The workers read it at the same time, so
+     *                       it must allow that, as a {@link CourseFile}
+     *                       does.
+     */
+    public ScoreVerifier(final int workerCount, final int queueCapacity, final long maxTicks, final long cpuBudgetNanos,
+			 final GameSettings settings, final CourseSource course)
+    {
+	this.maxTicks = maxTicks;
+	this.cpuBudgetNanos = cpuBudgetNanos;
+	this.course = course;
+	this.boards = ThreadLocal.withInitial(() -> new Board(new Bird(), 0, new GeneratedCourse(0), settings));
+	final AtomicInteger workerNumber = new AtomicInteger();
+	this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+					      runnable -> {
+						  final Thread thread = new Thread(runnable, "score-verifier-" + workerNumber.incrementAndGet());
+						  thread.setDaemon(true);
+						  return thread;
+					      });
+    }
+
+    public ScoreVerifier(final int workerCount, final int queueCapacity, final long maxTicks, final long cpuBudgetNanos) {
+	this(workerCount, queueCapacity, maxTicks, cpuBudgetNanos, GameSettings.DEFAULT, null);
+    }
+
+    public ScoreVerifier(final int workerCount) {
+	this(workerCount, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_TICKS, DEFAULT_CPU_BUDGET_NANOS);
+    }
+
+    /**
+     * Queues a submission for verification. Malformed submissions and
+     * submissions that do not fit in the queue are answered right away.
+     *
+     * @param submission The submission.
+     * @return The result, once the game has been played.
+     */
+    public CompletableFuture<VerificationResult> submit(final ScoreSubmission submission) {
+	final String problem = findProblem(submission);
+	if (problem != null) {
+	    return CompletableFuture.completedFuture(count(VerificationResult.unplayed(Verdict.MALFORMED, problem)));
+	}
+	final CompletableFuture<VerificationResult> result = new CompletableFuture<>();
+	try {
+	    workers.execute(() -> {
+		try {
+		    result.complete(count(play(submission)));
+		} catch (RuntimeException e) {
+		    result.completeExceptionally(e);
+		}
+	    });
+	} catch (RejectedExecutionException e) {
+	    return CompletableFuture.completedFuture(count(VerificationResult.unplayed(Verdict.BUSY, "The verification queue is full")));
+	}
+	return result;
+    }
+
+    /**
+     * Verifies a submission on the calling thread.
+     *
+     * @param submission The submission.
+     * @return The result.
+     */
+    public VerificationResult verify(final ScoreSubmission submission) {
+	final String problem = findProblem(submission);
+	if (problem != null) {
+	    return count(VerificationResult.unplayed(Verdict.MALFORMED, problem));
+	}
+	return count(play(submission));
+    }
+
+    /**
+     * Looks for anything that the game could not have recorded. This
+     * only takes time in proportion to the number of flaps.
+     *
+     * @return What is wrong with the submission, or null if nothing is.
+     */
+    private String findProblem(final ScoreSubmission submission) {
+	final int flaps = submission.getFlapCount();
+	if (submission.getClaimedScore() < 0) {
+	    return "Negative score";
+	} else if (flaps == 0 || submission.getFlapTick(0) != 0) {
+	    // The game starts with the first flap, on the first tick
+	    return "The first flap must be on tick 0";
+	} else if (submission.getFlapTick(flaps - 1) > maxTicks) {
+	    return "The game is longer than " + maxTicks + " ticks";
+	}
+
+	int sameTick = 1;
+	int run = 1;
+	for (int i = 1; i < flaps; i++) {
+	    final long tick = submission.getFlapTick(i);
+	    final long previous = submission.getFlapTick(i - 1);
+	    if (tick < previous) {
+		return "Flaps out of order at flap " + i;
+	    } else if (tick == previous) {
+		sameTick += 1;
+		if (sameTick > MAX_FLAPS_PER_TICK) {
+		    return "More than " + MAX_FLAPS_PER_TICK + " flaps on tick " + tick;
+		}
+	    } else {
+		sameTick = 1;
+		run = tick == previous + 1 ? run + 1 : 1;
+		if (run > MAX_FLAP_RUN) {
+		    return "Flaps on more than " + MAX_FLAP_RUN + " ticks in a row at tick " + tick;
+		}
+	    }
+	}
+	return null;
+    }
+
+    /**
+     * Plays the game of a well-formed submission again, applying the
+     * flaps in the same way as the simulation loop of the game.
+     */
+    private VerificationResult play(final ScoreSubmission submission) {
+	final long cpuStart = cpuTime();
+	final Board board = boards.get();
+	if (course == null) {
+	    board.reset(submission.getSeed());
+	} else {
+	    board.reset(submission.getSeed(), course);
+	}
+
+	final int flaps = submission.getFlapCount();
+	int next = 0;
+	while (!board.isGameOver()) {
+	    final long tick = board.getTickCount();
+	    if (tick >= maxTicks) {
+		return new VerificationResult(Verdict.OVER_BUDGET, "The game lasted more than " + maxTicks + " ticks", -1, tick,
+					      cpuTime() - cpuStart);
+	    }
+	    if (tick % CPU_CHECK_INTERVAL == 0 && cpuTime() - cpuStart > cpuBudgetNanos) {
+		return new VerificationResult(Verdict.OVER_BUDGET, "Out of CPU time at tick " + tick, -1, tick, cpuTime() - cpuStart);
+	    }
+	    while (next < flaps && submission.getFlapTick(next) == tick) {
+		board.moveBird(Direction.UP);
+		next += 1;
+	    }
+	    board.tick();
+	}
+
+	// A flap can still arrive after the last tick, before the game notices that it is over
+	while (next < flaps && submission.getFlapTick(next) == board.getTickCount()) {
+	    next += 1;
+	}
+	final long cpuNanos = cpuTime() - cpuStart;
+	if (next < flaps) {
+	    return new VerificationResult(Verdict.SCORE_MISMATCH, "Flaps after the game was over at tick " + board.getTickCount(),
+					  board.getScore(), board.getTickCount(), cpuNanos);
+	} else if (board.getScore() != submission.getClaimedScore()) {
+	    return new VerificationResult(Verdict.SCORE_MISMATCH, "The game ended with a score of " + board.getScore(), board.getScore(),
+					  board.getTickCount(), cpuNanos);
+	}
+	return new VerificationResult(Verdict.ACCEPTED, null, board.getScore(), board.getTickCount(), cpuNanos);
+    }
+
+    private long cpuTime() {
+	return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    private VerificationResult count(final VerificationResult result) {
+	verdicts.incrementAndGet(result.getVerdict().ordinal());
+	return result;
+    }
+
+    /**
+     * Returns how many submissions have got the given verdict.
+     *
+     * @param verdict The verdict.
+     * @return The number of submissions.
+     */
+    public long getVerdictCount(final Verdict verdict) {
+	return verdicts.get(verdict.ordinal());
+    }
+
+    /**
+     * Stops the workers once the queued submissions are verified.
+     */
+    public void shutdown() {
+	workers.shutdown();
+    }
+
+    /**
+     * Verifies a mix of honest, tampered and pathological submissions
+     * and reports how many verifications per second the verifier does.
+     *
+     * @param args Command-line arguments, see the help text.
+     */
+    public static void main(String[] args) throws InterruptedException {
+	final Options options = new Options();
+	options.addOption("n", "games", true, "number of autopilot games to submit (default 2000)");
+	options.addOption("t", "threads", true, "worker threads (default: one per core)");
+	options.addOption("q", "queue", true, "queue capacity (default " + DEFAULT_QUEUE_CAPACITY + ")");
+	options.addOption("b", "budget", true, "CPU budget per game in ms (default " + DEFAULT_CPU_BUDGET_NANOS / 1_000_000 + ")");
+	options.addOption("w", "swept", false, "test collisions over the whole motion of a tick, for low tick rates");
+	options.addOption("c", "course", true, "play every game on the course in this file");
+	final CommandLine line;
+	try {
+	    line = new DefaultParser().parse(options, args);
+	} catch (ParseException e) {
+	    System.err.println(e.getMessage());
+	    new HelpFormatter().printHelp("ScoreVerifier", options);
+	    return;
+	}
+	final int games = Integer.parseInt(line.getOptionValue("games", "2000"));
+	final int threadCount = Integer.parseInt(line.getOptionValue("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+	final int queue = Integer.parseInt(line.getOptionValue("queue", String.valueOf(DEFAULT_QUEUE_CAPACITY)));
+	final long budget = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(line.getOptionValue("budget", "500")));
+	final GameSettings settings = GameSettings.DEFAULT.withSweptCollisions(line.hasOption("swept"));
+
+	if (line.hasOption("course")) {
+	    try (CourseFile course = CourseFile.open(Paths.get(line.getOptionValue("course")))) {
+		benchmark(games, threadCount, queue, budget, settings, course);
+	    } catch (IOException e) {
+		System.err.println("Could not read course file: " + e.getMessage());
+	    }
+	} else {
+	    benchmark(games, threadCount, queue, budget, settings, null);
+	}
+    }
+
+    /**
+     * Verifies the submissions of the command-line tool and prints how it
+     * went.
+     *
+     * @param course The course of all games, or null to play each game
+     *               on the course of its seed.
+     */
+    private static void benchmark(final int games, final int threadCount, final int queue, final long budget,
+				  final GameSettings settings, final CourseSource course) throws InterruptedException
+    {
+	// Honest games, and every fourth one with a raised score
+	final List<ScoreSubmission> submissions = new ArrayList<>();
+	int tampered = 0;
+	for (int i = 0; i < games; i++) {
+	    final Board board = new Board(new Bird(), i, course == null ? new GeneratedCourse(i) : course, settings);
+	    new HeadlessGame(board, new AutopilotPolicy(10 + i % 30)).run(DEFAULT_MAX_TICKS);
+	    final ScoreSubmission honest = ScoreSubmission.of(board);
+	    if (i % 4 == 3) {
+		submissions.add(new ScoreSubmission(honest.getSeed(), board.getFlapTicks(), honest.getClaimedScore() + 1));
+		tampered += 1;
+	    } else {
+		submissions.add(honest);
+	    }
+	}
+	// Pathological ones: flapping on every tick, and a game far too long
+	final long[] everyTick = new long[100_000];
+	for (int i = 0; i < everyTick.length; i++) {
+	    everyTick[i] = i;
+	}
+	submissions.add(new ScoreSubmission(1, everyTick, 1_000));
+	submissions.add(new ScoreSubmission(1, new long[] { 0, Long.MAX_VALUE / 2 }, 1_000_000));
+
+	final ScoreVerifier verifier = new ScoreVerifier(threadCount, queue, DEFAULT_MAX_TICKS, budget, settings, course);
+	final List<CompletableFuture<VerificationResult>> results = new ArrayList<>();
+	long busy = 0;
+	final long start = System.nanoTime();
+	for (ScoreSubmission submission : submissions) {
+	    CompletableFuture<VerificationResult> result = verifier.submit(submission);
+	    while (result.isDone() && result.join().getVerdict() == Verdict.BUSY) {
+		busy += 1;
+		Thread.sleep(1);
+		result = verifier.submit(submission);
+	    }
+	    results.add(result);
+	}
+	long ticks = 0;
+	long cpuNanos = 0;
+	for (CompletableFuture<VerificationResult> result : results) {
+	    ticks += result.join().getTicks();
+	    cpuNanos += result.join().getCpuNanos();
+	}
+	final double seconds = (System.nanoTime() - start) / 1.0e9;
+	verifier.shutdown();
+
+	System.out.printf("%,d submissions on %d threads in %.2f s: %,.0f verifications/s, %,.1f M ticks/s, %.1f us CPU per game%n",
+			  submissions.size(), threadCount, seconds, submissions.size() / seconds, ticks / seconds / 1.0e6,
+			  cpuNanos / 1.0e3 / submissions.size());
+	for (Verdict verdict : Verdict.values()) {
+	    System.out.printf("  %-14s %,d%n", verdict, verifier.getVerdictCount(verdict));
+	}
+	System.out.printf("Expected %,d accepted and %,d mismatched, %,d resubmitted while busy%n", games - tampered, tampered, busy);
+    }
+}
@@ -0,0 +1,17 @@
+package se.liu.kevma271.flappybird.verification;
+
+/**
+ * Enum representing the outcome of verifying a score submission.
+ * <p>
+ *     ACCEPTED means the game was played again and ended with the
+ *     claimed score, SCORE_MISMATCH that it ended with another score or
+ *     did not match the flaps. MALFORMED submissions could never come
+ *     from the game and are rejected without playing them, and
+ *     OVER_BUDGET ones ran out of ticks or CPU time before the game was
+ *     over. BUSY means the queue of the verifier was full and the
+ *     submission should be sent again later.
+ * </p>
+ */
+public enum Verdict {
+    ACCEPTED, SCORE_MISMATCH, MALFORMED, OVER_BUDGET, BUSY
+}
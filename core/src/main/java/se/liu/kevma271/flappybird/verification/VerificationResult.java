@@ -0,0 +1,63 @@
+package se.liu.kevma271.flappybird.verification;
+
+/**
+ * The outcome of verifying one score submission.
+ */
+public class VerificationResult {
+    private final Verdict verdict;
+    private final String reason;
+    private final int simulatedScore;
+    private final long ticks;
+    private final long cpuNanos;
+
+    /**
+     * Creates a result.
+     *
+     * @param verdict        The verdict.
+     * @param reason         Why the submission was not accepted, or
+     *                       null if it was.
+     * @param simulatedScore The score of the game when played again, or
+     *                       -1 if it was not played to the end.
+     * @param ticks          The number of ticks that were played.
+     * @param cpuNanos       The CPU time the verification took.
+     */
+    public VerificationResult(final Verdict verdict, final String reason, final int simulatedScore, final long ticks,
+			      final long cpuNanos)
+    {
+	this.verdict = verdict;
+	this.reason = reason;
+	this.simulatedScore = simulatedScore;
+	this.ticks = ticks;
+	this.cpuNanos = cpuNanos;
+    }
+
+    /**
+     * Creates the result of a submission that was not played.
+     *
+     * @param verdict The verdict.
+     * @param reason  Why the submission was not played.
+     * @return The result.
+     */
+    static VerificationResult unplayed(final Verdict verdict, final String reason) {
+	return new VerificationResult(verdict, reason, -1, 0, 0);
+    }
+
+    public Verdict getVerdict() {
+	return verdict;
+    }
+    public boolean isAccepted() {
+	return verdict == Verdict.ACCEPTED;
+    }
+    public String getReason() {
+	return reason;
+    }
+    public int getSimulatedScore() {
+	return simulatedScore;
+    }
+    public long getTicks() {
+	return ticks;
+    }
+    public long getCpuNanos() {
+	return cpuNanos;
+    }
+}
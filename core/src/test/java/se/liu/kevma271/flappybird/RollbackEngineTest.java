@@ -0,0 +1,90 @@
+package se.liu.kevma271.flappybird;
+
+import org.junit.jupiter.api.Test;
+import se.liu.kevma271.flappybird.events.BoardEvent;
+import se.liu.kevma271.flappybird.events.BoardEventType;
+import se.liu.kevma271.flappybird.events.OverflowPolicy;
+import se.liu.kevma271.flappybird.headless.AutopilotPolicy;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the event subscribers of a board learn about the frames
+ * that a late input has changed.
+ */
+class RollbackEngineTest {
+    private static final long SEED = 7;
+    private static final int FRAMES = 120;
+    private static final int LATE_FRAME = 90;
+    private static final int CAPACITY = 4096;
+
+    @Test
+    void lateInputPublishesTheCorrectedEvents() {
+	final Board board = new Board(new Bird(), SEED);
+	final List<BoardEvent> events = subscribe(board);
+	final RollbackEngine engine = new RollbackEngine(board, 60);
+	final AutopilotPolicy autopilot = new AutopilotPolicy();
+	final boolean[] flaps = new boolean[FRAMES];
+	for (int frame = 0; frame < FRAMES; frame++) {
+	    flaps[frame] = autopilot.shouldFlap(board) && frame != LATE_FRAME;
+	    engine.advance(flaps[frame]);
+	}
+	assertFalse(board.isGameOver(), "the game ended before the late input");
+	events.clear();
+	assertTrue(engine.applyLateInput(LATE_FRAME));
+
+	// The same game with the input on time
+	final Board onTime = new Board(new Bird(), SEED);
+	final List<BoardEvent> expected = subscribe(onTime);
+	final RollbackEngine onTimeEngine = new RollbackEngine(onTime, 60);
+	long rolledBackTick = -1;
+	for (int frame = 0; frame < FRAMES; frame++) {
+	    if (frame == LATE_FRAME) {
+		rolledBackTick = onTime.getTickCount();
+	    }
+	    onTimeEngine.advance(flaps[frame] || frame == LATE_FRAME);
+	}
+	final long fromTick = rolledBackTick;
+	expected.removeIf(event -> event.getTick() < fromTick);
+
+	assertEquals(BoardEventType.ROLLED_BACK, events.get(0).getType());
+	assertEquals(fromTick, events.get(0).getValue());
+	assertEquals(board.getTickCount(), events.get(0).getTick());
+	final List<BoardEvent> corrected = events.subList(1, events.size());
+	assertEquals(BoardEventType.FLAP, corrected.get(0).getType());
+	assertEquals(expected.size(), corrected.size(), "corrected events");
+	for (int i = 0; i < expected.size(); i++) {
+	    assertEquals(expected.get(i).getType(), corrected.get(i).getType(), "type of event " + i);
+	    assertEquals(expected.get(i).getTick(), corrected.get(i).getTick(), "tick of event " + i);
+	    assertEquals(expected.get(i).getValue(), corrected.get(i).getValue(), "value of event " + i);
+	}
+    }
+
+    /**
+     * Collects the events of a board on the thread that ticks it.
+     */
+    private static List<BoardEvent> subscribe(final Board board) {
+	final List<BoardEvent> events = new ArrayList<>();
+	board.getEventPublisher().subscribe(new Flow.Subscriber<>() {
+	    @Override public void onSubscribe(final Flow.Subscription subscription) {
+		subscription.request(Long.MAX_VALUE);
+	    }
+
+	    @Override public void onNext(final BoardEvent event) {
+		events.add(event);
+	    }
+
+	    @Override public void onError(final Throwable throwable) {}
+
+	    @Override public void onComplete() {}
+	}, CAPACITY, OverflowPolicy.BLOCK, Runnable::run);
+	return events;
+    }
+}
@@ -0,0 +1,81 @@
+package se.liu.kevma271.flappybird.collisions;
+
+import org.junit.jupiter.api.Test;
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.GameSettings;
+import se.liu.kevma271.flappybird.course.GeneratedCourse;
+import se.liu.kevma271.flappybird.objects.Bird;
+import se.liu.kevma271.flappybird.objects.FixedPoint;
+import se.liu.kevma271.flappybird.objects.Pipe;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that swept collisions catch pipes that are fast enough to pass
+ * through the bird between two ticks, as they do at low tick rates.
+ */
+class SweptCollisionTest {
+    /**
+     * Further in one tick than the pipe and the bird are wide together,
+     * so that the pipe can be on one side of the bird before the tick
+     * and on the other side after it.
+     */
+    private static final int PIPE_STEP = 150;
+    private static final int BIRD_X = 100;
+    private static final int PIPE_Y = -200;
+
+    private static final GameSettings FAST = GameSettings.DEFAULT.withPipeSpeed(FixedPoint.fromPixels(-PIPE_STEP))
+	    .withSweptCollisions(true);
+
+    @Test
+    void settingsTurnOnSweptCollisions() {
+	assertTrue(new Board(new Bird(), 1, new GeneratedCourse(1), FAST).hasSweptCollisions());
+	assertFalse(new Board(new Bird(), 1).hasSweptCollisions());
+    }
+
+    @Test
+    void fastPipeThatTunnelsIsCaught() {
+	final DefaultCollisions collisions = new DefaultCollisions();
+	final Board board = new Board(new Bird(), 1, new GeneratedCourse(1), FAST);
+	final Pipe pipe = passingPipe();
+	final int topPipeEnd = pipe.getPosY() + pipe.getHeight();
+
+	// In line with the top pipe, which is right of the bird before the tick and left of it after
+	final Bird bird = birdAt(topPipeEnd - 100);
+	assertTrue(pipe.getLastPosX() > bird.getPosX() + bird.getWidth());
+	assertTrue(pipe.getPosX() < bird.getPosX() - pipe.getWidth());
+	assertFalse(collisions.hasCollision(List.of(pipe), board, bird), "the discrete check saw the pipe");
+	assertTrue(collisions.hasSweptCollision(List.of(pipe), board, bird), "the swept check missed the pipe");
+    }
+
+    @Test
+    void fastPipeWithTheBirdInTheGapIsNotAHit() {
+	final DefaultCollisions collisions = new DefaultCollisions();
+	final Board board = new Board(new Bird(), 1, new GeneratedCourse(1), FAST);
+	final Pipe pipe = passingPipe();
+	final int topPipeEnd = pipe.getPosY() + pipe.getHeight();
+
+	final Bird bird = birdAt(topPipeEnd + (pipe.getGap() - pipe.getMushroom()) / 2);
+	assertFalse(collisions.hasCollision(List.of(pipe), board, bird));
+	assertFalse(collisions.hasSweptCollision(List.of(pipe), board, bird));
+    }
+
+    private static Pipe passingPipe() {
+	final Pipe pipe = new Pipe(FAST);
+	pipe.setPosY(PIPE_Y);
+	pipe.setLastPosition(BIRD_X + PIPE_STEP / 2, PIPE_Y);
+	pipe.setPosX(BIRD_X + PIPE_STEP / 2 + FixedPoint.toPixels(FAST.getPipeSpeed()));
+	return pipe;
+    }
+
+    private static Bird birdAt(final int posY) {
+	final Bird bird = new Bird();
+	bird.setPosX(BIRD_X);
+	bird.setPosY(posY);
+	bird.rememberPosition();
+	return bird;
+    }
+}
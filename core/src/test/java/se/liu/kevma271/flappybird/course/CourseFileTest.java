@@ -0,0 +1,35 @@
+package se.liu.kevma271.flappybird.course;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a course saved to a file is played the same as the course
+ * it was saved from.
+ */
+class CourseFileTest {
+    private static final int PIPES = 1000;
+
+    @Test
+    void dailyChallengeSurvivesTheFile(@TempDir Path directory) throws IOException {
+	final LocalDate date = LocalDate.of(2026, 10, 19);
+	final Path file = directory.resolve("daily.fbcr");
+	CourseFile.write(file, GeneratedCourse.daily(date), PIPES);
+
+	final GeneratedCourse daily = GeneratedCourse.daily(date);
+	try (CourseFile course = CourseFile.open(file)) {
+	    assertEquals(PIPES, course.getLength());
+	    for (long index = 0; index < PIPES; index++) {
+		assertEquals(daily.getPipeHeight(index), course.getPipeHeight(index), "height of pipe " + index);
+	    }
+	    // The course starts over once it has run out
+	    assertEquals(daily.getPipeHeight(7), course.getPipeHeight(PIPES + 7));
+	}
+    }
+}
@@ -0,0 +1,35 @@
+package se.liu.kevma271.flappybird.headless;
+
+import org.junit.jupiter.api.Test;
+import se.liu.kevma271.flappybird.Board;
+import se.liu.kevma271.flappybird.DeathCause;
+import se.liu.kevma271.flappybird.objects.Bird;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the autopilot plays well enough to be used for examples
+ * and benchmarks.
+ */
+class AutopilotPolicyTest {
+    private static final int SEEDS = 300;
+    private static final int MAX_FRAMES = 20_000;
+
+    /**
+     * The gap of the first pipe may start below the floor, and the bird
+     * must then still keep above the floor.
+     */
+    @Test
+    void clearsTheFirstPipe() {
+	for (long seed = 1; seed <= SEEDS; seed++) {
+	    final Board board = new Board(new Bird(), seed);
+	    new HeadlessGame(board, new AutopilotPolicy()).run(MAX_FRAMES);
+	    assertTrue(board.getScore() >= 1, "seed " + seed + " died at tick " + board.getTickCount() + " on " +
+					       board.getDeathCause() + " before the first pipe");
+	    if (board.getScore() < 2) {
+		assertNotEquals(DeathCause.FLOOR, board.getDeathCause(), "seed " + seed + " fell to the floor");
+	    }
+	}
+    }
+}
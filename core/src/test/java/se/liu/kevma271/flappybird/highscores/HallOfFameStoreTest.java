@@ -0,0 +1,112 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that games in several processes can share a hall of fame
+ * without losing each other's scores.
+ * <p>
+ *     Several writer processes are started at the same moment, and each
+ *     of them adds scores one at a time to the same file through a
+ *     {@link HallOfFameStore} that keeps every score. Once they have all
+ *     exited, every score must be in the file exactly once, and no
+ *     update may have held the lock for long. The writers run the
+ *     {@link #main(String[])} method of this class.
+ * </p>
+ */
+class HallOfFameStoreTest {
+    private static final int PROCESSES = 8;
+    private static final int UPDATES = 50;
+    private static final long START_DELAY_MILLIS = 2000;
+
+    /**
+     * An update reads, merges and writes a few hundred scores while it
+     * holds the lock, which should take a few milliseconds even when the
+     * writers share one processor.
+     */
+    private static final long MAX_HOLD_NANOS = 250_000_000L;
+
+    @Test
+    void writerProcessesLoseNoScores(@TempDir Path directory) throws IOException, InterruptedException {
+	final Path file = directory.resolve("halloffame.json");
+
+	// The writers run this class on the same JVM and class path
+	final String java = ProcessHandle.current().info().command().orElse("java");
+	final String classPath = System.getProperty("java.class.path");
+	final long startMillis = System.currentTimeMillis() + START_DELAY_MILLIS;
+	final List<Process> writers = new ArrayList<>();
+	for (int i = 0; i < PROCESSES; i++) {
+	    writers.add(new ProcessBuilder(java, "-cp", classPath, HallOfFameStoreTest.class.getName(), file.toString(),
+					   String.valueOf(i), String.valueOf(startMillis))
+				.redirectError(ProcessBuilder.Redirect.INHERIT).start());
+	}
+
+	final long[] holds = new long[PROCESSES * UPDATES];
+	int timed = 0;
+	for (Process writer : writers) {
+	    try (BufferedReader reader = new BufferedReader(
+		    new InputStreamReader(writer.getInputStream(), StandardCharsets.US_ASCII))) {
+		String hold;
+		while ((hold = reader.readLine()) != null) {
+		    if (timed < holds.length) {
+			holds[timed] = Long.parseLong(hold);
+		    }
+		    timed += 1;
+		}
+	    }
+	    assertEquals(0, writer.waitFor(), "exit code of a writer process");
+	}
+	assertEquals(holds.length, timed, "updates timed by the writers");
+
+	// Every score is unique, so any score that is missing or repeated is a lost or doubled update
+	final Map<Integer, Integer> counts = new HashMap<>();
+	for (Highscore highscore : new HallOfFameStore(file, Integer.MAX_VALUE).load()) {
+	    counts.merge(highscore.getScore(), 1, Integer::sum);
+	}
+	for (int score = 1; score <= PROCESSES * UPDATES; score++) {
+	    assertEquals(1, counts.getOrDefault(score, 0), "times that score " + score + " was saved");
+	}
+	assertEquals(PROCESSES * UPDATES, counts.size(), "distinct scores saved");
+
+	Arrays.sort(holds);
+	final long maxHold = holds[holds.length - 1];
+	assertTrue(maxHold < MAX_HOLD_NANOS, "the lock was held for " + maxHold / 1_000_000 + " ms");
+    }
+
+    /**
+     * Adds the scores of one writer one at a time, and prints how long
+     * every update held the lock.
+     *
+     * @param args The hall of fame file, the index of the writer and the
+     *             time in epoch milliseconds to start at.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+	final HallOfFameStore store = new HallOfFameStore(Paths.get(args[0]), Integer.MAX_VALUE);
+	final int writer = Integer.parseInt(args[1]);
+	Thread.sleep(Math.max(0, Long.parseLong(args[2]) - System.currentTimeMillis()));
+	final StringBuilder holds = new StringBuilder();
+	for (int i = 0; i < UPDATES; i++) {
+	    final Highscore highscore = new Highscore(writer * UPDATES + i + 1);
+	    highscore.setUsername("writer" + writer);
+	    store.update(List.of(highscore));
+	    holds.append(store.getLastHoldNanos()).append('\n');
+	}
+	System.out.print(holds);
+    }
+}
@@ -0,0 +1,85 @@
+package se.liu.kevma271.flappybird.highscores;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the score rank index at the edges of its range, where sizes
+ * and scores no longer fit in an int.
+ */
+class ScoreRankIndexTest {
+    /**
+     * The characters "FBRK" at the start of a saved index.
+     */
+    private static final int MAGIC = 0x4642524B;
+
+    @Test
+    void scoresAboveTheRangeAreRejected() {
+	final ScoreRankIndex index = new ScoreRankIndex();
+	index.insert(3);
+	index.insert(ScoreRankIndex.MAX_SCORE);
+	assertThrows(IllegalArgumentException.class, () -> index.insert(ScoreRankIndex.MAX_SCORE + 1));
+	assertThrows(IllegalArgumentException.class, () -> index.insert(2_000_000_000));
+	assertThrows(IllegalArgumentException.class, () -> index.insert(Integer.MAX_VALUE));
+	assertEquals(2, index.size());
+	assertEquals(1, index.rankOf(Integer.MAX_VALUE));
+	assertEquals(1, index.rankOf(ScoreRankIndex.MAX_SCORE));
+	assertEquals(2, index.rankOf(3));
+    }
+
+    @Test
+    void loadsMoreEntriesThanAnIntHolds(@TempDir Path directory) throws IOException {
+	final Path file = directory.resolve("scoreranks.bin");
+	writeIndex(file, new int[] { 5, 10 }, new long[] { Integer.MAX_VALUE, 1 });
+	final ScoreRankIndex index = new ScoreRankIndex();
+	index.load(file);
+	index.load(file);
+
+	final long size = 2L * Integer.MAX_VALUE + 2;
+	assertEquals(size, index.size());
+	assertEquals(1, index.rankOf(10));
+	assertEquals(3, index.rankOf(5));
+	assertEquals(size + 1, index.rankOf(4));
+	assertEquals(10, index.scoreAt(2));
+	assertEquals(5, index.scoreAt(size));
+	assertArrayEquals(new int[] { 10, 10, 5 }, index.getPage(1, 3));
+	assertArrayEquals(new int[] { 5, 5 }, index.getPage(size - 1, 10));
+    }
+
+    @Test
+    void brokenFilesLeaveTheIndexAsItWas(@TempDir Path directory) throws IOException {
+	final ScoreRankIndex index = new ScoreRankIndex();
+	index.insert(7);
+	final Path file = directory.resolve("scoreranks.bin");
+
+	writeIndex(file, new int[] { 1, Integer.MAX_VALUE }, new long[] { 1, 1 });
+	assertThrows(IOException.class, () -> index.load(file));
+	writeIndex(file, new int[] { 1, 2 }, new long[] { 1, -1 });
+	assertThrows(IOException.class, () -> index.load(file));
+	writeIndex(file, new int[] { 1, 2 }, new long[] { Long.MAX_VALUE, 1 });
+	assertThrows(IOException.class, () -> index.load(file));
+
+	assertEquals(1, index.size());
+	assertEquals(1, index.rankOf(7));
+    }
+
+    private static void writeIndex(Path file, int[] scores, long[] counts) throws IOException {
+	try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+	    out.writeInt(MAGIC);
+	    out.writeInt(scores.length);
+	    for (int i = 0; i < scores.length; i++) {
+		out.writeInt(scores[i]);
+		out.writeLong(counts[i]);
+	    }
+	}
+    }
+}
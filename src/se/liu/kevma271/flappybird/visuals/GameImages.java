@@ -1,9 +0,0 @@
-package se.liu.kevma271.flappybird.visuals;
-
-/**
- * Enumeration representing different images used in the Flappy Bird game.
- */
-public enum GameImages {
-    BACKGROUND, FLOOR, REGULAR_FLAPPY, SUPER_FLAPPY, GRAVITY_FLAPPY, FLAPPY, TOP_PIPE, BOTTOM_PIPE
-
-}